@@ -1,4 +1,5 @@
 import view.MainFrame;
+import utils.EdtWatchdog;
 import utils.UIHelper;
 
 import javax.swing.*;
@@ -16,6 +17,9 @@ public class Main {
             e.printStackTrace();
         }
         
+        // Watch for the UI freezing; stalls are shown under Admin > Diagnostics
+        EdtWatchdog.getShared().start();
+        
         // Start application on the Event Dispatch Thread
         SwingUtilities.invokeLater(new Runnable() {
             @Override
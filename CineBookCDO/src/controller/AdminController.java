@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -18,20 +19,70 @@ import java.util.stream.Collectors;
  * AdminController handles administrative operations
  */
 public class AdminController {
-    private List<Movie> movies;
-    private List<Cinema> cinemas;
+    private CatalogStore catalog;
     private List<Booking> bookings;
-    private int nextMovieId;
+    
+    // Hall occupancy of every showing, for schedule conflict checks
+    private HallScheduleIndex hallSchedules;
+    private ProgrammeScheduler programmeScheduler;
     
     // Reference to other controllers
     private BookingController bookingController;
     
+    // Fill-rate analytics over the booking controller's seat occupancy
+    private OccupancyAnalytics occupancyAnalytics;
+    
+    // Recently generated sales reports
+    private ReportCache reportCache;
+    private BookingController.BookingListener reportInvalidator;
+    
     public AdminController() {
-        this.movies = new ArrayList<>();
-        this.cinemas = new ArrayList<>();
+        this(new CatalogStore());
+    }
+    
+    /**
+     * Create an admin controller over a shared catalog
+     * @param catalog The catalog store
+     */
+    public AdminController(CatalogStore catalog) {
+        this.catalog = catalog;
         this.bookings = new ArrayList<>();
-        this.nextMovieId = 1;
-        this.bookingController = new BookingController();
+        this.hallSchedules = new HallScheduleIndex();
+        this.programmeScheduler = new ProgrammeScheduler(hallSchedules);
+        
+        catalog.addCatalogListener(new CatalogStore.CatalogListener() {
+            @Override
+            public void movieAdded(Movie movie) {
+                hallSchedules.index(movie);
+            }
+            
+            @Override
+            public void movieUpdated(Movie movie) {
+                hallSchedules.index(movie);
+            }
+            
+            @Override
+            public void movieRemoved(Movie movie) {
+                hallSchedules.remove(movie);
+            }
+        });
+        for (Movie movie : catalog.snapshot().getMovies()) {
+            hallSchedules.index(movie);
+        }
+        
+        this.reportCache = new ReportCache(REPORT_CACHE_CAPACITY);
+        this.reportInvalidator = new BookingController.BookingListener() {
+            @Override
+            public void bookingAdded(Booking booking) {
+                reportCache.invalidate(booking.getBookingTime().toLocalDate());
+            }
+            
+            @Override
+            public void bookingRemoved(Booking booking) {
+                reportCache.invalidate(booking.getBookingTime().toLocalDate());
+            }
+        };
+        setBookingController(new BookingController());
     }
     
     /**
@@ -39,23 +90,37 @@ public class AdminController {
      * @param bookingController The booking controller
      */
     public void setBookingController(BookingController bookingController) {
+        if (this.bookingController != null) {
+            this.bookingController.removeBookingListener(reportInvalidator);
+        }
         this.bookingController = bookingController;
+        this.occupancyAnalytics = new OccupancyAnalytics(bookingController);
+        bookingController.addBookingListener(reportInvalidator);
+        reportCache.invalidateAll();
+    }
+    
+    /**
+     * Get the sales report cache (for hit/miss metrics)
+     * @return The report cache
+     */
+    public ReportCache getReportCache() {
+        return reportCache;
     }
     
     /**
      * Get all movies
-     * @return List of all movies
+     * @return Unmodifiable list of all movies
      */
     public List<Movie> getAllMovies() {
-        return new ArrayList<>(movies);
+        return catalog.snapshot().getMovies();
     }
     
     /**
      * Get all cinemas
-     * @return List of all cinemas
+     * @return Unmodifiable list of all cinemas
      */
     public List<Cinema> getAllCinemas() {
-        return new ArrayList<>(cinemas);
+        return catalog.snapshot().getCinemas();
     }
     
     /**
@@ -66,6 +131,22 @@ public class AdminController {
         return bookingController.getAllBookings();
     }
     
+    /**
+     * Register a listener for bookings being made or cancelled
+     * @param listener The listener to add
+     */
+    public void addBookingListener(BookingController.BookingListener listener) {
+        bookingController.addBookingListener(listener);
+    }
+    
+    /**
+     * Unregister a booking listener
+     * @param listener The listener to remove
+     */
+    public void removeBookingListener(BookingController.BookingListener listener) {
+        bookingController.removeBookingListener(listener);
+    }
+    
     /**
      * Add a new movie
      * @param title The movie title
@@ -81,12 +162,12 @@ public class AdminController {
     public Movie addMovie(String title, String genre, int durationMinutes, String director, 
                           String synopsis, String rating, Cinema cinema, boolean isActive) {
         
-        Movie movie = new Movie(nextMovieId++, title, genre, durationMinutes, director, 
+        Movie movie = new Movie(catalog.nextMovieId(), title, genre, durationMinutes, director, 
                                 synopsis, "movie_placeholder.svg", rating, cinema);
         movie.setActive(isActive);
         
-        movies.add(movie);
         cinema.addMovie(movie);
+        catalog.addMovie(movie);
         
         return movie;
     }
@@ -100,6 +181,10 @@ public class AdminController {
         // In a real application, we might need to find and update the movie
         // Since we're using references, the movie is already updated
         
+        // Cached reports may show the old title or cinema
+        reportCache.invalidateAll();
+        
+        catalog.updateMovie(movie);
         return true;
     }
     
@@ -112,28 +197,98 @@ public class AdminController {
         // Remove from cinema's movies list
         movie.getCinema().removeMovie(movie);
         
-        // Remove from movies list
-        return movies.remove(movie);
+        // Cached reports may still list the movie
+        reportCache.invalidateAll();
+        
+        // Remove from the catalog
+        return catalog.removeMovie(movie);
     }
     
     /**
      * Add a schedule to a movie
      * @param movie The movie
      * @param schedule The schedule to add
-     * @return true if successful, false otherwise
+     * @return true if successful, false if the schedule exists or the hall is taken at that time
      */
     public boolean addSchedule(Movie movie, LocalDateTime schedule) {
-        // Check for conflicts (you could implement more sophisticated checks)
         for (LocalDateTime existing : movie.getSchedules()) {
             if (existing.equals(schedule)) {
                 return false; // Schedule already exists
             }
         }
         
+        // The hall must be free for the whole movie plus cleaning
+        if (hallSchedules.findConflict(movie, schedule) != null) {
+            return false;
+        }
+        
         movie.addSchedule(schedule);
+        
+        catalog.updateMovie(movie);
         return true;
     }
     
+    /**
+     * Check whether a new schedule would overlap another showing in the movie's hall
+     * @param movie The movie
+     * @param schedule The proposed schedule
+     * @return The conflict, or null if the hall is free
+     */
+    public HallScheduleIndex.ScheduleConflict getScheduleConflict(Movie movie, LocalDateTime schedule) {
+        return hallSchedules.findConflict(movie, schedule);
+    }
+    
+    /**
+     * Validate a batch of new showings against the schedule and against each other
+     * @param programme The proposed showings
+     * @return Every conflict found (empty if the programme fits)
+     */
+    public List<HallScheduleIndex.ScheduleConflict> validateProgramme(List<HallScheduleIndex.Showing> programme) {
+        return hallSchedules.validateProgramme(programme);
+    }
+    
+    /**
+     * Find overlapping showings in a week of the existing schedule
+     * @param weekStart The first day of the week
+     * @return The conflicts found
+     */
+    public List<HallScheduleIndex.ScheduleConflict> findWeekConflicts(LocalDate weekStart) {
+        return hallSchedules.findExistingConflicts(weekStart.atStartOfDay(), weekStart.plusDays(7).atStartOfDay());
+    }
+    
+    /**
+     * Plan new showings for every hall around the existing schedule
+     * @param request The week, opening hours, cleaning buffer and movie weights
+     * @return The generated programme (not yet applied)
+     * @throws InterruptedException If interrupted while planning
+     */
+    public ProgrammeScheduler.Programme generateProgramme(ProgrammeScheduler.ProgrammeRequest request) 
+            throws InterruptedException {
+        return programmeScheduler.generate(request, getAllCinemas(), getAllMovies());
+    }
+    
+    /**
+     * Add a batch of showings, all or nothing
+     * @param programme The showings to add
+     * @return The conflicts that prevented adding them (empty if they were added)
+     */
+    public List<HallScheduleIndex.ScheduleConflict> applyProgramme(List<HallScheduleIndex.Showing> programme) {
+        List<HallScheduleIndex.ScheduleConflict> conflicts = hallSchedules.validateProgramme(programme);
+        if (!conflicts.isEmpty()) return conflicts;
+        
+        // Add every schedule first, then publish each changed movie once
+        Map<Movie, Boolean> changedMovies = new IdentityHashMap<>();
+        for (HallScheduleIndex.Showing showing : programme) {
+            showing.getMovie().addSchedule(showing.getStart());
+            changedMovies.put(showing.getMovie(), Boolean.TRUE);
+        }
+        for (Movie movie : changedMovies.keySet()) {
+            catalog.updateMovie(movie);
+        }
+        
+        return conflicts;
+    }
+    
     /**
      * Remove a schedule from a movie
      * @param movie The movie
@@ -142,6 +297,8 @@ public class AdminController {
      */
     public boolean removeSchedule(Movie movie, LocalDateTime schedule) {
         movie.removeSchedule(schedule);
+        
+        catalog.updateMovie(movie);
         return true;
     }
     
@@ -163,6 +320,31 @@ public class AdminController {
         return result;
     }
     
+    /**
+     * Receives a sales report as it is generated, one chunk of text at a time
+     */
+    public interface ReportListener {
+        /**
+         * Called whenever a chunk of report text is ready
+         * @param chunk The report text to append
+         * @param sectionsDone Number of sections completed so far
+         * @param sectionCount Total number of sections in the report
+         */
+        void chunkReady(String chunk, int sectionsDone, int sectionCount);
+    }
+    
+    // Number of sections in a sales report (header, summary, cinema, movie, daily)
+    public static final int REPORT_SECTION_COUNT = 5;
+    
+    // Long sections are flushed to the listener every this many entries
+    private static final int REPORT_CHUNK_ENTRIES = 64;
+    
+    // Dimensions the sales report is broken down by (part of the report cache key)
+    private static final String REPORT_DIMENSIONS = "CINEMA,MOVIE,DAILY";
+    
+    // Maximum number of reports kept in the report cache
+    private static final int REPORT_CACHE_CAPACITY = 32;
+    
     /**
      * Generate a sales report for a date range
      * @param fromDate Start date
@@ -171,15 +353,70 @@ public class AdminController {
      */
     public String generateSalesReport(LocalDate fromDate, LocalDate toDate) {
         StringBuilder report = new StringBuilder();
+        generateSalesReport(fromDate, toDate, (chunk, sectionsDone, sectionCount) -> report.append(chunk));
+        return report.toString();
+    }
+    
+    /**
+     * Generate a sales report for a date range, handing each chunk to a listener as soon as it is built.
+     * Apart from the header, which carries the generation time, results are served from the
+     * report cache when the same range was generated before.
+     * Generation stops early if the calling thread is interrupted.
+     * @param fromDate Start date
+     * @param toDate End date
+     * @param listener Receives the report text chunk by chunk
+     */
+    public void generateSalesReport(LocalDate fromDate, LocalDate toDate, ReportListener listener) {
+        ReportCache.Key key = new ReportCache.Key(fromDate, toDate, REPORT_DIMENSIONS);
+        
+        listener.chunkReady(buildReportHeader(fromDate, toDate), 1, REPORT_SECTION_COUNT);
+        if (Thread.currentThread().isInterrupted()) return;
+        
+        List<ReportCache.Chunk> cached = reportCache.get(key);
+        if (cached != null) {
+            for (ReportCache.Chunk chunk : cached) {
+                listener.chunkReady(chunk.getText(), chunk.getSectionsDone(), REPORT_SECTION_COUNT);
+            }
+            return;
+        }
+        
+        long version = reportCache.getVersion();
+        List<ReportCache.Chunk> chunks = new ArrayList<>();
+        
+        buildSalesReport(fromDate, toDate, (chunk, sectionsDone, sectionCount) -> {
+            chunks.add(new ReportCache.Chunk(chunk, sectionsDone));
+            listener.chunkReady(chunk, sectionsDone, sectionCount);
+        });
+        
+        // Only cache complete reports
+        if (!Thread.currentThread().isInterrupted()) {
+            reportCache.put(key, chunks, version);
+        }
+    }
+    
+    /**
+     * Build the header of a sales report, stamped with the current time
+     */
+    private String buildReportHeader(LocalDate fromDate, LocalDate toDate) {
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+        StringBuilder header = new StringBuilder();
         
-        report.append("SALES REPORT\n");
-        report.append("============================================\n");
-        report.append("Period: ").append(fromDate.format(dateFormatter))
+        header.append("SALES REPORT\n");
+        header.append("============================================\n");
+        header.append("Period: ").append(fromDate.format(dateFormatter))
               .append(" to ").append(toDate.format(dateFormatter)).append("\n");
-        report.append("Generated: ").append(LocalDateTime.now().format(
+        header.append("Generated: ").append(LocalDateTime.now().format(
             DateTimeFormatter.ofPattern("MMMM d, yyyy 'at' h:mm a"))).append("\n");
-        report.append("============================================\n\n");
+        header.append("============================================\n\n");
+        return header.toString();
+    }
+    
+    /**
+     * Build the sections after the header from the current bookings, chunk by chunk
+     */
+    private void buildSalesReport(LocalDate fromDate, LocalDate toDate, ReportListener listener) {
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+        StringBuilder chunk = new StringBuilder();
         
         // Get bookings in date range
         List<Booking> periodBookings = new ArrayList<>();
@@ -205,16 +442,17 @@ public class AdminController {
             totalSnacks += booking.getSelectedSnacks().size();
         }
         
-        report.append("SUMMARY STATISTICS\n");
-        report.append("--------------------------------------------\n");
-        report.append("Total Bookings: ").append(totalBookings).append("\n");
-        report.append("Total Revenue: ₱").append(String.format("%.2f", totalSales)).append("\n");
-        report.append("Total Seats Sold: ").append(totalSeats).append("\n");
-        report.append("Total Snack Items Sold: ").append(totalSnacks).append("\n\n");
+        chunk.append("SUMMARY STATISTICS\n");
+        chunk.append("--------------------------------------------\n");
+        chunk.append("Total Bookings: ").append(totalBookings).append("\n");
+        chunk.append("Total Revenue: ₱").append(String.format("%.2f", totalSales)).append("\n");
+        chunk.append("Total Seats Sold: ").append(totalSeats).append("\n");
+        chunk.append("Total Snack Items Sold: ").append(totalSnacks).append("\n\n");
+        if (!flushReportChunk(listener, chunk, 2)) return;
         
         // Sales by cinema
-        report.append("SALES BY CINEMA\n");
-        report.append("--------------------------------------------\n");
+        chunk.append("SALES BY CINEMA\n");
+        chunk.append("--------------------------------------------\n");
         
         Map<Cinema, Double> cinemaSales = new HashMap<>();
         
@@ -224,17 +462,18 @@ public class AdminController {
         }
         
         for (Map.Entry<Cinema, Double> entry : cinemaSales.entrySet()) {
-            report.append(entry.getKey().getName())
-                  .append(": ₱")
-                  .append(String.format("%.2f", entry.getValue()))
-                  .append("\n");
+            chunk.append(entry.getKey().getName())
+                 .append(": ₱")
+                 .append(String.format("%.2f", entry.getValue()))
+                 .append("\n");
         }
         
-        report.append("\n");
+        chunk.append("\n");
+        if (!flushReportChunk(listener, chunk, 3)) return;
         
         // Sales by movie
-        report.append("SALES BY MOVIE\n");
-        report.append("--------------------------------------------\n");
+        chunk.append("SALES BY MOVIE\n");
+        chunk.append("--------------------------------------------\n");
         
         Map<Movie, Double> movieSales = new HashMap<>();
         Map<Movie, Integer> movieSeats = new HashMap<>();
@@ -248,18 +487,22 @@ public class AdminController {
             movieSeats.put(movie, movieSeats.getOrDefault(movie, 0) + seats);
         }
         
+        int entries = 0;
         for (Map.Entry<Movie, Double> entry : movieSales.entrySet()) {
             Movie movie = entry.getKey();
-            report.append(movie.getTitle())
-                  .append(" (").append(movie.getCinema().getName()).append(")")
-                  .append("\n   Revenue: ₱").append(String.format("%.2f", entry.getValue()))
-                  .append("\n   Tickets: ").append(movieSeats.get(movie))
-                  .append("\n\n");
+            chunk.append(movie.getTitle())
+                 .append(" (").append(movie.getCinema().getName()).append(")")
+                 .append("\n   Revenue: ₱").append(String.format("%.2f", entry.getValue()))
+                 .append("\n   Tickets: ").append(movieSeats.get(movie))
+                 .append("\n\n");
+            
+            if (++entries % REPORT_CHUNK_ENTRIES == 0 && !flushReportChunk(listener, chunk, 3)) return;
         }
+        if (!flushReportChunk(listener, chunk, 4)) return;
         
         // Daily sales breakdown
-        report.append("DAILY SALES BREAKDOWN\n");
-        report.append("--------------------------------------------\n");
+        chunk.append("DAILY SALES BREAKDOWN\n");
+        chunk.append("--------------------------------------------\n");
         
         Map<LocalDate, Double> dailySales = new HashMap<>();
         
@@ -274,14 +517,57 @@ public class AdminController {
             .sorted(Map.Entry.comparingByKey())
             .collect(Collectors.toList());
         
+        entries = 0;
         for (Map.Entry<LocalDate, Double> entry : sortedDailySales) {
-            report.append(entry.getKey().format(dateFormatter))
-                  .append(": ₱")
-                  .append(String.format("%.2f", entry.getValue()))
-                  .append("\n");
+            chunk.append(entry.getKey().format(dateFormatter))
+                 .append(": ₱")
+                 .append(String.format("%.2f", entry.getValue()))
+                 .append("\n");
+            
+            if (++entries % REPORT_CHUNK_ENTRIES == 0 && !flushReportChunk(listener, chunk, 4)) return;
         }
-        
-        return report.toString();
+        flushReportChunk(listener, chunk, REPORT_SECTION_COUNT);
+    }
+    
+    /**
+     * Hand the buffered report text to the listener and clear the buffer
+     * @return false if the calling thread has been interrupted and generation should stop
+     */
+    private boolean flushReportChunk(ReportListener listener, StringBuilder chunk, int sectionsDone) {
+        if (chunk.length() > 0) {
+            listener.chunkReady(chunk.toString(), sectionsDone, REPORT_SECTION_COUNT);
+            chunk.setLength(0);
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+    
+    /**
+     * Get the fill-rate analytics module
+     * @return The occupancy analytics
+     */
+    public OccupancyAnalytics getOccupancyAnalytics() {
+        return occupancyAnalytics;
+    }
+    
+    /**
+     * Generate an occupancy (fill rate) report for all showings in a date range
+     * @param fromDate Start date
+     * @param toDate End date
+     * @return Formatted occupancy report as string
+     */
+    public String generateOccupancyReport(LocalDate fromDate, LocalDate toDate) {
+        return occupancyAnalytics.generateOccupancyReport(getAllMovies(), fromDate, toDate);
+    }
+    
+    /**
+     * Count per-seat sales of a cinema across all its showings in a date range
+     * @param cinema The cinema
+     * @param fromDate Start date
+     * @param toDate End date
+     * @return Sale count per seat, indexed like the cinema's seat layout
+     */
+    public int[] computeSeatHeatmap(Cinema cinema, LocalDate fromDate, LocalDate toDate) {
+        return occupancyAnalytics.computeSeatHeatmap(cinema, getAllMovies(), fromDate, toDate);
     }
     
     /**
@@ -289,7 +575,7 @@ public class AdminController {
      * @param cinema The cinema to add
      */
     public void addCinema(Cinema cinema) {
-        cinemas.add(cinema);
+        catalog.addCinema(cinema);
     }
     
     /**
@@ -297,11 +583,7 @@ public class AdminController {
      * @param movie The movie to add
      */
     public void addMovie(Movie movie) {
-        // Update nextMovieId if necessary
-        if (movie.getId() >= nextMovieId) {
-            nextMovieId = movie.getId() + 1;
-        }
-        
-        movies.add(movie);
+        // The catalog keeps new movie IDs above every existing ID
+        catalog.addMovie(movie);
     }
 }
@@ -0,0 +1,222 @@
+package controller;
+
+import model.Booking;
+import model.Cinema;
+import model.Movie;
+import model.PaymentMethod;
+import model.Seat;
+import model.User;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncControllers runs controller operations on a dedicated worker pool so views never
+ * do domain work on the UI thread. Each operation returns a CompletableFuture that is
+ * completed through the result executor. For the Swing views this is
+ * SwingUtilities::invokeLater, so handlers attached with whenComplete run on the Event
+ * Dispatch Thread. Failures are delivered with the controller's own exception rather
+ * than wrapped in a CompletionException.
+ */
+public class AsyncControllers {
+    // Requests waiting beyond this are refused rather than queued indefinitely
+    private static final int QUEUE_CAPACITY = 256;
+    
+    private UserController userController;
+    private MovieController movieController;
+    private BookingController bookingController;
+    private AdminController adminController;
+    
+    private final ExecutorService executor;
+    private final Executor resultExecutor;
+    
+    /**
+     * @param resultExecutor Completes the returned futures, e.g. SwingUtilities::invokeLater
+     */
+    public AsyncControllers(UserController userController, MovieController movieController,
+                            BookingController bookingController, AdminController adminController,
+                            Executor resultExecutor) {
+        this.userController = userController;
+        this.movieController = movieController;
+        this.bookingController = bookingController;
+        this.adminController = adminController;
+        this.resultExecutor = resultExecutor;
+        this.executor = createExecutor();
+    }
+    
+    // Users
+    
+    /**
+     * Login a user (hashing runs on the user controller's authentication workers)
+     * @see UserController#loginAsync(String, char[])
+     */
+    public CompletableFuture<User> login(String username, char[] password) {
+        return deliver(userController.loginAsync(username, password));
+    }
+    
+    /**
+     * @see UserController#registerUserAsync(String, char[], String, String, String)
+     */
+    public CompletableFuture<User> registerUser(String username, char[] password, String fullName,
+                                                String email, String phoneNumber) {
+        return deliver(userController.registerUserAsync(username, password, fullName, email, phoneNumber));
+    }
+    
+    /**
+     * @see UserController#createGuestUser(String, String, String)
+     */
+    public CompletableFuture<User> createGuestUser(String fullName, String email, String phoneNumber) {
+        return supply(() -> userController.createGuestUser(fullName, email, phoneNumber));
+    }
+    
+    // Movies
+    
+    /**
+     * @see MovieController#filterMovies(MovieFacetIndex.FacetQuery, String)
+     */
+    public CompletableFuture<MovieFacetIndex.FacetResult> filterMovies(MovieFacetIndex.FacetQuery query, String searchTerm) {
+        return supply(() -> movieController.filterMovies(query, searchTerm));
+    }
+    
+    /**
+     * @see MovieController#getShowtimesStartingSoon(LocalDateTime, Duration, int)
+     */
+    public CompletableFuture<List<ShowtimeIndex.Showtime>> getShowtimesStartingSoon(LocalDateTime now, Duration window,
+                                                                                    int limit) {
+        return supply(() -> movieController.getShowtimesStartingSoon(now, window, limit));
+    }
+    
+    // Bookings
+    
+    /**
+     * @see BookingController#getAvailableSeats(Movie, LocalDateTime)
+     */
+    public CompletableFuture<List<Seat>> getAvailableSeats(Movie movie, LocalDateTime schedule) {
+        return supply(() -> bookingController.getAvailableSeats(movie, schedule));
+    }
+    
+    /**
+     * @see BookingController#getBookingHistory(User, BookingHistoryIndex.Cursor, int)
+     */
+    public CompletableFuture<BookingHistoryIndex.Page> getBookingHistory(User user, BookingHistoryIndex.Cursor after,
+                                                                         int pageSize) {
+        return supply(() -> bookingController.getBookingHistory(user, after, pageSize));
+    }
+    
+    /**
+     * Authorize a booking's payment. Progress is reported through the result executor.
+     * @see BookingController#authorizePayment(Booking, PaymentMethod, PaymentProcessor.ProgressListener)
+     */
+    public CompletableFuture<PaymentGateway.Authorization> authorizePayment(Booking booking, PaymentMethod method,
+                                                                            PaymentProcessor.ProgressListener listener) {
+        PaymentProcessor.ProgressListener delivered = listener == null ? null : (attempt, maxAttempts) ->
+            resultExecutor.execute(() -> listener.attemptStarted(attempt, maxAttempts));
+        return deliver(bookingController.authorizePayment(booking, method, delivered));
+    }
+    
+    /**
+     * @see BookingController#voidPayment(Booking)
+     */
+    public CompletableFuture<Void> voidPayment(Booking booking) {
+        return deliver(bookingController.voidPayment(booking));
+    }
+    
+    // Admin reports
+    
+    /**
+     * @see AdminController#generateOccupancyReport(LocalDate, LocalDate)
+     */
+    public CompletableFuture<String> generateOccupancyReport(LocalDate fromDate, LocalDate toDate) {
+        return supply(() -> adminController.generateOccupancyReport(fromDate, toDate));
+    }
+    
+    /**
+     * @see AdminController#computeSeatHeatmap(Cinema, LocalDate, LocalDate)
+     */
+    public CompletableFuture<int[]> computeSeatHeatmap(Cinema cinema, LocalDate fromDate, LocalDate toDate) {
+        return supply(() -> adminController.computeSeatHeatmap(cinema, fromDate, toDate));
+    }
+    
+    /**
+     * @see AdminController#generateProgramme(ProgrammeScheduler.ProgrammeRequest)
+     */
+    public CompletableFuture<ProgrammeScheduler.Programme> generateProgramme(ProgrammeScheduler.ProgrammeRequest request) {
+        return supply(() -> adminController.generateProgramme(request));
+    }
+    
+    /**
+     * @see AdminController#findWeekConflicts(LocalDate)
+     */
+    public CompletableFuture<List<HallScheduleIndex.ScheduleConflict>> findWeekConflicts(LocalDate weekStart) {
+        return supply(() -> adminController.findWeekConflicts(weekStart));
+    }
+    
+    /**
+     * Run any other controller operation on the workers
+     * @param task The operation
+     * @return Future for its result, completed through the result executor
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> task) {
+        try {
+            return deliver(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        } catch (RejectedExecutionException e) {
+            return deliver(CompletableFuture.failedFuture(e));
+        }
+    }
+    
+    /**
+     * Stop the workers once the queued operations have finished
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    // Hand the outcome to the result executor, unwrapped from the CompletionException
+    private <T> CompletableFuture<T> deliver(CompletableFuture<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        work.whenComplete((value, error) -> resultExecutor.execute(() -> {
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ?
+                                             error.getCause() : error);
+            }
+        }));
+        return result;
+    }
+    
+    // One worker per core; idle workers exit after a while
+    private static ExecutorService createExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "controller-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
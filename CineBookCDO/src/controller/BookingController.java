@@ -4,24 +4,51 @@ import model.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * BookingController handles all booking-related operations
  */
 public class BookingController {
-    private List<Booking> bookings;
+    
+    /**
+     * Notified when bookings are added to or removed from the booking store
+     */
+    public interface BookingListener {
+        void bookingAdded(Booking booking);
+        
+        void bookingRemoved(Booking booking);
+    }
+    
+    // Guarded by itself; bookings are made on the EDT and read by worker threads
+    private final List<Booking> bookings;
+    private List<BookingListener> bookingListeners;
     private List<Snack> availableSnacks;
     
-    // Maps to keep track of seat availability
+    // Maps to keep track of seat availability (concurrent, since seats are loaded on worker threads)
     private Map<String, Map<LocalDateTime, List<Seat>>> cinemaSeats;
     
+    // Sold seats per showing (movie ID -> schedule -> occupancy bits)
+    private Map<Integer, Map<LocalDateTime, SeatOccupancy>> showingOccupancy;
+    
+    // Each user's bookings, newest first
+    private BookingHistoryIndex historyIndex;
+    
+    // Authorizes payments through the payment gateway
+    private volatile PaymentProcessor paymentProcessor;
+    
     public BookingController() {
         this.bookings = new ArrayList<>();
         this.availableSnacks = new ArrayList<>();
-        this.cinemaSeats = new HashMap<>();
+        this.cinemaSeats = new ConcurrentHashMap<>();
+        this.bookingListeners = new CopyOnWriteArrayList<>();
+        this.showingOccupancy = new ConcurrentHashMap<>();
+        this.historyIndex = new BookingHistoryIndex();
+        this.paymentProcessor = new PaymentProcessor(new SimulatedPaymentGateway());
         
         // Initialize snacks
         initializeSnacks();
@@ -54,7 +81,7 @@ public class BookingController {
      * @param cinema The cinema to initialize seats for
      */
     public void initializeCinemaSeats(Cinema cinema) {
-        cinemaSeats.put(String.valueOf(cinema.getId()), new HashMap<>());
+        cinemaSeats.put(String.valueOf(cinema.getId()), new ConcurrentHashMap<>());
     }
     
     /**
@@ -88,14 +115,10 @@ public class BookingController {
         String cinemaId = String.valueOf(cinema.getId());
         
         // Initialize cinema seats for this schedule if not already done
-        if (!cinemaSeats.containsKey(cinemaId)) {
-            cinemaSeats.put(cinemaId, new HashMap<>());
-        }
+        Map<LocalDateTime, List<Seat>> scheduleSeats = cinemaSeats.computeIfAbsent(cinemaId, id -> new ConcurrentHashMap<>());
         
-        Map<LocalDateTime, List<Seat>> scheduleSeats = cinemaSeats.get(cinemaId);
-        
-        if (!scheduleSeats.containsKey(schedule)) {
-            // Initialize seats for this schedule
+        // Get seats for this schedule, creating them the first time it is shown
+        List<Seat> availableSeats = scheduleSeats.computeIfAbsent(schedule, s -> {
             List<Seat> seats = new ArrayList<>();
             
             // Get the seat template from the cinema
@@ -107,31 +130,53 @@ public class BookingController {
                 seats.add(seat);
             }
             
-            scheduleSeats.put(schedule, seats);
-        }
-        
-        // Get seats for this schedule
-        List<Seat> availableSeats = scheduleSeats.get(schedule);
+            return seats;
+        });
         
         // Mark seats as occupied if they are already booked
-        for (Booking booking : bookings) {
-            if (booking.getMovie().getId() == movie.getId() && 
-                booking.getSchedule().equals(schedule)) {
-                
-                for (Seat bookedSeat : booking.getSelectedSeats()) {
-                    // Find corresponding seat in availableSeats
-                    for (Seat seat : availableSeats) {
-                        if (seat.getSeatNumber().equals(bookedSeat.getSeatNumber())) {
-                            seat.setOccupied(true);
-                        }
-                    }
-                }
+        SeatOccupancy occupancy = getSeatOccupancy(movie, schedule);
+        for (int i = 0; i < availableSeats.size(); i++) {
+            if (occupancy.get(i)) {
+                availableSeats.get(i).setOccupied(true);
             }
         }
         
         return availableSeats;
     }
     
+    /**
+     * Authorize the payment for a booking. This does not block; the booking should be
+     * marked paid once the returned future succeeds.
+     * @param booking The booking
+     * @param method The payment method
+     * @param listener Notified of each attempt (may be null)
+     * @return Future for the authorization
+     * @see PaymentProcessor#authorize(Booking, PaymentMethod, PaymentProcessor.ProgressListener)
+     */
+    public CompletableFuture<PaymentGateway.Authorization> authorizePayment(Booking booking, PaymentMethod method,
+                                                                            PaymentProcessor.ProgressListener listener) {
+        return paymentProcessor.authorize(booking, method, listener);
+    }
+    
+    /**
+     * Void the payment for a paid booking that is being cancelled. This does not block;
+     * the booking should be marked unpaid once the returned future succeeds.
+     * @param booking The booking
+     * @return Future completing once the payment is void
+     * @see PaymentProcessor#voidPayment(Booking)
+     */
+    public CompletableFuture<Void> voidPayment(Booking booking) {
+        return paymentProcessor.voidPayment(booking);
+    }
+    
+    /**
+     * Use a different payment gateway (the default is a local simulation)
+     * @param gateway The payment gateway
+     */
+    public void setPaymentGateway(PaymentGateway gateway) {
+        this.paymentProcessor = new PaymentProcessor(gateway);
+    }
+    
     /**
      * Finalize a booking
      * @param booking The booking to finalize
@@ -140,7 +185,9 @@ public class BookingController {
     public boolean finalizeBooking(Booking booking) {
         if (booking.isPaid()) {
             // Add the booking to the list
-            bookings.add(booking);
+            synchronized (bookings) {
+                bookings.add(booking);
+            }
             
             // Add the booking to the user
             booking.getUser().addBooking(booking);
@@ -149,7 +196,10 @@ public class BookingController {
             for (Seat seat : booking.getSelectedSeats()) {
                 seat.setOccupied(true);
             }
+            updateOccupancy(booking, true);
+            historyIndex.add(booking);
             
+            fireBookingAdded(booking);
             return true;
         }
         
@@ -162,7 +212,15 @@ public class BookingController {
      */
     public void cancelBooking(Booking booking) {
         // Remove from bookings list if it exists
-        bookings.remove(booking);
+        boolean removed;
+        synchronized (bookings) {
+            removed = bookings.remove(booking);
+        }
+        if (removed) {
+            updateOccupancy(booking, false);
+            historyIndex.remove(booking);
+            fireBookingRemoved(booking);
+        }
     }
     
     /**
@@ -170,7 +228,9 @@ public class BookingController {
      * @return List of all bookings
      */
     public List<Booking> getAllBookings() {
-        return new ArrayList<>(bookings);
+        synchronized (bookings) {
+            return new ArrayList<>(bookings);
+        }
     }
     
     /**
@@ -178,6 +238,99 @@ public class BookingController {
      * @param booking The booking to add
      */
     public void addBooking(Booking booking) {
-        bookings.add(booking);
+        synchronized (bookings) {
+            bookings.add(booking);
+        }
+        updateOccupancy(booking, true);
+        historyIndex.add(booking);
+        fireBookingAdded(booking);
+    }
+    
+    /**
+     * Get a page of a user's booking history, newest first
+     * @param user The user
+     * @param after Cursor from the previous page (null for the first page)
+     * @param pageSize Maximum number of bookings on the page
+     * @return The page, with the cursor for the next one
+     */
+    public BookingHistoryIndex.Page getBookingHistory(User user, BookingHistoryIndex.Cursor after, int pageSize) {
+        return historyIndex.getPage(user, after, pageSize);
+    }
+    
+    /**
+     * Get the number of bookings a user has made
+     * @param user The user
+     * @return The number of bookings
+     */
+    public int getBookingCount(User user) {
+        return historyIndex.getCount(user);
+    }
+    
+    /**
+     * Get the sold seats of a showing
+     * @param movie The movie
+     * @param schedule The schedule
+     * @return The occupancy bits (empty if no seats have been sold)
+     */
+    public SeatOccupancy getSeatOccupancy(Movie movie, LocalDateTime schedule) {
+        Map<LocalDateTime, SeatOccupancy> movieOccupancy = showingOccupancy.get(movie.getId());
+        SeatOccupancy occupancy = movieOccupancy != null ? movieOccupancy.get(schedule) : null;
+        
+        return occupancy != null ? occupancy : new SeatOccupancy(movie.getCinema().getSeatCount());
+    }
+    
+    /**
+     * Set or clear the occupancy bits for a booking's seats
+     * @param booking The booking
+     * @param occupied true to mark the seats sold, false to free them
+     */
+    private void updateOccupancy(Booking booking, boolean occupied) {
+        Movie movie = booking.getMovie();
+        Cinema cinema = movie.getCinema();
+        
+        SeatOccupancy occupancy = showingOccupancy
+            .computeIfAbsent(movie.getId(), id -> new ConcurrentHashMap<>())
+            .computeIfAbsent(booking.getSchedule(), schedule -> new SeatOccupancy(cinema.getSeatCount()));
+        
+        synchronized (occupancy) {
+            for (Seat seat : booking.getSelectedSeats()) {
+                int index = cinema.getSeatIndex(seat.getSeatNumber());
+                if (index < 0) continue;
+                
+                if (occupied) {
+                    occupancy.set(index);
+                } else {
+                    occupancy.clear(index);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Register a listener for booking changes
+     * @param listener The listener to add
+     */
+    public void addBookingListener(BookingListener listener) {
+        bookingListeners.add(listener);
+    }
+    
+    /**
+     * Unregister a booking listener
+     * @param listener The listener to remove
+     */
+    public void removeBookingListener(BookingListener listener) {
+        bookingListeners.remove(listener);
+    }
+    
+    private void fireBookingAdded(Booking booking) {
+        for (BookingListener listener : bookingListeners) {
+            listener.bookingAdded(booking);
+        }
+    }
+    
+    private void fireBookingRemoved(Booking booking) {
+        for (BookingListener listener : bookingListeners) {
+            listener.bookingRemoved(booking);
+        }
     }
 }
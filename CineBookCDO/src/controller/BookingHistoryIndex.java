@@ -0,0 +1,142 @@
+package controller;
+
+import model.Booking;
+import model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * BookingHistoryIndex keeps each user's bookings sorted newest first, so a page of
+ * history is read by seeking to a cursor and taking the next few entries. A page
+ * costs the same however long the history is.
+ */
+public class BookingHistoryIndex {
+    
+    /**
+     * Position in a user's history: the last booking of the previous page
+     */
+    public static class Cursor implements Comparable<Cursor> {
+        private final LocalDateTime bookingTime;
+        private final String bookingId;
+        
+        Cursor(Booking booking) {
+            this.bookingTime = booking.getBookingTime();
+            this.bookingId = booking.getBookingId();
+        }
+        
+        // Newest first, with the booking ID breaking ties
+        @Override
+        public int compareTo(Cursor other) {
+            int result = other.bookingTime.compareTo(bookingTime);
+            if (result != 0) return result;
+            return bookingId.compareTo(other.bookingId);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Cursor && compareTo((Cursor) obj) == 0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return bookingTime.hashCode() * 31 + bookingId.hashCode();
+        }
+    }
+    
+    /**
+     * One page of a user's booking history
+     */
+    public static class Page {
+        private final List<Booking> bookings;
+        private final Cursor nextCursor;
+        
+        Page(List<Booking> bookings, Cursor nextCursor) {
+            this.bookings = bookings;
+            this.nextCursor = nextCursor;
+        }
+        
+        public List<Booking> getBookings() {
+            return bookings;
+        }
+        
+        /**
+         * Get the cursor for the following page
+         * @return The cursor, or null if this is the last page
+         */
+        public Cursor getNextCursor() {
+            return nextCursor;
+        }
+        
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+    
+    // User ID -> that user's bookings, newest first
+    private final Map<Integer, ConcurrentSkipListMap<Cursor, Booking>> userBookings = new ConcurrentHashMap<>();
+    
+    /**
+     * Add a booking to its user's history
+     * @param booking The booking
+     */
+    public void add(Booking booking) {
+        userBookings.computeIfAbsent(booking.getUser().getId(), id -> new ConcurrentSkipListMap<>())
+            .put(new Cursor(booking), booking);
+    }
+    
+    /**
+     * Remove a booking from its user's history
+     * @param booking The booking
+     */
+    public void remove(Booking booking) {
+        ConcurrentSkipListMap<Cursor, Booking> bookings = userBookings.get(booking.getUser().getId());
+        if (bookings != null) {
+            bookings.remove(new Cursor(booking), booking);
+        }
+    }
+    
+    /**
+     * Get a page of a user's bookings, newest first
+     * @param user The user
+     * @param after Cursor from the previous page (null for the first page)
+     * @param pageSize Maximum number of bookings on the page
+     * @return The page
+     */
+    public Page getPage(User user, Cursor after, int pageSize) {
+        ConcurrentSkipListMap<Cursor, Booking> bookings = userBookings.get(user.getId());
+        if (bookings == null) return new Page(Collections.emptyList(), null);
+        
+        NavigableMap<Cursor, Booking> remaining = after == null ? bookings : bookings.tailMap(after, false);
+        List<Booking> page = new ArrayList<>(pageSize);
+        Cursor last = null;
+        boolean more = false;
+        
+        for (Map.Entry<Cursor, Booking> entry : remaining.entrySet()) {
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(entry.getValue());
+            last = entry.getKey();
+        }
+        
+        return new Page(page, more ? last : null);
+    }
+    
+    /**
+     * Get the number of bookings in a user's history
+     * @param user The user
+     * @return The number of bookings
+     */
+    public int getCount(User user) {
+        ConcurrentSkipListMap<Cursor, Booking> bookings = userBookings.get(user.getId());
+        return bookings == null ? 0 : bookings.size();
+    }
+}
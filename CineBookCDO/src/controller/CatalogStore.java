@@ -0,0 +1,197 @@
+package controller;
+
+import model.Cinema;
+import model.Movie;
+import utils.IntObjectMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * CatalogStore holds the movies and cinemas shared by all controllers.
+ * Readers get an immutable snapshot of the catalog with ID lookups, so they
+ * never see a half-applied change and never take a lock.
+ */
+public class CatalogStore {
+    
+    /**
+     * Notified when movies are added, changed or removed
+     */
+    public interface CatalogListener {
+        void movieAdded(Movie movie);
+        
+        void movieUpdated(Movie movie);
+        
+        void movieRemoved(Movie movie);
+    }
+    
+    /**
+     * Immutable view of the catalog at one point in time
+     */
+    public static class Snapshot {
+        private final List<Movie> movies;
+        private final List<Cinema> cinemas;
+        private final IntObjectMap<Movie> moviesById;
+        private final IntObjectMap<Cinema> cinemasById;
+        private final long version;
+        
+        private Snapshot(List<Movie> movies, List<Cinema> cinemas, long version) {
+            this.movies = Collections.unmodifiableList(new ArrayList<>(movies));
+            this.cinemas = Collections.unmodifiableList(new ArrayList<>(cinemas));
+            this.moviesById = new IntObjectMap<>(movies.size());
+            this.cinemasById = new IntObjectMap<>(cinemas.size());
+            this.version = version;
+            
+            for (Movie movie : movies) {
+                moviesById.put(movie.getId(), movie);
+            }
+            for (Cinema cinema : cinemas) {
+                cinemasById.put(cinema.getId(), cinema);
+            }
+        }
+        
+        public List<Movie> getMovies() {
+            return movies;
+        }
+        
+        public List<Cinema> getCinemas() {
+            return cinemas;
+        }
+        
+        /**
+         * Find a movie by ID
+         * @param id The movie ID
+         * @return The movie if found, null otherwise
+         */
+        public Movie findMovie(int id) {
+            return moviesById.get(id);
+        }
+        
+        /**
+         * Find a cinema by ID
+         * @param id The cinema ID
+         * @return The cinema if found, null otherwise
+         */
+        public Cinema findCinema(int id) {
+            return cinemasById.get(id);
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+    }
+    
+    private final List<Movie> movies = new ArrayList<>();
+    private final List<Cinema> cinemas = new ArrayList<>();
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
+    private int nextMovieId = 1;
+    private long version;
+    
+    // Published on the first read after a change, so a burst of writes is copied once
+    private volatile Snapshot snapshot;
+    
+    /**
+     * Get the current catalog
+     * @return An immutable snapshot
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) return current;
+        
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = new Snapshot(movies, cinemas, version);
+            }
+            return snapshot;
+        }
+    }
+    
+    /**
+     * Add a cinema
+     * @param cinema The cinema to add
+     */
+    public synchronized void addCinema(Cinema cinema) {
+        cinemas.add(cinema);
+        changed();
+    }
+    
+    /**
+     * Add a movie
+     * @param movie The movie to add
+     */
+    public void addMovie(Movie movie) {
+        synchronized (this) {
+            if (movie.getId() >= nextMovieId) {
+                nextMovieId = movie.getId() + 1;
+            }
+            movies.add(movie);
+            changed();
+        }
+        
+        for (CatalogListener listener : listeners) {
+            listener.movieAdded(movie);
+        }
+    }
+    
+    /**
+     * Publish changes made to a movie's details or schedules
+     * @param movie The changed movie
+     */
+    public void updateMovie(Movie movie) {
+        synchronized (this) {
+            changed();
+        }
+        
+        for (CatalogListener listener : listeners) {
+            listener.movieUpdated(movie);
+        }
+    }
+    
+    /**
+     * Remove a movie
+     * @param movie The movie to remove
+     * @return true if the movie was in the catalog
+     */
+    public boolean removeMovie(Movie movie) {
+        synchronized (this) {
+            if (!movies.remove(movie)) return false;
+            changed();
+        }
+        
+        for (CatalogListener listener : listeners) {
+            listener.movieRemoved(movie);
+        }
+        return true;
+    }
+    
+    /**
+     * Reserve an ID for a new movie
+     * @return An ID not used by any movie in the catalog
+     */
+    public synchronized int nextMovieId() {
+        return nextMovieId++;
+    }
+    
+    /**
+     * Register a listener for movie changes
+     * @param listener The listener to add
+     */
+    public void addCatalogListener(CatalogListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregister a listener for movie changes
+     * @param listener The listener to remove
+     */
+    public void removeCatalogListener(CatalogListener listener) {
+        listeners.remove(listener);
+    }
+    
+    private void changed() {
+        version++;
+        snapshot = null;
+    }
+}
@@ -0,0 +1,78 @@
+package controller;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * CircuitBreaker stops calls to a failing service. After a number of consecutive
+ * failures it opens and refuses calls for a cool-down period, then lets a single trial
+ * call through: success closes it again, failure reopens it.
+ */
+public class CircuitBreaker {
+    
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+    
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+    
+    /**
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param openDuration How long calls are refused before a trial call
+     * @param clock Clock for the cool-down period
+     */
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+    
+    /**
+     * Check whether a call may be made. A call that is allowed must be followed by
+     * recordSuccess or recordFailure.
+     * @return true if the call may go ahead
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAtMillis < openDuration.toMillis()) return false;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                // Half open: only one trial call at a time
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+        }
+    }
+    
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+    
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMillis = clock.millis();
+        }
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,253 @@
+package controller;
+
+import model.Movie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * FuzzyTitleIndex finds movies whose titles nearly match a query, tolerating typos.
+ * The distinct words of all titles are kept in a BK-tree, which only visits words
+ * whose edit distance to the query word can be within the allowed bound.
+ */
+public class FuzzyTitleIndex {
+    
+    // Words shorter than this must match the start of a title word exactly
+    private static final int MIN_FUZZY_LENGTH = 3;
+    
+    // Words up to this length allow one edit, longer words two
+    private static final int ONE_EDIT_MAX_LENGTH = 5;
+    
+    /**
+     * BK-tree node: children are stored by their edit distance to this node's word
+     */
+    private static class Node {
+        private final String word;
+        private Node[] children = new Node[0];
+        
+        Node(String word) {
+            this.word = word;
+        }
+        
+        Node child(int distance) {
+            return distance < children.length ? children[distance] : null;
+        }
+        
+        void setChild(int distance, Node child) {
+            if (distance >= children.length) {
+                children = Arrays.copyOf(children, distance + 1);
+            }
+            children[distance] = child;
+        }
+    }
+    
+    private Node root;
+    
+    // Title word -> movies with that word (words stay in the tree once added)
+    private final TreeMap<String, Set<Movie>> wordMovies = new TreeMap<>();
+    
+    // Words each movie was indexed under, so they can be removed when the title changes
+    private final Map<Movie, String[]> movieWords = new IdentityHashMap<>();
+    
+    /**
+     * Add a movie, or re-index it after its title changed
+     * @param movie The movie to index
+     */
+    public synchronized void index(Movie movie) {
+        remove(movie);
+        
+        String normalized = MovieSearchIndex.normalize(movie.getTitle());
+        if (normalized.isEmpty()) return;
+        
+        String[] words = new LinkedHashSet<>(Arrays.asList(normalized.split(" "))).toArray(new String[0]);
+        for (String word : words) {
+            Set<Movie> movies = wordMovies.get(word);
+            if (movies == null) {
+                movies = Collections.newSetFromMap(new IdentityHashMap<>());
+                wordMovies.put(word, movies);
+                addWord(word);
+            }
+            movies.add(movie);
+        }
+        movieWords.put(movie, words);
+    }
+    
+    /**
+     * Remove a movie
+     * @param movie The movie to remove
+     */
+    public synchronized void remove(Movie movie) {
+        String[] words = movieWords.remove(movie);
+        if (words == null) return;
+        
+        for (String word : words) {
+            Set<Movie> movies = wordMovies.get(word);
+            if (movies != null) movies.remove(movie);
+        }
+    }
+    
+    /**
+     * Find movies whose title has a close match for every word of the query
+     * @param query The raw query
+     * @param limit Maximum number of movies to return
+     * @return Matching movies, best match first
+     */
+    public synchronized List<Movie> search(String query, int limit) {
+        String normalized = MovieSearchIndex.normalize(query);
+        if (normalized.isEmpty()) return new ArrayList<>();
+        
+        // Per movie, the summed score of its best match for each query word so far
+        Map<Movie, Double> scores = null;
+        for (String term : normalized.split(" ")) {
+            Map<Movie, Double> termScores = termMatches(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Movie, Double> combined = new IdentityHashMap<>();
+                for (Map.Entry<Movie, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        combined.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) return new ArrayList<>();
+        }
+        
+        // Best score first, then shorter titles, then alphabetically
+        List<Map.Entry<Movie, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int result = Double.compare(b.getValue(), a.getValue());
+            if (result != 0) return result;
+            result = Integer.compare(movieWords.get(a.getKey()).length, movieWords.get(b.getKey()).length);
+            if (result != 0) return result;
+            return a.getKey().getTitle().compareToIgnoreCase(b.getKey().getTitle());
+        });
+        
+        List<Movie> result = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (Map.Entry<Movie, Double> entry : ranked) {
+            if (result.size() >= limit) break;
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+    
+    /**
+     * Get the edit distance allowed for a query word
+     * @param term The normalized query word
+     * @return 0 for short words, 1 for medium words, 2 for long words
+     */
+    public static int maxDistance(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) return 0;
+        return term.length() <= ONE_EDIT_MAX_LENGTH ? 1 : 2;
+    }
+    
+    /**
+     * Compute the Levenshtein distance between two words, giving up once it exceeds a bound
+     * @param a The first word
+     * @param b The second word
+     * @param max The largest distance of interest
+     * @return The distance, or max + 1 if it is larger than max
+     */
+    public static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char c = a.charAt(i - 1);
+            
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        
+        return Math.min(previous[b.length()], max + 1);
+    }
+    
+    // Movies with a title word close to the term, scored 1.0 for an exact match and less per edit
+    private Map<Movie, Double> termMatches(String term) {
+        Map<Movie, Double> scores = new IdentityHashMap<>();
+        int max = maxDistance(term);
+        
+        if (max == 0) {
+            // Short words match as a prefix
+            for (Set<Movie> movies : wordMovies.subMap(term, term + Character.MAX_VALUE).values()) {
+                for (Movie movie : movies) {
+                    scores.put(movie, 1.0);
+                }
+            }
+            return scores;
+        }
+        
+        Deque<Node> pending = new ArrayDeque<>();
+        if (root != null) pending.push(root);
+        
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // The exact distance is needed to pick which children can be within range
+            int d = distance(term, node.word, Integer.MAX_VALUE - 1);
+            
+            if (d <= max) {
+                double score = 1.0 - (double) d / (term.length() + 1);
+                for (Movie movie : wordMovies.get(node.word)) {
+                    Double existing = scores.get(movie);
+                    if (existing == null || existing < score) {
+                        scores.put(movie, score);
+                    }
+                }
+            }
+            
+            // By the triangle inequality, only children at distance d - max .. d + max can match
+            for (int childDistance = Math.max(1, d - max); childDistance <= d + max; childDistance++) {
+                Node child = node.child(childDistance);
+                if (child != null) pending.push(child);
+            }
+        }
+        
+        return scores;
+    }
+    
+    private void addWord(String word) {
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+        
+        Node node = root;
+        while (true) {
+            int d = distance(word, node.word, Integer.MAX_VALUE - 1);
+            if (d == 0) return;
+            
+            Node child = node.child(d);
+            if (child == null) {
+                node.setChild(d, new Node(word));
+                return;
+            }
+            node = child;
+        }
+    }
+}
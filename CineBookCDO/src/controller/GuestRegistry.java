@@ -0,0 +1,171 @@
+package controller;
+
+import model.User;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * GuestRegistry reuses one guest record per person, found by normalized email or
+ * phone number, instead of creating a new user for every guest checkout. A guest's
+ * bookings refer to its user, so a stored guest is never changed: checking out with
+ * different details creates a new guest, which takes over the email and phone. Guests
+ * not seen for the time-to-live, or the least recently seen once the registry is
+ * full, are evicted. Their bookings keep referring to them, so bookings are unaffected.
+ */
+public class GuestRegistry {
+    
+    /**
+     * A guest with the keys it is indexed under and when it was last seen
+     */
+    private static class Entry {
+        private final User user;
+        private String emailKey;
+        private String phoneKey;
+        private long lastSeen;
+        
+        Entry(User user) {
+            this.user = user;
+        }
+    }
+    
+    private final long ttlMillis;
+    private final int maxGuests;
+    private final Clock clock;
+    private final Consumer<User> onEvict;
+    
+    // Guests by user ID, least recently seen first
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Entry> byEmail = new HashMap<>();
+    private final Map<String, Entry> byPhone = new HashMap<>();
+    
+    /**
+     * Create a guest registry
+     * @param ttl How long a guest is kept after their last visit
+     * @param maxGuests Most guests kept at once
+     * @param clock The clock used for visit times
+     * @param onEvict Called with each evicted guest
+     */
+    public GuestRegistry(Duration ttl, int maxGuests, Clock clock, Consumer<User> onEvict) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxGuests = maxGuests;
+        this.clock = clock;
+        this.onEvict = onEvict;
+    }
+    
+    /**
+     * Get the guest with this email or phone number, creating it if there is none or
+     * its details differ from those given.
+     * @param fullName The full name
+     * @param email The email
+     * @param phoneNumber The phone number
+     * @param factory Creates a new guest user
+     * @return The guest
+     */
+    public synchronized User intern(String fullName, String email, String phoneNumber, Supplier<User> factory) {
+        long now = clock.millis();
+        evictExpired(now);
+        
+        String emailKey = UserDirectory.normalize(email);
+        String phoneKey = normalizePhone(phoneNumber);
+        
+        // Email identifies a guest better than a shared household phone, so the phone
+        // is only used when no email was given
+        Entry entry = emailKey != null ? byEmail.get(emailKey) : byPhone.get(phoneKey);
+        
+        if (entry != null && hasDetails(entry.user, fullName, phoneKey)) {
+            entries.get(entry.user.getId()); // Mark as most recently seen
+        } else {
+            entry = new Entry(factory.get());
+            entries.put(entry.user.getId(), entry);
+        }
+        entry.lastSeen = now;
+        reindex(entry, emailKey, phoneKey);
+        
+        while (entries.size() > maxGuests) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            evictCurrent(iterator, iterator.next());
+        }
+        return entry.user;
+    }
+    
+    /**
+     * Evict guests whose time-to-live has passed
+     * @return The number of guests evicted
+     */
+    public synchronized int evictExpired() {
+        return evictExpired(clock.millis());
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Normalize a phone number for lookup
+     * @param phoneNumber The phone number as entered
+     * @return Its digits, or null if it has none
+     */
+    public static String normalizePhone(String phoneNumber) {
+        if (phoneNumber == null) return null;
+        
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') digits.append(c);
+        }
+        return digits.length() == 0 ? null : digits.toString();
+    }
+    
+    // Whether a guest found by email or phone has the given name and phone number
+    private static boolean hasDetails(User user, String fullName, String phoneKey) {
+        String name = fullName == null ? "" : fullName.trim();
+        String storedName = user.getFullName() == null ? "" : user.getFullName().trim();
+        if (!name.equalsIgnoreCase(storedName)) return false;
+        
+        return phoneKey == null || phoneKey.equals(normalizePhone(user.getPhoneNumber()));
+    }
+    
+    private int evictExpired(long now) {
+        int evicted = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        
+        // Entries are in order of last visit, so stop at the first one still alive
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next();
+            if (now - oldest.lastSeen < ttlMillis) break;
+            evictCurrent(iterator, oldest);
+            evicted++;
+        }
+        return evicted;
+    }
+    
+    private void evictCurrent(Iterator<Entry> iterator, Entry entry) {
+        iterator.remove();
+        if (entry.emailKey != null) byEmail.remove(entry.emailKey);
+        if (entry.phoneKey != null) byPhone.remove(entry.phoneKey);
+        onEvict.accept(entry.user);
+    }
+    
+    // Point the given email and phone keys at this guest, taking them from any other guest
+    private void reindex(Entry entry, String emailKey, String phoneKey) {
+        if (emailKey != null && !emailKey.equals(entry.emailKey)) {
+            if (entry.emailKey != null) byEmail.remove(entry.emailKey);
+            Entry previous = byEmail.put(emailKey, entry);
+            if (previous != null) previous.emailKey = null;
+            entry.emailKey = emailKey;
+        }
+        if (phoneKey != null && !phoneKey.equals(entry.phoneKey)) {
+            if (entry.phoneKey != null) byPhone.remove(entry.phoneKey);
+            Entry previous = byPhone.put(phoneKey, entry);
+            if (previous != null) previous.phoneKey = null;
+            entry.phoneKey = phoneKey;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package controller;
+
+import model.Cinema;
+import model.Movie;
+import utils.IntervalTree;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HallScheduleIndex keeps the time each showing occupies its cinema hall, from the
+ * start until the movie ends plus a cleaning buffer, in one interval tree per hall.
+ * New showings are checked against it for overlaps in O(log n).
+ */
+public class HallScheduleIndex {
+    
+    // Time needed to clean the hall between showings
+    public static final int CLEANING_BUFFER_MINUTES = 15;
+    
+    /**
+     * A movie showing in its cinema's hall
+     */
+    public static class Showing {
+        private final Movie movie;
+        private final Cinema cinema;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        
+        /**
+         * Create a showing in the movie's current cinema
+         * @param movie The movie
+         * @param start The start time
+         */
+        public Showing(Movie movie, LocalDateTime start) {
+            this.movie = movie;
+            this.cinema = movie.getCinema();
+            this.start = start;
+            this.end = start.plusMinutes(movie.getDurationMinutes() + CLEANING_BUFFER_MINUTES);
+        }
+        
+        public Movie getMovie() {
+            return movie;
+        }
+        
+        public Cinema getCinema() {
+            return cinema;
+        }
+        
+        public LocalDateTime getStart() {
+            return start;
+        }
+        
+        /**
+         * Get the time the hall is free again
+         * @return The end of the movie plus the cleaning buffer
+         */
+        public LocalDateTime getEnd() {
+            return end;
+        }
+        
+        @Override
+        public String toString() {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM d, h:mm a");
+            return movie.getTitle() + " (" + start.format(formatter) + " - " +
+                   end.format(DateTimeFormatter.ofPattern("h:mm a")) + ")";
+        }
+    }
+    
+    /**
+     * Two showings that need the same hall at the same time
+     */
+    public static class ScheduleConflict {
+        private final Showing showing;
+        private final Showing conflictsWith;
+        
+        ScheduleConflict(Showing showing, Showing conflictsWith) {
+            this.showing = showing;
+            this.conflictsWith = conflictsWith;
+        }
+        
+        public Showing getShowing() {
+            return showing;
+        }
+        
+        public Showing getConflictsWith() {
+            return conflictsWith;
+        }
+        
+        @Override
+        public String toString() {
+            return showing + " overlaps " + conflictsWith + " in " + showing.getCinema().getName();
+        }
+    }
+    
+    private final Map<Integer, IntervalTree<Showing>> halls = new HashMap<>();
+    
+    // Showings indexed per movie, so a changed movie's old entries can be removed
+    private final Map<Movie, List<Showing>> movieShowings = new IdentityHashMap<>();
+    
+    /**
+     * Add a movie's showings, or replace them after its schedules, duration or cinema changed
+     * @param movie The movie
+     */
+    public synchronized void index(Movie movie) {
+        remove(movie);
+        if (movie.getCinema() == null) return;
+        
+        IntervalTree<Showing> hall = halls.computeIfAbsent(movie.getCinema().getId(), id -> new IntervalTree<>());
+        List<Showing> showings = new ArrayList<>();
+        for (LocalDateTime schedule : movie.getSchedules()) {
+            Showing showing = new Showing(movie, schedule);
+            hall.insert(minutes(showing.getStart()), minutes(showing.getEnd()), showing);
+            showings.add(showing);
+        }
+        movieShowings.put(movie, showings);
+    }
+    
+    /**
+     * Remove all of a movie's showings
+     * @param movie The movie
+     */
+    public synchronized void remove(Movie movie) {
+        List<Showing> showings = movieShowings.remove(movie);
+        if (showings == null) return;
+        
+        for (Showing showing : showings) {
+            IntervalTree<Showing> hall = halls.get(showing.getCinema().getId());
+            if (hall != null) {
+                hall.remove(minutes(showing.getStart()), showing);
+            }
+        }
+    }
+    
+    /**
+     * Find an existing showing that would overlap a new showing in the same hall
+     * @param movie The movie to schedule
+     * @param start The proposed start time
+     * @return The conflict, or null if the hall is free
+     */
+    public synchronized ScheduleConflict findConflict(Movie movie, LocalDateTime start) {
+        if (movie.getCinema() == null) return null;
+        
+        IntervalTree<Showing> hall = halls.get(movie.getCinema().getId());
+        if (hall == null) return null;
+        
+        Showing proposed = new Showing(movie, start);
+        Showing existing = hall.findAnyOverlap(minutes(proposed.getStart()), minutes(proposed.getEnd()));
+        return existing == null ? null : new ScheduleConflict(proposed, existing);
+    }
+    
+    /**
+     * Get the showings in a hall that overlap a period
+     * @param cinema The cinema hall
+     * @param from Start of the period (inclusive)
+     * @param to End of the period (exclusive)
+     * @return The showings in start order
+     */
+    public synchronized List<Showing> getShowings(Cinema cinema, LocalDateTime from, LocalDateTime to) {
+        IntervalTree<Showing> hall = halls.get(cinema.getId());
+        if (hall == null) return new ArrayList<>();
+        
+        return hall.findOverlaps(minutes(from), minutes(to));
+    }
+    
+    /**
+     * Validate a batch of new showings, such as a week's programme, against the
+     * existing schedule and against each other. Each hall's showings are sorted
+     * once and swept in start order.
+     * @param proposed The new showings
+     * @return Every conflict found
+     */
+    public synchronized List<ScheduleConflict> validateProgramme(List<Showing> proposed) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        
+        for (List<Showing> hallShowings : groupByHall(proposed).values()) {
+            hallShowings.sort(Comparator.comparing(Showing::getStart));
+            IntervalTree<Showing> hall = halls.get(hallShowings.get(0).getCinema().getId());
+            
+            Showing latestEnding = null;
+            for (Showing showing : hallShowings) {
+                // The batch is in start order, so only the latest-ending earlier showing can overlap
+                if (latestEnding != null && latestEnding.getEnd().isAfter(showing.getStart())) {
+                    conflicts.add(new ScheduleConflict(showing, latestEnding));
+                }
+                if (latestEnding == null || showing.getEnd().isAfter(latestEnding.getEnd())) {
+                    latestEnding = showing;
+                }
+                
+                if (hall != null) {
+                    for (Showing existing : hall.findOverlaps(minutes(showing.getStart()), minutes(showing.getEnd()))) {
+                        conflicts.add(new ScheduleConflict(showing, existing));
+                    }
+                }
+            }
+        }
+        
+        return conflicts;
+    }
+    
+    /**
+     * Find overlapping showings already in the schedule
+     * @param from Start of the period (inclusive)
+     * @param to End of the period (exclusive)
+     * @return A conflict for each showing starting in the period that overlaps an earlier
+     *         showing in its hall, paired with the overlapping showing that ends last
+     */
+    public synchronized List<ScheduleConflict> findExistingConflicts(LocalDateTime from, LocalDateTime to) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        
+        for (IntervalTree<Showing> hall : halls.values()) {
+            // Overlaps come back in start order, ready for a single sweep
+            Showing latestEnding = null;
+            for (Showing showing : hall.findOverlaps(minutes(from), minutes(to))) {
+                if (latestEnding != null && latestEnding.getEnd().isAfter(showing.getStart()) &&
+                    !showing.getStart().isBefore(from)) {
+                    conflicts.add(new ScheduleConflict(showing, latestEnding));
+                }
+                if (latestEnding == null || showing.getEnd().isAfter(latestEnding.getEnd())) {
+                    latestEnding = showing;
+                }
+            }
+        }
+        
+        return conflicts;
+    }
+    
+    private static Map<Integer, List<Showing>> groupByHall(List<Showing> showings) {
+        Map<Integer, List<Showing>> byHall = new HashMap<>();
+        for (Showing showing : showings) {
+            if (showing.getCinema() == null) continue;
+            byHall.computeIfAbsent(showing.getCinema().getId(), id -> new ArrayList<>()).add(showing);
+        }
+        return byHall;
+    }
+    
+    private static long minutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
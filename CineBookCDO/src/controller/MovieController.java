@@ -3,27 +3,86 @@ package controller;
 import model.Cinema;
 import model.Movie;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * MovieController handles movie-related operations for users
  */
 public class MovieController {
-    private List<Movie> movies;
-    private List<Cinema> cinemas;
+    // Most typo-tolerant matches considered when a search term has no exact matches
+    private static final int FUZZY_MATCH_LIMIT = 200;
+    
+    private CatalogStore catalog;
+    private MovieSearchIndex searchIndex;
+    private MoviePrefixTrie prefixTrie;
+    private MovieFacetIndex facetIndex;
+    private ShowtimeIndex showtimeIndex;
+    private FuzzyTitleIndex fuzzyIndex;
     
     public MovieController() {
-        movies = new ArrayList<>();
-        cinemas = new ArrayList<>();
+        this(new CatalogStore());
+    }
+    
+    /**
+     * Create a movie controller over a shared catalog
+     * @param catalog The catalog store
+     */
+    public MovieController(CatalogStore catalog) {
+        this.catalog = catalog;
+        searchIndex = new MovieSearchIndex();
+        prefixTrie = new MoviePrefixTrie();
+        facetIndex = new MovieFacetIndex();
+        showtimeIndex = new ShowtimeIndex();
+        fuzzyIndex = new FuzzyTitleIndex();
+        
+        // Keep the search, filter and showtime indexes in step with the catalog,
+        // whichever controller changes it
+        catalog.addCatalogListener(new CatalogStore.CatalogListener() {
+            @Override
+            public void movieAdded(Movie movie) {
+                indexMovie(movie);
+            }
+            
+            @Override
+            public void movieUpdated(Movie movie) {
+                indexMovie(movie);
+            }
+            
+            @Override
+            public void movieRemoved(Movie movie) {
+                searchIndex.remove(movie);
+                prefixTrie.remove(movie);
+                facetIndex.remove(movie);
+                showtimeIndex.remove(movie);
+                fuzzyIndex.remove(movie);
+            }
+        });
+        
+        for (Movie movie : catalog.snapshot().getMovies()) {
+            indexMovie(movie);
+        }
+    }
+    
+    /**
+     * Get the catalog store this controller reads from
+     * @return The catalog store
+     */
+    public CatalogStore getCatalog() {
+        return catalog;
     }
     
     /**
      * Get all movies
-     * @return List of all movies
+     * @return Unmodifiable list of all movies
      */
     public List<Movie> getAllMovies() {
-        return new ArrayList<>(movies);
+        return catalog.snapshot().getMovies();
     }
     
     /**
@@ -33,7 +92,7 @@ public class MovieController {
     public List<Movie> getAllActiveMovies() {
         List<Movie> activeMovies = new ArrayList<>();
         
-        for (Movie movie : movies) {
+        for (Movie movie : catalog.snapshot().getMovies()) {
             if (movie.isActive()) {
                 activeMovies.add(movie);
             }
@@ -44,50 +103,80 @@ public class MovieController {
     
     /**
      * Get all cinemas
-     * @return List of all cinemas
+     * @return Unmodifiable list of all cinemas
      */
     public List<Cinema> getAllCinemas() {
-        return new ArrayList<>(cinemas);
+        return catalog.snapshot().getCinemas();
     }
     
     /**
      * Filter movies based on criteria
      * @param cinema The cinema filter (null or ID=0 for all)
      * @param genre The genre filter ("All Genres" for all)
-     * @param searchTerm The search term (empty for all)
+     * @param searchTerm The search term matched against title, director and synopsis (empty for all)
      * @return Filtered list of movies
      */
     public List<Movie> filterMovies(Cinema cinema, String genre, String searchTerm) {
-        List<Movie> filteredMovies = new ArrayList<>();
+        MovieFacetIndex.FacetQuery query = new MovieFacetIndex.FacetQuery();
         
-        for (Movie movie : movies) {
-            // Skip inactive movies
-            if (!movie.isActive()) continue;
-            
-            // Apply cinema filter
-            if (cinema != null && cinema.getId() != 0 && 
-                movie.getCinema().getId() != cinema.getId()) {
-                continue;
-            }
-            
-            // Apply genre filter
-            if (genre != null && !genre.equals("All Genres") && 
-                !movie.getGenre().equalsIgnoreCase(genre)) {
-                continue;
-            }
-            
-            // Apply search term filter
-            if (searchTerm != null && !searchTerm.isEmpty() && 
-                !movie.getTitle().toLowerCase().contains(searchTerm.toLowerCase()) &&
-                !movie.getDirector().toLowerCase().contains(searchTerm.toLowerCase())) {
-                continue;
-            }
-            
-            // Movie passed all filters
-            filteredMovies.add(movie);
+        if (cinema != null && cinema.getId() != 0) {
+            query.select(MovieFacetIndex.Facet.CINEMA, String.valueOf(cinema.getId()));
+        }
+        if (genre != null && !genre.equals("All Genres")) {
+            query.select(MovieFacetIndex.Facet.GENRE, genre);
         }
         
-        return filteredMovies;
+        return filterMovies(query, searchTerm).getMovies();
+    }
+    
+    /**
+     * Filter active movies by any combination of facets and count the movies for every facet value.
+     * If nothing matches the search term exactly, titles that nearly match it are used instead.
+     * @param query The facet selections
+     * @param searchTerm The search term matched against title, director and synopsis (empty for all)
+     * @return The matching movies and facet counts
+     */
+    public MovieFacetIndex.FacetResult filterMovies(MovieFacetIndex.FacetQuery query, String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return facetIndex.query(query, null);
+        }
+        
+        // Narrow down by search term through the search index
+        List<Movie> candidates = searchIndex.search(searchTerm);
+        if (!candidates.isEmpty()) {
+            return facetIndex.query(query, candidates);
+        }
+        
+        // Fall back to misspelled titles, keeping the closest matches first
+        List<Movie> ranked = fuzzyIndex.search(searchTerm, FUZZY_MATCH_LIMIT);
+        MovieFacetIndex.FacetResult result = facetIndex.query(query, ranked);
+        
+        Set<Movie> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        matches.addAll(result.getMovies());
+        List<Movie> movies = new ArrayList<>(matches.size());
+        for (Movie movie : ranked) {
+            if (matches.contains(movie)) movies.add(movie);
+        }
+        return new MovieFacetIndex.FacetResult(movies, result);
+    }
+    
+    /**
+     * Find movies whose titles nearly match a possibly misspelled query
+     * @param query The raw query
+     * @param limit Maximum number of movies to return
+     * @return Matching movies, closest match first
+     */
+    public List<Movie> fuzzySearch(String query, int limit) {
+        return fuzzyIndex.search(query, limit);
+    }
+    
+    /**
+     * Get the values of a facet found in the catalog
+     * @param facet The facet
+     * @return The values in sorted order
+     */
+    public List<String> getFacetValues(MovieFacetIndex.Facet facet) {
+        return facetIndex.getValues(facet);
     }
     
     /**
@@ -95,7 +184,7 @@ public class MovieController {
      * @param cinema The cinema to add
      */
     public void addCinema(Cinema cinema) {
-        cinemas.add(cinema);
+        catalog.addCinema(cinema);
     }
     
     /**
@@ -103,7 +192,52 @@ public class MovieController {
      * @param movie The movie to add
      */
     public void addMovie(Movie movie) {
-        movies.add(movie);
+        catalog.addMovie(movie);
+    }
+    
+    /**
+     * Update the search and filter indexes after a movie's details or schedules changed
+     * @param movie The updated movie
+     */
+    public void reindexMovie(Movie movie) {
+        catalog.updateMovie(movie);
+    }
+    
+    /**
+     * Remove a movie
+     * @param movie The movie to remove
+     * @return true if the movie was removed
+     */
+    public boolean removeMovie(Movie movie) {
+        return catalog.removeMovie(movie);
+    }
+    
+    /**
+     * Get the showings of active movies starting soon, at any cinema
+     * @param now The current time
+     * @param window How far ahead to look
+     * @param limit Maximum number of showings to return
+     * @return Showings in start time order
+     */
+    public List<ShowtimeIndex.Showtime> getShowtimesStartingSoon(LocalDateTime now, Duration window, int limit) {
+        List<ShowtimeIndex.Showtime> result = new ArrayList<>();
+        
+        for (ShowtimeIndex.Showtime showtime : showtimeIndex.startingBetween(now, now.plus(window))) {
+            if (result.size() >= limit) break;
+            if (showtime.getMovie().isActive()) {
+                result.add(showtime);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Create a search-as-you-type session over the movie catalog
+     * @return A new type-ahead search
+     */
+    public TypeAheadSearch createTypeAheadSearch() {
+        return new TypeAheadSearch(prefixTrie, fuzzyIndex);
     }
     
     /**
@@ -112,12 +246,7 @@ public class MovieController {
      * @return The movie if found, null otherwise
      */
     public Movie findMovieById(int id) {
-        for (Movie movie : movies) {
-            if (movie.getId() == id) {
-                return movie;
-            }
-        }
-        return null;
+        return catalog.snapshot().findMovie(id);
     }
     
     /**
@@ -126,11 +255,14 @@ public class MovieController {
      * @return The cinema if found, null otherwise
      */
     public Cinema findCinemaById(int id) {
-        for (Cinema cinema : cinemas) {
-            if (cinema.getId() == id) {
-                return cinema;
-            }
-        }
-        return null;
+        return catalog.snapshot().findCinema(id);
+    }
+    
+    private void indexMovie(Movie movie) {
+        searchIndex.index(movie);
+        prefixTrie.insert(movie);
+        facetIndex.index(movie);
+        showtimeIndex.index(movie);
+        fuzzyIndex.index(movie);
     }
 }
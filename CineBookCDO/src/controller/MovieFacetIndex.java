@@ -0,0 +1,421 @@
+package controller;
+
+import model.Movie;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * MovieFacetIndex keeps a bitmap of movies for every value of every facet
+ * (cinema, genre, rating, format, showing date and time band). A filter is answered
+ * by OR-ing the selected values of each facet and AND-ing the facets together, and
+ * the number of movies for every facet value is counted in the same pass. Showings
+ * are also indexed by date and time band together, so selecting both matches movies
+ * with a showing on one of the dates in one of the bands.
+ */
+public class MovieFacetIndex {
+    
+    /**
+     * Facets movies can be filtered by
+     */
+    public enum Facet {
+        CINEMA, GENRE, RATING, FORMAT, DATE, TIME_BAND
+    }
+    
+    public static final String FORMAT_2D = "2D";
+    public static final String FORMAT_3D = "3D";
+    
+    public static final String MORNING = "Morning";
+    public static final String AFTERNOON = "Afternoon";
+    public static final String EVENING = "Evening";
+    public static final String LATE_NIGHT = "Late Night";
+    
+    /**
+     * Selected values per facet. Values of one facet are alternatives; facets
+     * without a selection do not filter.
+     */
+    public static class FacetQuery {
+        private final Map<Facet, Set<String>> selections = new EnumMap<>(Facet.class);
+        
+        /**
+         * Add a value to a facet's selection
+         * @param facet The facet
+         * @param value The value (null is ignored)
+         * @return This query
+         */
+        public FacetQuery select(Facet facet, String value) {
+            if (value != null) {
+                selections.computeIfAbsent(facet, f -> new HashSet<>()).add(value);
+            }
+            return this;
+        }
+        
+        public Set<String> getSelected(Facet facet) {
+            Set<String> values = selections.get(facet);
+            return values == null ? Collections.emptySet() : values;
+        }
+        
+        public boolean isSelected(Facet facet) {
+            return selections.containsKey(facet);
+        }
+    }
+    
+    /**
+     * Movies matching a query along with the facet counts
+     */
+    public static class FacetResult {
+        private final List<Movie> movies;
+        private final Map<Facet, Map<String, Integer>> counts;
+        
+        FacetResult(List<Movie> movies, Map<Facet, Map<String, Integer>> counts) {
+            this.movies = movies;
+            this.counts = counts;
+        }
+        
+        // The same facet counts with the movies in a different order
+        FacetResult(List<Movie> movies, FacetResult counted) {
+            this(movies, counted.counts);
+        }
+        
+        public List<Movie> getMovies() {
+            return movies;
+        }
+        
+        /**
+         * Get the number of movies for each value of a facet, counted with the
+         * selections of all other facets applied
+         * @param facet The facet
+         * @return Counts by value, sorted by value
+         */
+        public Map<String, Integer> getCounts(Facet facet) {
+            Map<String, Integer> facetCounts = counts.get(facet);
+            return facetCounts == null ? Collections.emptyMap() : facetCounts;
+        }
+        
+        public int getCount(Facet facet, String value) {
+            Integer count = getCounts(facet).get(value);
+            return count == null ? 0 : count;
+        }
+    }
+    
+    // Rebuild the index once this fraction of documents are stale
+    private static final double MAX_STALE_RATIO = 0.5;
+    
+    private final Map<Facet, Map<String, BitSet>> bitmaps = new EnumMap<>(Facet.class);
+    
+    // Movies by showing, keyed by canonical date and time band (see showingKey)
+    private final Map<String, BitSet> showingBitmaps = new HashMap<>();
+    
+    // Case-insensitive lookup of each facet's values, keeping the first spelling seen
+    private final Map<Facet, Map<String, String>> canonicalValues = new EnumMap<>(Facet.class);
+    
+    // Per document: the movie (null once removed) and the facet values it was indexed under
+    private final List<Movie> docMovies = new ArrayList<>();
+    private final List<Map<Facet, Set<String>>> docValues = new ArrayList<>();
+    private final List<Set<String>> docShowings = new ArrayList<>();
+    private final Map<Movie, Integer> movieDocs = new IdentityHashMap<>();
+    private final BitSet activeDocs = new BitSet();
+    private int staleDocs;
+    
+    public MovieFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+            canonicalValues.put(facet, new HashMap<>());
+        }
+    }
+    
+    /**
+     * Add a movie to the index, or re-index it after its details or schedules changed
+     * @param movie The movie to index
+     */
+    public synchronized void index(Movie movie) {
+        Integer doc = movieDocs.get(movie);
+        if (doc != null) {
+            // Keep the document ID so the movie keeps its place in results
+            clearValues(doc);
+        } else {
+            doc = docMovies.size();
+            docMovies.add(movie);
+            docValues.add(null);
+            docShowings.add(null);
+            movieDocs.put(movie, doc);
+        }
+        
+        Map<Facet, Set<String>> values = facetValues(movie);
+        for (Map.Entry<Facet, Set<String>> entry : values.entrySet()) {
+            Map<String, BitSet> facetBitmaps = bitmaps.get(entry.getKey());
+            for (String value : entry.getValue()) {
+                facetBitmaps.computeIfAbsent(value, v -> new BitSet()).set(doc);
+            }
+        }
+        docValues.set(doc, values);
+        
+        Set<String> showings = new HashSet<>();
+        for (LocalDateTime schedule : movie.getSchedules()) {
+            showings.add(showingKey(canonical(Facet.DATE, schedule.toLocalDate().toString()),
+                                    canonical(Facet.TIME_BAND, timeBand(schedule.toLocalTime()))));
+        }
+        for (String showing : showings) {
+            showingBitmaps.computeIfAbsent(showing, k -> new BitSet()).set(doc);
+        }
+        docShowings.set(doc, showings);
+        
+        activeDocs.set(doc, movie.isActive());
+    }
+    
+    /**
+     * Remove a movie from the index
+     * @param movie The movie to remove
+     */
+    public synchronized void remove(Movie movie) {
+        Integer doc = movieDocs.remove(movie);
+        if (doc == null) return;
+        
+        clearValues(doc);
+        activeDocs.clear(doc);
+        docMovies.set(doc, null);
+        docValues.set(doc, null);
+        docShowings.set(doc, null);
+        staleDocs++;
+        
+        if (staleDocs > docMovies.size() * MAX_STALE_RATIO) {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Find the active movies matching a query and count every facet value
+     * @param query The facet selections
+     * @param candidates Movies to restrict the result to (null for all movies)
+     * @return Matching movies in the order they were indexed, with facet counts
+     */
+    public synchronized FacetResult query(FacetQuery query, List<Movie> candidates) {
+        BitSet base = (BitSet) activeDocs.clone();
+        if (candidates != null) {
+            BitSet candidateDocs = new BitSet(docMovies.size());
+            for (Movie movie : candidates) {
+                Integer doc = movieDocs.get(movie);
+                if (doc != null) candidateDocs.set(doc);
+            }
+            base.and(candidateDocs);
+        }
+        
+        // Union of the selected values of each facet except date and time band,
+        // which are matched together against the showings
+        Map<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+        for (Facet facet : Facet.values()) {
+            if (!query.isSelected(facet) || isShowingFacet(facet)) continue;
+            
+            BitSet union = new BitSet(docMovies.size());
+            for (String value : query.getSelected(facet)) {
+                BitSet bitmap = lookup(facet, value);
+                if (bitmap != null) union.or(bitmap);
+            }
+            selected.put(facet, union);
+        }
+        Set<String> dates = query.isSelected(Facet.DATE) ? query.getSelected(Facet.DATE) : null;
+        Set<String> bands = query.isSelected(Facet.TIME_BAND) ? query.getSelected(Facet.TIME_BAND) : null;
+        BitSet showings = dates != null || bands != null ? showings(dates, bands) : null;
+        
+        BitSet matches = (BitSet) base.clone();
+        for (BitSet union : selected.values()) {
+            matches.and(union);
+        }
+        if (showings != null) matches.and(showings);
+        
+        // Count each facet's values against every other facet's selection,
+        // so choosing a value does not hide the alternatives
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        BitSet scratch = new BitSet(docMovies.size());
+        for (Facet facet : Facet.values()) {
+            BitSet others = matches;
+            if (selected.containsKey(facet) || isShowingFacet(facet)) {
+                others = (BitSet) base.clone();
+                for (Map.Entry<Facet, BitSet> entry : selected.entrySet()) {
+                    if (entry.getKey() != facet) others.and(entry.getValue());
+                }
+                if (showings != null && !isShowingFacet(facet)) others.and(showings);
+            }
+            
+            Map<String, Integer> facetCounts = new TreeMap<>();
+            for (Map.Entry<String, BitSet> entry : bitmaps.get(facet).entrySet()) {
+                // A date counts the showings in the selected bands, and a band those on the selected dates
+                BitSet bitmap = entry.getValue();
+                if (facet == Facet.DATE && bands != null) {
+                    bitmap = showings(Collections.singleton(entry.getKey()), bands);
+                } else if (facet == Facet.TIME_BAND && dates != null) {
+                    bitmap = showings(dates, Collections.singleton(entry.getKey()));
+                }
+                
+                scratch.clear();
+                scratch.or(bitmap);
+                scratch.and(others);
+                facetCounts.put(entry.getKey(), scratch.cardinality());
+            }
+            counts.put(facet, facetCounts);
+        }
+        
+        List<Movie> movies = new ArrayList<>(matches.cardinality());
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            movies.add(docMovies.get(doc));
+        }
+        
+        return new FacetResult(movies, counts);
+    }
+    
+    /**
+     * Get the values of a facet that at least one indexed movie has
+     * @param facet The facet
+     * @return The values in sorted order
+     */
+    public synchronized List<String> getValues(Facet facet) {
+        List<String> values = new ArrayList<>();
+        for (Map.Entry<String, BitSet> entry : bitmaps.get(facet).entrySet()) {
+            if (!entry.getValue().isEmpty()) values.add(entry.getKey());
+        }
+        Collections.sort(values);
+        return values;
+    }
+    
+    /**
+     * Get the time band a showing starts in
+     * @param time The start time
+     * @return MORNING, AFTERNOON, EVENING or LATE_NIGHT
+     */
+    public static String timeBand(LocalTime time) {
+        int hour = time.getHour();
+        if (hour >= 5 && hour < 12) return MORNING;
+        if (hour >= 12 && hour < 17) return AFTERNOON;
+        if (hour >= 17 && hour < 21) return EVENING;
+        return LATE_NIGHT;
+    }
+    
+    private Map<Facet, Set<String>> facetValues(Movie movie) {
+        Map<Facet, Set<String>> values = new EnumMap<>(Facet.class);
+        
+        if (movie.getCinema() != null) {
+            addValue(values, Facet.CINEMA, String.valueOf(movie.getCinema().getId()));
+            addValue(values, Facet.FORMAT, movie.getCinema().isHas3D() ? FORMAT_3D : FORMAT_2D);
+        }
+        addValue(values, Facet.GENRE, movie.getGenre());
+        addValue(values, Facet.RATING, movie.getRating());
+        
+        // Date and time band on their own; together they are matched per showing
+        for (LocalDateTime schedule : movie.getSchedules()) {
+            addValue(values, Facet.DATE, schedule.toLocalDate().toString());
+            addValue(values, Facet.TIME_BAND, timeBand(schedule.toLocalTime()));
+        }
+        
+        return values;
+    }
+    
+    private void addValue(Map<Facet, Set<String>> values, Facet facet, String value) {
+        if (value == null) return;
+        
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) return;
+        
+        values.computeIfAbsent(facet, f -> new HashSet<>()).add(canonical(facet, trimmed));
+    }
+    
+    // The first spelling seen of a trimmed value
+    private String canonical(Facet facet, String trimmed) {
+        return canonicalValues.get(facet).computeIfAbsent(trimmed.toLowerCase(Locale.ROOT), k -> trimmed);
+    }
+    
+    private static boolean isShowingFacet(Facet facet) {
+        return facet == Facet.DATE || facet == Facet.TIME_BAND;
+    }
+    
+    private static String showingKey(String date, String band) {
+        return date + '|' + band;
+    }
+    
+    // Movies with a showing on one of the dates in one of the time bands (null for any)
+    private BitSet showings(Set<String> dates, Set<String> bands) {
+        BitSet union = new BitSet(docMovies.size());
+        if (dates == null || bands == null) {
+            Facet facet = dates != null ? Facet.DATE : Facet.TIME_BAND;
+            for (String value : dates != null ? dates : bands) {
+                BitSet bitmap = lookup(facet, value);
+                if (bitmap != null) union.or(bitmap);
+            }
+            return union;
+        }
+        
+        Map<String, String> canonicalDates = canonicalValues.get(Facet.DATE);
+        Map<String, String> canonicalBands = canonicalValues.get(Facet.TIME_BAND);
+        for (String date : dates) {
+            String canonicalDate = canonicalDates.get(date.trim().toLowerCase(Locale.ROOT));
+            if (canonicalDate == null) continue;
+            
+            for (String band : bands) {
+                String canonicalBand = canonicalBands.get(band.trim().toLowerCase(Locale.ROOT));
+                BitSet bitmap = canonicalBand == null ? null : showingBitmaps.get(showingKey(canonicalDate, canonicalBand));
+                if (bitmap != null) union.or(bitmap);
+            }
+        }
+        return union;
+    }
+    
+    private BitSet lookup(Facet facet, String value) {
+        String canonical = canonicalValues.get(facet).get(value.trim().toLowerCase(Locale.ROOT));
+        return canonical == null ? null : bitmaps.get(facet).get(canonical);
+    }
+    
+    private void clearValues(int doc) {
+        Map<Facet, Set<String>> values = docValues.get(doc);
+        if (values == null) return;
+        
+        for (Map.Entry<Facet, Set<String>> entry : values.entrySet()) {
+            Map<String, BitSet> facetBitmaps = bitmaps.get(entry.getKey());
+            for (String value : entry.getValue()) {
+                BitSet bitmap = facetBitmaps.get(value);
+                if (bitmap != null) bitmap.clear(doc);
+            }
+        }
+        
+        Set<String> showings = docShowings.get(doc);
+        if (showings == null) return;
+        
+        for (String showing : showings) {
+            BitSet bitmap = showingBitmaps.get(showing);
+            if (bitmap != null) bitmap.clear(doc);
+        }
+    }
+    
+    // Re-index live movies from scratch to reclaim removed documents
+    private void rebuild() {
+        List<Movie> live = new ArrayList<>();
+        for (Movie movie : docMovies) {
+            if (movie != null) live.add(movie);
+        }
+        
+        for (Map<String, BitSet> facetBitmaps : bitmaps.values()) {
+            facetBitmaps.clear();
+        }
+        showingBitmaps.clear();
+        docMovies.clear();
+        docValues.clear();
+        docShowings.clear();
+        movieDocs.clear();
+        activeDocs.clear();
+        staleDocs = 0;
+        
+        for (Movie movie : live) {
+            index(movie);
+        }
+    }
+}
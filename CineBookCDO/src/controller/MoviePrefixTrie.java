@@ -0,0 +1,186 @@
+package controller;
+
+import model.Movie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MoviePrefixTrie maps every normalized word of a movie's title and director to the movie,
+ * so all movies with a word starting with a given prefix can be found by walking the trie
+ */
+public class MoviePrefixTrie {
+    
+    /**
+     * Trie node with sorted child labels
+     */
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private List<Movie> movies; // Movies with a word ending at this node
+        
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+        
+        Node getOrAddChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) return children[index];
+            
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+    
+    private final Node root = new Node();
+    
+    // Normalized "title director" text of every movie in the trie
+    private final Map<Movie, String> searchTexts = new IdentityHashMap<>();
+    
+    // Incremented on every change so cached type-ahead results can be discarded
+    private long version;
+    
+    /**
+     * Add a movie, or re-add it after its title or director changed
+     * @param movie The movie to add
+     */
+    public synchronized void insert(Movie movie) {
+        remove(movie);
+        
+        String text = MovieSearchIndex.normalize(movie.getTitle()) + " " +
+                      MovieSearchIndex.normalize(movie.getDirector());
+        searchTexts.put(movie, text);
+        
+        // The movie was removed above, so it only needs adding once per distinct word
+        Set<String> words = new HashSet<>(Arrays.asList(text.split(" ")));
+        for (String word : words) {
+            if (word.isEmpty()) continue;
+            
+            Node node = root;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.getOrAddChild(word.charAt(i));
+            }
+            if (node.movies == null) {
+                node.movies = new ArrayList<>(1);
+            }
+            node.movies.add(movie);
+        }
+        version++;
+    }
+    
+    /**
+     * Remove a movie
+     * @param movie The movie to remove
+     */
+    public synchronized void remove(Movie movie) {
+        String text = searchTexts.remove(movie);
+        if (text == null) return;
+        
+        for (String word : text.split(" ")) {
+            Node node = root;
+            for (int i = 0; i < word.length() && node != null; i++) {
+                node = node.child(word.charAt(i));
+            }
+            if (node != null && node.movies != null) {
+                node.movies.removeIf(m -> m == movie);
+            }
+        }
+        version++;
+    }
+    
+    /**
+     * Find every movie with a title or director word starting with the prefix
+     * @param prefix A normalized, single-word prefix
+     * @return Matching movies, each listed once
+     */
+    public List<Movie> matchPrefix(String prefix) {
+        return matchPrefix(prefix, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Find up to max movies with a title or director word starting with the prefix
+     * @param prefix A normalized, single-word prefix
+     * @param max Maximum number of movies to return
+     * @return Matching movies, each listed once, for the alphabetically first words
+     */
+    public synchronized List<Movie> matchPrefix(String prefix, int max) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null) return Collections.emptyList();
+        
+        List<Movie> result = new ArrayList<>();
+        Map<Movie, Boolean> seen = new IdentityHashMap<>();
+        collect(node, result, seen, max);
+        return result;
+    }
+    
+    /**
+     * Get the normalized text a movie was indexed under
+     * @param movie The movie
+     * @return The normalized "title director" text, or null if the movie is not in the trie
+     */
+    public synchronized String getSearchText(Movie movie) {
+        return searchTexts.get(movie);
+    }
+    
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Check whether every term is a prefix of some word in the text
+     * @param text Normalized, space-separated text
+     * @param terms Normalized query terms
+     * @return true if all terms match
+     */
+    public static boolean matchesAllPrefixes(String text, String[] terms) {
+        for (String term : terms) {
+            if (!containsWordPrefix(text, term)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean containsWordPrefix(String text, String term) {
+        int from = 0;
+        while (true) {
+            int index = text.indexOf(term, from);
+            if (index < 0) return false;
+            if (index == 0 || text.charAt(index - 1) == ' ') return true;
+            from = index + 1;
+        }
+    }
+    
+    private static void collect(Node node, List<Movie> result, Map<Movie, Boolean> seen, int max) {
+        if (node.movies != null) {
+            for (Movie movie : node.movies) {
+                if (result.size() >= max) return;
+                if (seen.put(movie, Boolean.TRUE) == null) {
+                    result.add(movie);
+                }
+            }
+        }
+        for (Node child : node.children) {
+            if (result.size() >= max) return;
+            collect(child, result, seen, max);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package controller;
+
+import model.Movie;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * MovieSearchIndex is an inverted index over movie titles, directors and synopses.
+ * It keeps postings for normalized tokens and for character trigrams, so searches
+ * intersect postings lists instead of scanning every movie.
+ */
+public class MovieSearchIndex {
+    
+    /**
+     * Growable list of document IDs in increasing order
+     */
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int size;
+        
+        void add(int doc) {
+            // Documents are indexed in increasing ID order, so only a repeat of the last ID can occur
+            if (size > 0 && docs[size - 1] == doc) return;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+        
+        int[] toArray() {
+            return Arrays.copyOf(docs, size);
+        }
+    }
+    
+    // Separates fields in a document's text so matches never span two fields
+    private static final char FIELD_SEPARATOR = '|';
+    
+    // Rebuild the index once this fraction of documents are stale
+    private static final double MAX_STALE_RATIO = 0.5;
+    
+    private final Map<Long, Postings> trigramPostings = new HashMap<>();
+    private final TreeMap<String, Postings> tokenPostings = new TreeMap<>();
+    
+    // Per document: the movie (null once superseded) and its normalized text
+    private final List<Movie> docMovies = new ArrayList<>();
+    private final List<String> docTexts = new ArrayList<>();
+    private final Map<Movie, Integer> movieDocs = new IdentityHashMap<>();
+    private int staleDocs;
+    
+    /**
+     * Add a movie to the index, or re-index it after its details changed
+     * @param movie The movie to index
+     */
+    public synchronized void index(Movie movie) {
+        Integer oldDoc = movieDocs.remove(movie);
+        if (oldDoc != null) {
+            markStale(oldDoc);
+        }
+        
+        int doc = docMovies.size();
+        String text = normalize(movie.getTitle()) + FIELD_SEPARATOR +
+                      normalize(movie.getDirector()) + FIELD_SEPARATOR +
+                      normalize(movie.getSynopsis());
+        
+        docMovies.add(movie);
+        docTexts.add(text);
+        movieDocs.put(movie, doc);
+        
+        int tokenStart = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean boundary = c == ' ' || c == FIELD_SEPARATOR;
+            
+            if (!boundary && tokenStart < 0) {
+                tokenStart = i;
+            } else if (boundary && tokenStart >= 0) {
+                tokenPostings.computeIfAbsent(text.substring(tokenStart, i), t -> new Postings()).add(doc);
+                tokenStart = -1;
+            }
+            
+            if (i + 3 <= text.length()) {
+                long trigram = trigram(text, i);
+                if (trigram >= 0) {
+                    trigramPostings.computeIfAbsent(trigram, t -> new Postings()).add(doc);
+                }
+            }
+        }
+        
+        if (staleDocs > docMovies.size() * MAX_STALE_RATIO) {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Remove a movie from the index
+     * @param movie The movie to remove
+     */
+    public synchronized void remove(Movie movie) {
+        Integer doc = movieDocs.remove(movie);
+        if (doc != null) {
+            markStale(doc);
+        }
+    }
+    
+    /**
+     * Find movies whose title, director or synopsis contain every word of the query.
+     * Words of three or more characters match anywhere inside a word; shorter words
+     * match the start of a word.
+     * @param query The search query
+     * @return Matching movies in the order they were indexed, or all movies for an empty query
+     */
+    public synchronized List<Movie> search(String query) {
+        String normalized = normalize(query);
+        List<Movie> result = new ArrayList<>();
+        
+        if (normalized.isEmpty()) {
+            for (Movie movie : docMovies) {
+                if (movie != null) result.add(movie);
+            }
+            return result;
+        }
+        
+        String[] terms = normalized.split(" ");
+        
+        // Narrow down with the most selective (longest) terms first
+        String[] byLength = terms.clone();
+        Arrays.sort(byLength, (a, b) -> Integer.compare(b.length(), a.length()));
+        
+        int[] candidates = null;
+        for (String term : byLength) {
+            // Short terms are cheaper to verify against existing candidates than to expand
+            if (term.length() < 3 && candidates != null) break;
+            
+            int[] termDocs = term.length() >= 3 ? trigramCandidates(term) : prefixCandidates(term);
+            candidates = candidates == null ? termDocs : intersect(candidates, termDocs);
+            if (candidates.length == 0) return result;
+        }
+        
+        // Trigram postings can contain false positives, so confirm each term in the text
+        for (int doc : candidates) {
+            Movie movie = docMovies.get(doc);
+            if (movie == null) continue;
+            
+            String text = docTexts.get(doc);
+            boolean matches = true;
+            for (String term : terms) {
+                if (term.length() >= 3 ? !text.contains(term) : !containsWordPrefix(text, term)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                result.add(movie);
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Get the number of movies currently in the index
+     * @return The number of indexed movies
+     */
+    public synchronized int size() {
+        return movieDocs.size();
+    }
+    
+    /**
+     * Normalize text for indexing and searching: lowercase, strip accents and
+     * collapse everything that is not a letter or digit to single spaces
+     * @param text The text to normalize
+     * @return The normalized text
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && result.length() > 0) {
+                    result.append(' ');
+                }
+                result.append(Character.toLowerCase(c));
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        
+        return result.toString();
+    }
+    
+    // Documents containing every trigram of the term
+    private int[] trigramCandidates(String term) {
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= term.length(); i++) {
+            Postings postings = trigramPostings.get(trigram(term, i));
+            if (postings == null) return new int[0];
+            lists.add(postings);
+        }
+        
+        // Intersect the shortest lists first
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        Postings shortest = lists.get(0);
+        int[] result = shortest.toArray();
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            Postings other = lists.get(i);
+            size = intersectInPlace(result, size, other.docs, other.size);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+    
+    // Documents containing a token that starts with the term
+    private int[] prefixCandidates(String term) {
+        SortedMap<String, Postings> matches = tokenPostings.subMap(term, term + Character.MAX_VALUE);
+        if (matches.size() == 1) {
+            return matches.values().iterator().next().toArray();
+        }
+        
+        BitSet docs = new BitSet(docMovies.size());
+        for (Postings postings : matches.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                docs.set(postings.docs[i]);
+            }
+        }
+        return docs.stream().toArray();
+    }
+    
+    private static boolean containsWordPrefix(String text, String term) {
+        int from = 0;
+        while (true) {
+            int index = text.indexOf(term, from);
+            if (index < 0) return false;
+            
+            char before = index == 0 ? ' ' : text.charAt(index - 1);
+            if (before == ' ' || before == FIELD_SEPARATOR) return true;
+            from = index + 1;
+        }
+    }
+    
+    // Pack three characters into a key, or -1 if they span a field separator
+    private static long trigram(String text, int start) {
+        char a = text.charAt(start);
+        char b = text.charAt(start + 1);
+        char c = text.charAt(start + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) return -1;
+        
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+    
+    // Keep the first aSize entries of a that also occur in b, returning the new size
+    private static int intersectInPlace(int[] a, int aSize, int[] b, int bSize) {
+        int i = 0, j = 0, n = 0;
+        while (i < aSize && j < bSize) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                // Gallop through long lists
+                int step = 1;
+                while (j + step < bSize && b[j + step] < a[i]) {
+                    j += step;
+                    step <<= 1;
+                }
+                j++;
+            } else {
+                a[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+    
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = a.clone();
+        int size = intersectInPlace(result, result.length, b, b.length);
+        return Arrays.copyOf(result, size);
+    }
+    
+    private void markStale(int doc) {
+        docMovies.set(doc, null);
+        docTexts.set(doc, null);
+        staleDocs++;
+    }
+    
+    // Re-index live movies from scratch to drop stale postings
+    private void rebuild() {
+        List<Movie> live = new ArrayList<>();
+        for (Movie movie : docMovies) {
+            if (movie != null) live.add(movie);
+        }
+        
+        trigramPostings.clear();
+        tokenPostings.clear();
+        docMovies.clear();
+        docTexts.clear();
+        movieDocs.clear();
+        staleDocs = 0;
+        
+        for (Movie movie : live) {
+            index(movie);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package controller;
+
+import model.Cinema;
+import model.Movie;
+import model.SeatOccupancy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * OccupancyAnalytics computes fill rates (seats sold / capacity) per showing,
+ * and aggregates them per time slot, cinema and movie
+ */
+public class OccupancyAnalytics {
+    
+    /**
+     * Occupancy of a single showing
+     */
+    public static class ShowingOccupancy {
+        private final Movie movie;
+        private final LocalDateTime schedule;
+        private final int seatsSold;
+        private final int capacity;
+        
+        public ShowingOccupancy(Movie movie, LocalDateTime schedule, int seatsSold, int capacity) {
+            this.movie = movie;
+            this.schedule = schedule;
+            this.seatsSold = seatsSold;
+            this.capacity = capacity;
+        }
+        
+        public Movie getMovie() {
+            return movie;
+        }
+        
+        public LocalDateTime getSchedule() {
+            return schedule;
+        }
+        
+        public int getSeatsSold() {
+            return seatsSold;
+        }
+        
+        public int getCapacity() {
+            return capacity;
+        }
+        
+        public double getFillRate() {
+            return capacity == 0 ? 0.0 : (double) seatsSold / capacity;
+        }
+        
+        public boolean isSoldOut() {
+            return capacity > 0 && seatsSold >= capacity;
+        }
+    }
+    
+    /**
+     * Occupancy aggregated over a group of showings
+     */
+    public static class OccupancySummary {
+        private final String label;
+        private int showings;
+        private long seatsSold;
+        private long capacity;
+        
+        public OccupancySummary(String label) {
+            this.label = label;
+        }
+        
+        // Add a showing to this group
+        private void add(ShowingOccupancy showing) {
+            showings++;
+            seatsSold += showing.getSeatsSold();
+            capacity += showing.getCapacity();
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public int getShowings() {
+            return showings;
+        }
+        
+        public long getSeatsSold() {
+            return seatsSold;
+        }
+        
+        public long getCapacity() {
+            return capacity;
+        }
+        
+        public double getFillRate() {
+            return capacity == 0 ? 0.0 : (double) seatsSold / capacity;
+        }
+    }
+    
+    private static final DateTimeFormatter SLOT_FORMATTER = DateTimeFormatter.ofPattern("h:00 a");
+    private static final DateTimeFormatter SHOWING_FORMATTER = DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a");
+    
+    private BookingController bookingController;
+    
+    public OccupancyAnalytics(BookingController bookingController) {
+        this.bookingController = bookingController;
+    }
+    
+    /**
+     * Compute the occupancy of every showing in a date range
+     * @param movies The movies to include
+     * @param fromDate Start date (inclusive)
+     * @param toDate End date (inclusive)
+     * @return Occupancy of each showing
+     */
+    public List<ShowingOccupancy> computeShowingOccupancy(List<Movie> movies, LocalDate fromDate, LocalDate toDate) {
+        List<ShowingOccupancy> result = new ArrayList<>();
+        
+        for (Movie movie : movies) {
+            for (LocalDateTime schedule : movie.getSchedules()) {
+                LocalDate date = schedule.toLocalDate();
+                if (date.isBefore(fromDate) || date.isAfter(toDate)) continue;
+                
+                SeatOccupancy occupancy = bookingController.getSeatOccupancy(movie, schedule);
+                result.add(new ShowingOccupancy(movie, schedule, occupancy.cardinality(), occupancy.getCapacity()));
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Count how often each seat of a cinema was sold across all its showings in a date range
+     * @param cinema The cinema
+     * @param movies The movies to include (movies in other cinemas are skipped)
+     * @param fromDate Start date (inclusive)
+     * @param toDate End date (inclusive)
+     * @return Sale count per seat, indexed like the cinema's seat layout
+     */
+    public int[] computeSeatHeatmap(Cinema cinema, List<Movie> movies, LocalDate fromDate, LocalDate toDate) {
+        int[] counts = new int[cinema.getSeatCount()];
+        
+        for (Movie movie : movies) {
+            if (movie.getCinema().getId() != cinema.getId()) continue;
+            
+            for (LocalDateTime schedule : movie.getSchedules()) {
+                LocalDate date = schedule.toLocalDate();
+                if (date.isBefore(fromDate) || date.isAfter(toDate)) continue;
+                
+                accumulate(counts, bookingController.getSeatOccupancy(movie, schedule).getWords());
+            }
+        }
+        
+        return counts;
+    }
+    
+    /**
+     * Add one showing's occupancy bits to the per-seat counts. The inner loop is
+     * branch-free so the JIT can unroll and vectorize it.
+     */
+    static void accumulate(int[] counts, long[] words) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            if (word == 0) continue;
+            
+            int base = w << 6;
+            int bits = Math.min(64, counts.length - base);
+            for (int i = 0; i < bits; i++) {
+                counts[base + i] += (int) ((word >>> i) & 1L);
+            }
+        }
+    }
+    
+    /**
+     * Aggregate occupancy by the hour a showing starts
+     */
+    public static List<OccupancySummary> summarizeByTimeSlot(List<ShowingOccupancy> showings) {
+        List<ShowingOccupancy> sorted = new ArrayList<>(showings);
+        sorted.sort(Comparator.comparing(showing -> showing.getSchedule().toLocalTime()));
+        return summarize(sorted, showing -> showing.getSchedule().format(SLOT_FORMATTER));
+    }
+    
+    /**
+     * Aggregate occupancy by cinema
+     */
+    public static List<OccupancySummary> summarizeByCinema(List<ShowingOccupancy> showings) {
+        return summarize(showings, showing -> showing.getMovie().getCinema().getName());
+    }
+    
+    /**
+     * Aggregate occupancy by movie
+     */
+    public static List<OccupancySummary> summarizeByMovie(List<ShowingOccupancy> showings) {
+        return summarize(showings, showing -> showing.getMovie().getTitle());
+    }
+    
+    /**
+     * Get the showings with the lowest fill rate
+     * @param showings The showings to rank
+     * @param limit Maximum number of showings to return
+     * @return Showings ordered from lowest to highest fill rate
+     */
+    public static List<ShowingOccupancy> worstPerforming(List<ShowingOccupancy> showings, int limit) {
+        List<ShowingOccupancy> sorted = new ArrayList<>(showings);
+        sorted.sort(Comparator.comparingDouble(ShowingOccupancy::getFillRate)
+            .thenComparing(ShowingOccupancy::getSchedule));
+        return sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+    
+    /**
+     * Get the sold-out showings
+     * @param showings The showings to check
+     * @return Sold-out showings in schedule order
+     */
+    public static List<ShowingOccupancy> soldOut(List<ShowingOccupancy> showings) {
+        List<ShowingOccupancy> result = new ArrayList<>();
+        for (ShowingOccupancy showing : showings) {
+            if (showing.isSoldOut()) {
+                result.add(showing);
+            }
+        }
+        result.sort(Comparator.comparing(ShowingOccupancy::getSchedule));
+        return result;
+    }
+    
+    /**
+     * Generate an occupancy report for a date range
+     * @param movies The movies to include
+     * @param fromDate Start date
+     * @param toDate End date
+     * @return Formatted occupancy report as string
+     */
+    public String generateOccupancyReport(List<Movie> movies, LocalDate fromDate, LocalDate toDate) {
+        List<ShowingOccupancy> showings = computeShowingOccupancy(movies, fromDate, toDate);
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+        
+        StringBuilder report = new StringBuilder();
+        report.append("OCCUPANCY REPORT\n");
+        report.append("============================================\n");
+        report.append("Period: ").append(fromDate.format(dateFormatter))
+              .append(" to ").append(toDate.format(dateFormatter)).append("\n");
+        report.append("Showings: ").append(showings.size()).append("\n");
+        report.append("============================================\n\n");
+        
+        appendSummaries(report, "FILL RATE BY TIME SLOT", summarizeByTimeSlot(showings));
+        appendSummaries(report, "FILL RATE BY CINEMA", summarizeByCinema(showings));
+        appendSummaries(report, "FILL RATE BY MOVIE", summarizeByMovie(showings));
+        
+        report.append("WORST-PERFORMING SHOWINGS\n");
+        report.append("--------------------------------------------\n");
+        appendShowings(report, worstPerforming(showings, 10));
+        
+        report.append("SOLD-OUT SHOWINGS\n");
+        report.append("--------------------------------------------\n");
+        appendShowings(report, soldOut(showings));
+        
+        return report.toString();
+    }
+    
+    private static List<OccupancySummary> summarize(List<ShowingOccupancy> showings,
+                                                   Function<ShowingOccupancy, String> groupBy) {
+        Map<String, OccupancySummary> groups = new LinkedHashMap<>();
+        for (ShowingOccupancy showing : showings) {
+            groups.computeIfAbsent(groupBy.apply(showing), OccupancySummary::new).add(showing);
+        }
+        return new ArrayList<>(groups.values());
+    }
+    
+    private static void appendSummaries(StringBuilder report, String title, List<OccupancySummary> summaries) {
+        report.append(title).append("\n");
+        report.append("--------------------------------------------\n");
+        for (OccupancySummary summary : summaries) {
+            report.append(summary.getLabel())
+                  .append(": ").append(String.format("%.1f%%", summary.getFillRate() * 100))
+                  .append(" (").append(summary.getSeatsSold()).append("/").append(summary.getCapacity())
+                  .append(" seats, ").append(summary.getShowings()).append(" showings)\n");
+        }
+        report.append("\n");
+    }
+    
+    private static void appendShowings(StringBuilder report, List<ShowingOccupancy> showings) {
+        if (showings.isEmpty()) {
+            report.append("None\n");
+        }
+        for (ShowingOccupancy showing : showings) {
+            report.append(showing.getSchedule().format(SHOWING_FORMATTER))
+                  .append(" - ").append(showing.getMovie().getTitle())
+                  .append(" (").append(showing.getMovie().getCinema().getName()).append("): ")
+                  .append(String.format("%.1f%%", showing.getFillRate() * 100))
+                  .append(" (").append(showing.getSeatsSold()).append("/").append(showing.getCapacity())
+                  .append(")\n");
+        }
+        report.append("\n");
+    }
+}
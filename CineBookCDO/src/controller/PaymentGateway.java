@@ -0,0 +1,105 @@
+package controller;
+
+import model.PaymentMethod;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A payment service that authorizes charges. Implementations must not block the
+ * caller: the returned future completes when the service answers. Requests carry the
+ * booking ID as an idempotency key, so retrying a request whose answer was lost must
+ * not charge the customer twice. A request reusing an approved ID for a different
+ * amount must be declined rather than answered with the earlier authorization.
+ */
+public interface PaymentGateway {
+    
+    /**
+     * Ask the payment service to authorize a charge
+     * @param request The charge
+     * @return Future for the authorization. It fails with a DeclinedException if the
+     *         charge was refused, or a GatewayUnavailableException if it could not be
+     *         processed and may be retried.
+     */
+    CompletableFuture<Authorization> authorize(PaymentRequest request);
+    
+    /**
+     * Ask the payment service to void an authorization, so the customer is not charged.
+     * Voiding a request that was never approved, or was already voided, does nothing.
+     * @param requestId ID of the authorized request
+     * @return Future completing once the authorization is void. It fails with a
+     *         GatewayUnavailableException if the void could not be processed and may be retried.
+     */
+    CompletableFuture<Void> voidAuthorization(String requestId);
+    
+    /**
+     * A charge to be authorized
+     */
+    public static class PaymentRequest {
+        private final String requestId;
+        private final PaymentMethod method;
+        private final double amount;
+        
+        public PaymentRequest(String requestId, PaymentMethod method, double amount) {
+            this.requestId = requestId;
+            this.method = method;
+            this.amount = amount;
+        }
+        
+        public String getRequestId() {
+            return requestId;
+        }
+        
+        public PaymentMethod getMethod() {
+            return method;
+        }
+        
+        public double getAmount() {
+            return amount;
+        }
+    }
+    
+    /**
+     * An approved charge
+     */
+    public static class Authorization {
+        private final String requestId;
+        private final String authorizationCode;
+        private final double amount;
+        
+        public Authorization(String requestId, String authorizationCode, double amount) {
+            this.requestId = requestId;
+            this.authorizationCode = authorizationCode;
+            this.amount = amount;
+        }
+        
+        public String getRequestId() {
+            return requestId;
+        }
+        
+        public String getAuthorizationCode() {
+            return authorizationCode;
+        }
+        
+        public double getAmount() {
+            return amount;
+        }
+    }
+    
+    /**
+     * The payment service refused the charge. Retrying will not help.
+     */
+    public static class DeclinedException extends RuntimeException {
+        public DeclinedException(String reason) {
+            super(reason);
+        }
+    }
+    
+    /**
+     * The payment service could not process the charge right now. The request may be retried.
+     */
+    public static class GatewayUnavailableException extends RuntimeException {
+        public GatewayUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
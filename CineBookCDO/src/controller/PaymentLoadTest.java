@@ -0,0 +1,133 @@
+package controller;
+
+import model.Booking;
+import model.Cinema;
+import model.Movie;
+import model.PaymentMethod;
+import model.User;
+
+import java.awt.EventQueue;
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for PaymentProcessor against the SimulatedPaymentGateway. Payments are
+ * submitted from the Event Dispatch Thread, as the booking screen does, against a
+ * gateway that fails, declines and loses a share of requests. It reports how the
+ * payments ended, how long they took, the time spent on the EDT and the threads used,
+ * and checks that each approved booking was charged exactly once. A second run
+ * against a gateway that always fails checks that the circuit breaker opens.
+ *
+ * Usage: java controller.PaymentLoadTest [payments]
+ */
+public class PaymentLoadTest {
+    private static final int DEFAULT_PAYMENTS = 2000;
+    
+    public static void main(String[] args) throws Exception {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PAYMENTS;
+        
+        runLoad(payments);
+        runCircuitBreaker();
+        System.exit(0);
+    }
+    
+    // Many payments at once against an unreliable gateway
+    private static void runLoad(int payments) throws Exception {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(Duration.ofMillis(50), Duration.ofMillis(400),
+                                                                      0.15, 0.05, 0.05, new Random(42));
+        // The breaker is kept closed so every payment gets its retries
+        PaymentProcessor processor = new PaymentProcessor(gateway, Duration.ofMillis(500), 3,
+            new CircuitBreaker(Integer.MAX_VALUE, Duration.ofSeconds(30), Clock.systemUTC()));
+        
+        Booking[] bookings = createBookings(payments);
+        PaymentMethod method = PaymentMethod.CREDIT_CARD;
+        
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        AtomicInteger timedOut = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong edtNanos = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(payments);
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        long start = System.nanoTime();
+        
+        for (Booking booking : bookings) {
+            EventQueue.invokeLater(() -> {
+                long submitted = System.nanoTime();
+                processor.authorize(booking, method, null).whenComplete((authorization, error) -> {
+                    if (error == null) {
+                        approved.incrementAndGet();
+                    } else if (error instanceof PaymentGateway.DeclinedException) {
+                        declined.incrementAndGet();
+                    } else if (error instanceof TimeoutException) {
+                        timedOut.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+                edtNanos.addAndGet(System.nanoTime() - submitted);
+            });
+        }
+        
+        if (!done.await(2, TimeUnit.MINUTES)) {
+            System.out.println("Timed out with " + done.getCount() + " payments unfinished");
+            return;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        int threadsUsed = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+        
+        System.out.println(payments + " payments finished in " + elapsedMillis + " ms");
+        System.out.println("  approved " + approved + ", declined " + declined +
+                           ", timed out " + timedOut + ", failed " + failed);
+        System.out.printf("  EDT time per submission: %.3f ms%n", edtNanos.get() / 1e6 / payments);
+        System.out.println("  threads started: " + threadsUsed);
+        System.out.println("  charges: " + gateway.getChargeCount() +
+                           (gateway.getChargeCount() == approved.get() ? " (one per approved booking)" :
+                            " (MISMATCH with " + approved + " approved)"));
+    }
+    
+    // A gateway that always fails should open the breaker after five attempts
+    private static void runCircuitBreaker() throws Exception {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(Duration.ofMillis(10), Duration.ofMillis(20),
+                                                                      1.0, 0.0, 0.0, new Random(42));
+        PaymentProcessor processor = new PaymentProcessor(gateway, Duration.ofMillis(500), 1,
+            new CircuitBreaker(5, Duration.ofSeconds(30), Clock.systemUTC()));
+        PaymentMethod method = PaymentMethod.CREDIT_CARD;
+        
+        int failedFast = 0;
+        for (Booking booking : createBookings(20)) {
+            CompletableFuture<PaymentGateway.Authorization> payment = processor.authorize(booking, method, null);
+            try {
+                payment.get();
+            } catch (Exception e) {
+                if (e.getCause() instanceof PaymentProcessor.CircuitOpenException) failedFast++;
+            }
+        }
+        
+        System.out.println("Always-failing gateway: " + failedFast + " of 20 payments failed fast, breaker " +
+                           processor.getCircuitBreaker().getState());
+    }
+    
+    private static Booking[] createBookings(int count) {
+        Cinema cinema = new Cinema(1, "Cinema 1", "Load test cinema", 100, false);
+        Movie movie = new Movie(1, "Load Test", "Drama", 120, "Director", "Synopsis", "poster.png", "PG", cinema);
+        LocalDateTime schedule = LocalDateTime.now().plusDays(1);
+        
+        Booking[] bookings = new Booking[count];
+        for (int i = 0; i < count; i++) {
+            User guest = new User(i + 1, "Guest " + (i + 1), "guest" + (i + 1) + "@example.com", "09170000000");
+            bookings[i] = new Booking(guest, movie, schedule);
+        }
+        return bookings;
+    }
+}
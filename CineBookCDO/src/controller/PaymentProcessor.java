@@ -0,0 +1,147 @@
+package controller;
+
+import model.Booking;
+import model.PaymentMethod;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PaymentProcessor authorizes and voids booking payments through a PaymentGateway
+ * without blocking any thread while the gateway works. Each attempt has a timeout, failed or
+ * unanswered attempts are retried a bounded number of times with backoff, and a
+ * circuit breaker fails payments fast while the gateway keeps failing.
+ */
+public class PaymentProcessor {
+    
+    /**
+     * Notified as attempts are made, on whichever thread makes them
+     */
+    public interface ProgressListener {
+        void attemptStarted(int attempt, int maxAttempts);
+    }
+    
+    /**
+     * The circuit breaker is open, so the payment was not attempted
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("Payment service is temporarily unavailable");
+        }
+    }
+    
+    private static final Duration DEFAULT_ATTEMPT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MILLIS = 250;
+    
+    private final PaymentGateway gateway;
+    private final Duration attemptTimeout;
+    private final int maxAttempts;
+    private final CircuitBreaker circuitBreaker;
+    
+    public PaymentProcessor(PaymentGateway gateway) {
+        this(gateway, DEFAULT_ATTEMPT_TIMEOUT, DEFAULT_MAX_ATTEMPTS,
+             new CircuitBreaker(5, Duration.ofSeconds(30), Clock.systemUTC()));
+    }
+    
+    /**
+     * @param gateway The payment service
+     * @param attemptTimeout How long to wait for the gateway to answer one attempt
+     * @param maxAttempts Attempts per payment, including the first
+     * @param circuitBreaker Breaker guarding the gateway
+     */
+    public PaymentProcessor(PaymentGateway gateway, Duration attemptTimeout, int maxAttempts,
+                            CircuitBreaker circuitBreaker) {
+        this.gateway = gateway;
+        this.attemptTimeout = attemptTimeout;
+        this.maxAttempts = maxAttempts;
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    /**
+     * Authorize the payment for a booking. The booking itself is not changed.
+     * @param booking The booking to pay for
+     * @param method The payment method
+     * @param listener Notified of each attempt (may be null)
+     * @return Future for the authorization. It fails with a DeclinedException, a
+     *         CircuitOpenException, or the last error once the attempts are used up
+     *         (GatewayUnavailableException, or TimeoutException if the gateway did not answer).
+     */
+    public CompletableFuture<PaymentGateway.Authorization> authorize(Booking booking, PaymentMethod method,
+                                                                     ProgressListener listener) {
+        // The booking ID is the idempotency key, so retries cannot charge twice
+        PaymentGateway.PaymentRequest request =
+            new PaymentGateway.PaymentRequest(booking.getBookingId(), method, booking.getTotalAmount());
+        
+        CompletableFuture<PaymentGateway.Authorization> result = new CompletableFuture<>();
+        attempt(() -> gateway.authorize(request), 1, listener, result);
+        return result;
+    }
+    
+    /**
+     * Void the authorized payment for a booking, e.g. when a paid booking is cancelled
+     * @param booking The booking that was paid for
+     * @return Future completing once the payment is void. It fails with a
+     *         CircuitOpenException or the last error once the attempts are used up.
+     */
+    public CompletableFuture<Void> voidPayment(Booking booking) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        attempt(() -> gateway.voidAuthorization(booking.getBookingId()), 1, null, result);
+        return result;
+    }
+    
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    private <T> void attempt(Supplier<CompletableFuture<T>> request, int attempt, ProgressListener listener,
+                             CompletableFuture<T> result) {
+        if (!circuitBreaker.tryAcquire()) {
+            result.completeExceptionally(new CircuitOpenException());
+            return;
+        }
+        if (listener != null) {
+            listener.attemptStarted(attempt, maxAttempts);
+        }
+        
+        CompletableFuture<T> call;
+        try {
+            // Copied so the timeout does not complete the gateway's own future
+            call = request.get().copy();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        
+        call.orTimeout(attemptTimeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            
+            if (cause == null) {
+                circuitBreaker.recordSuccess();
+                result.complete(value);
+            } else if (cause instanceof PaymentGateway.DeclinedException) {
+                // The gateway is working, it just refused this charge
+                circuitBreaker.recordSuccess();
+                result.completeExceptionally(cause);
+            } else {
+                circuitBreaker.recordFailure();
+                if (attempt >= maxAttempts) {
+                    result.completeExceptionally(cause);
+                } else {
+                    CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS)
+                        .execute(() -> attempt(request, attempt + 1, listener, result));
+                }
+            }
+        });
+    }
+    
+    // Exponential backoff with jitter, so retries from many kiosks do not arrive together
+    private static long backoffMillis(int attempt) {
+        long backoff = BASE_BACKOFF_MILLIS << (attempt - 1);
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
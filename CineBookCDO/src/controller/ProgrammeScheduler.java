@@ -0,0 +1,437 @@
+package controller;
+
+import model.Cinema;
+import model.Movie;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * ProgrammeScheduler fills the free time of each cinema hall with showings of the
+ * movies assigned to it. Each hall's days are planned with a greedy pass followed by
+ * local improvement, scoring every showing by the movie's priority weight and the
+ * demand for its time slot. Halls are planned in parallel.
+ */
+public class ProgrammeScheduler {
+    
+    // Showings start on this grid
+    public static final int SLOT_MINUTES = 5;
+    
+    // Each further showing of a movie on the same day in the same hall is worth this much less
+    private static final double REPEAT_DECAY = 0.7;
+    
+    // Upper bound on improvement rounds per hall and day
+    private static final int MAX_IMPROVEMENT_ROUNDS = 200;
+    
+    // Relative ticket demand by starting hour
+    private static final double[] DEMAND_BY_HOUR = {
+        0.3, 0.2, 0.1, 0.1, 0.1, 0.1, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6,  // 00:00 - 11:59
+        0.7, 0.7, 0.75, 0.8, 0.85, 0.95, 1.1, 1.2, 1.15, 0.9, 0.7, 0.5 // 12:00 - 23:59
+    };
+    private static final double WEEKEND_DEMAND = 1.3;
+    
+    /**
+     * What to plan: the week, opening hours, cleaning buffer and movie priorities
+     */
+    public static class ProgrammeRequest {
+        private final LocalDate weekStart;
+        private final LocalTime opening;
+        private final LocalTime closing;
+        private final int cleaningBufferMinutes;
+        private final Map<Movie, Double> weights = new IdentityHashMap<>();
+        private int days = 7;
+        
+        /**
+         * Create a request for one week
+         * @param weekStart The first day to plan
+         * @param opening The earliest start time
+         * @param closing The time the last showing must end by (past midnight if not after opening)
+         * @param cleaningBufferMinutes Minutes between showings (at least the hall conflict buffer)
+         */
+        public ProgrammeRequest(LocalDate weekStart, LocalTime opening, LocalTime closing, int cleaningBufferMinutes) {
+            this.weekStart = weekStart;
+            this.opening = opening;
+            this.closing = closing;
+            this.cleaningBufferMinutes = Math.max(cleaningBufferMinutes, HallScheduleIndex.CLEANING_BUFFER_MINUTES);
+        }
+        
+        /**
+         * Set a movie's priority weight (1.0 if not set)
+         * @param movie The movie
+         * @param weight The weight; 0 leaves the movie out
+         */
+        public void setWeight(Movie movie, double weight) {
+            weights.put(movie, weight);
+        }
+        
+        public double getWeight(Movie movie) {
+            Double weight = weights.get(movie);
+            return weight == null ? 1.0 : weight;
+        }
+        
+        public void setDays(int days) {
+            this.days = days;
+        }
+        
+        public LocalDate getWeekStart() {
+            return weekStart;
+        }
+        
+        public int getCleaningBufferMinutes() {
+            return cleaningBufferMinutes;
+        }
+    }
+    
+    /**
+     * A generated programme
+     */
+    public static class Programme {
+        private final List<HallScheduleIndex.Showing> showings;
+        private final double score;
+        private final long elapsedMillis;
+        
+        Programme(List<HallScheduleIndex.Showing> showings, double score, long elapsedMillis) {
+            this.showings = showings;
+            this.score = score;
+            this.elapsedMillis = elapsedMillis;
+        }
+        
+        public List<HallScheduleIndex.Showing> getShowings() {
+            return showings;
+        }
+        
+        /**
+         * Get the total demand-weighted value of the programme
+         * @return The score
+         */
+        public double getScore() {
+            return score;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+    
+    /**
+     * Result of planning one hall
+     */
+    private static class HallPlan {
+        private final List<HallScheduleIndex.Showing> showings = new ArrayList<>();
+        private double score;
+    }
+    
+    /**
+     * Movies to show in one hall on one day, in order, and how long after opening to start
+     */
+    private static class DayProgramme {
+        private final List<Integer> sequence;
+        private final int offset;
+        
+        DayProgramme(List<Integer> sequence, int offset) {
+            this.sequence = sequence;
+            this.offset = offset;
+        }
+    }
+    
+    /**
+     * Planning state for one hall on one day, in minutes from that day's midnight
+     */
+    private static class DayPlanner {
+        private final int open;
+        private final int close;
+        private final int buffer;
+        private final int[] durations;
+        private final double[] weights;
+        private final int[][] blocked; // Existing showings as {start, end} in start order
+        private final double dayDemand;
+        
+        DayPlanner(LocalDate date, int open, int close, int buffer, int[] durations, double[] weights,
+                   int[][] blocked) {
+            this.open = open;
+            this.close = close;
+            this.buffer = buffer;
+            this.durations = durations;
+            this.weights = weights;
+            this.blocked = blocked;
+            
+            DayOfWeek day = date.getDayOfWeek();
+            this.dayDemand = (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) ? WEEKEND_DEMAND : 1.0;
+        }
+        
+        /**
+         * Place the movies of a sequence one after another, from the opening time plus offset
+         * @param sequence Movie indexes in showing order
+         * @param offset Minutes after opening to start at
+         * @param starts Receives the start minute of each showing (may be null)
+         * @return The score, or -1 if the sequence does not fit the day
+         */
+        double evaluate(List<Integer> sequence, int offset, int[] starts) {
+            int cursor = open + offset;
+            int[] showingsPerMovie = new int[durations.length];
+            double score = 0;
+            
+            for (int i = 0; i < sequence.size(); i++) {
+                int movie = sequence.get(i);
+                int start = earliestStart(cursor, durations[movie] + buffer);
+                if (start < 0 || start + durations[movie] > close) return -1;
+                
+                score += weights[movie] * demand(start) * Math.pow(REPEAT_DECAY, showingsPerMovie[movie]++);
+                if (starts != null) starts[i] = start;
+                cursor = start + durations[movie] + buffer;
+            }
+            
+            return score;
+        }
+        
+        // Earliest slot at or after the cursor where the hall is free for the given minutes
+        private int earliestStart(int cursor, int minutes) {
+            int start = roundUp(cursor);
+            for (int[] block : blocked) {
+                if (block[1] <= start) continue;
+                if (block[0] >= start + minutes) break;
+                start = roundUp(block[1]);
+            }
+            return start < close ? start : -1;
+        }
+        
+        private double demand(int minute) {
+            return DEMAND_BY_HOUR[(minute / 60) % 24] * dayDemand;
+        }
+        
+        /**
+         * Build a programme greedily, then improve it until no single change helps
+         * @return The best programme found
+         */
+        DayProgramme plan() {
+            List<Integer> sequence = greedy();
+            int offset = 0;
+            double best = evaluate(sequence, offset, null);
+            
+            for (int round = 0; round < MAX_IMPROVEMENT_ROUNDS; round++) {
+                boolean improved = false;
+                
+                // Replace one showing with another movie
+                for (int i = 0; i < sequence.size(); i++) {
+                    int original = sequence.get(i);
+                    for (int movie = 0; movie < durations.length; movie++) {
+                        if (movie == original) continue;
+                        sequence.set(i, movie);
+                        double score = evaluate(sequence, offset, null);
+                        if (score > best + 1e-9) {
+                            best = score;
+                            original = movie;
+                            improved = true;
+                        }
+                    }
+                    sequence.set(i, original);
+                }
+                
+                // Swap neighbouring showings
+                for (int i = 0; i + 1 < sequence.size(); i++) {
+                    swap(sequence, i);
+                    double score = evaluate(sequence, offset, null);
+                    if (score > best + 1e-9) {
+                        best = score;
+                        improved = true;
+                    } else {
+                        swap(sequence, i);
+                    }
+                }
+                
+                // Add a showing anywhere
+                for (int i = 0; i <= sequence.size(); i++) {
+                    for (int movie = 0; movie < durations.length; movie++) {
+                        sequence.add(i, movie);
+                        double score = evaluate(sequence, offset, null);
+                        if (score > best + 1e-9) {
+                            best = score;
+                            improved = true;
+                            break;
+                        }
+                        sequence.remove(i);
+                    }
+                }
+                
+                // Drop a showing to make room for better slots
+                for (int i = 0; i < sequence.size(); i++) {
+                    int removed = sequence.remove(i);
+                    double score = evaluate(sequence, offset, null);
+                    if (score > best + 1e-9) {
+                        best = score;
+                        improved = true;
+                        i--;
+                    } else {
+                        sequence.add(i, removed);
+                    }
+                }
+                
+                // Shift the whole day later into busier hours
+                for (int shift : new int[] {SLOT_MINUTES, 30, 60, -SLOT_MINUTES, -30, -60}) {
+                    int candidate = offset + shift;
+                    if (candidate < 0) continue;
+                    double score = evaluate(sequence, candidate, null);
+                    if (score > best + 1e-9) {
+                        best = score;
+                        offset = candidate;
+                        improved = true;
+                    }
+                }
+                
+                if (!improved) break;
+            }
+            
+            return new DayProgramme(sequence, offset);
+        }
+        
+        // Repeatedly add the movie earning the most per minute of hall time
+        private List<Integer> greedy() {
+            List<Integer> sequence = new ArrayList<>();
+            int[] showingsPerMovie = new int[durations.length];
+            int cursor = open;
+            
+            while (true) {
+                int bestMovie = -1;
+                int bestStart = 0;
+                double bestRate = 0;
+                
+                for (int movie = 0; movie < durations.length; movie++) {
+                    int start = earliestStart(cursor, durations[movie] + buffer);
+                    if (start < 0 || start + durations[movie] > close) continue;
+                    
+                    double value = weights[movie] * demand(start) * Math.pow(REPEAT_DECAY, showingsPerMovie[movie]);
+                    double rate = value / (start - cursor + durations[movie] + buffer);
+                    if (rate > bestRate) {
+                        bestRate = rate;
+                        bestMovie = movie;
+                        bestStart = start;
+                    }
+                }
+                
+                if (bestMovie < 0) return sequence;
+                
+                sequence.add(bestMovie);
+                showingsPerMovie[bestMovie]++;
+                cursor = bestStart + durations[bestMovie] + buffer;
+            }
+        }
+        
+        private static void swap(List<Integer> sequence, int i) {
+            int first = sequence.get(i);
+            sequence.set(i, sequence.get(i + 1));
+            sequence.set(i + 1, first);
+        }
+        
+        private int roundUp(int minute) {
+            return ((minute + SLOT_MINUTES - 1) / SLOT_MINUTES) * SLOT_MINUTES;
+        }
+    }
+    
+    private final HallScheduleIndex hallSchedules;
+    
+    public ProgrammeScheduler(HallScheduleIndex hallSchedules) {
+        this.hallSchedules = hallSchedules;
+    }
+    
+    /**
+     * Plan new showings for every hall around its existing showings
+     * @param request The week, opening hours, buffer and movie weights
+     * @param halls The cinema halls to plan
+     * @param movies The movies; each is shown in its own cinema, inactive ones are skipped
+     * @return The generated programme (not yet applied)
+     * @throws InterruptedException If interrupted while waiting for the halls to be planned
+     */
+    public Programme generate(ProgrammeRequest request, List<Cinema> halls, List<Movie> movies)
+            throws InterruptedException {
+        long startTime = System.nanoTime();
+        
+        Map<Integer, List<Movie>> moviesByHall = new HashMap<>();
+        for (Movie movie : movies) {
+            if (!movie.isActive() || movie.getCinema() == null || request.getWeight(movie) <= 0) continue;
+            moviesByHall.computeIfAbsent(movie.getCinema().getId(), id -> new ArrayList<>()).add(movie);
+        }
+        
+        List<HallScheduleIndex.Showing> showings = new ArrayList<>();
+        double score = 0;
+        
+        int threads = Math.max(1, Math.min(halls.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<HallPlan>> plans = new ArrayList<>();
+            for (Cinema hall : halls) {
+                List<Movie> hallMovies = moviesByHall.get(hall.getId());
+                if (hallMovies == null) continue;
+                plans.add(executor.submit(() -> planHall(request, hall, hallMovies)));
+            }
+            
+            for (Future<HallPlan> plan : plans) {
+                HallPlan hallPlan = plan.get();
+                showings.addAll(hallPlan.showings);
+                score += hallPlan.score;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to plan programme", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return new Programme(showings, score, (System.nanoTime() - startTime) / 1_000_000);
+    }
+    
+    private HallPlan planHall(ProgrammeRequest request, Cinema hall, List<Movie> movies) {
+        int[] durations = new int[movies.size()];
+        double[] weights = new double[movies.size()];
+        for (int i = 0; i < movies.size(); i++) {
+            durations[i] = movies.get(i).getDurationMinutes();
+            weights[i] = request.getWeight(movies.get(i));
+        }
+        
+        int open = request.opening.toSecondOfDay() / 60;
+        int close = request.closing.toSecondOfDay() / 60;
+        if (close <= open) close += 24 * 60; // Closes after midnight
+        
+        HallPlan hallPlan = new HallPlan();
+        for (int day = 0; day < request.days; day++) {
+            LocalDate date = request.weekStart.plusDays(day);
+            LocalDateTime midnight = date.atStartOfDay();
+            
+            // Existing showings stay where they are
+            List<HallScheduleIndex.Showing> existing = hallSchedules.getShowings(hall,
+                midnight.plusMinutes(open), midnight.plusMinutes(close + request.cleaningBufferMinutes));
+            int[][] blocked = new int[existing.size()][];
+            for (int i = 0; i < existing.size(); i++) {
+                HallScheduleIndex.Showing showing = existing.get(i);
+                blocked[i] = new int[] {minutesFrom(midnight, showing.getStart()), minutesFrom(midnight, showing.getEnd())};
+            }
+            
+            DayPlanner planner = new DayPlanner(date, open, close, request.cleaningBufferMinutes,
+                                                durations, weights, blocked);
+            DayProgramme programme = planner.plan();
+            
+            int[] starts = new int[programme.sequence.size()];
+            hallPlan.score += planner.evaluate(programme.sequence, programme.offset, starts);
+            for (int i = 0; i < starts.length; i++) {
+                hallPlan.showings.add(new HallScheduleIndex.Showing(movies.get(programme.sequence.get(i)),
+                    midnight.plusMinutes(starts[i])));
+            }
+        }
+        
+        return hallPlan;
+    }
+    
+    private static int minutesFrom(LocalDateTime midnight, LocalDateTime time) {
+        return (int) Duration.between(midnight, time).toMinutes();
+    }
+}
@@ -0,0 +1,183 @@
+package controller;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ReportCache keeps recently generated reports in a bounded LRU cache, keyed by date range and dimensions
+ */
+public class ReportCache {
+    
+    /**
+     * Cache key: an inclusive date range plus the dimensions the report was broken down by
+     */
+    public static class Key {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final String dimensions;
+        
+        public Key(LocalDate fromDate, LocalDate toDate, String dimensions) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.dimensions = dimensions;
+        }
+        
+        // Check whether a date falls inside this key's range
+        public boolean covers(LocalDate date) {
+            return !date.isBefore(fromDate) && !date.isAfter(toDate);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            
+            Key key = (Key) obj;
+            return fromDate.equals(key.fromDate) && toDate.equals(key.toDate) && 
+                   dimensions.equals(key.dimensions);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(fromDate, toDate, dimensions);
+        }
+    }
+    
+    /**
+     * One chunk of a cached report together with the progress it represents
+     */
+    public static class Chunk {
+        private final String text;
+        private final int sectionsDone;
+        
+        public Chunk(String text, int sectionsDone) {
+            this.text = text;
+            this.sectionsDone = sectionsDone;
+        }
+        
+        public String getText() {
+            return text;
+        }
+        
+        public int getSectionsDone() {
+            return sectionsDone;
+        }
+    }
+    
+    private final Map<Key, List<Chunk>> entries;
+    
+    // Bumped on every invalidation so reports computed across a data change are not cached
+    private long version;
+    
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    
+    public ReportCache(final int capacity) {
+        this.entries = new LinkedHashMap<Key, List<Chunk>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Chunk>> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+    
+    /**
+     * Look up a cached report
+     * @param key The report key
+     * @return The cached chunks, or null on a miss
+     */
+    public synchronized List<Chunk> get(Key key) {
+        List<Chunk> chunks = entries.get(key);
+        if (chunks != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return chunks;
+    }
+    
+    /**
+     * Get the current data version, to be passed back to put once a report is computed
+     * @return The current version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Store a computed report, unless the underlying data changed while it was being computed
+     * @param key The report key
+     * @param chunks The report chunks
+     * @param computedAtVersion The version returned by getVersion before computing
+     * @return true if the report was cached
+     */
+    public synchronized boolean put(Key key, List<Chunk> chunks, long computedAtVersion) {
+        if (computedAtVersion != version) {
+            return false;
+        }
+        entries.put(key, Collections.unmodifiableList(new ArrayList<>(chunks)));
+        return true;
+    }
+    
+    /**
+     * Evict every cached report whose date range contains the given date
+     * @param date The date whose data changed
+     */
+    public synchronized void invalidate(LocalDate date) {
+        version++;
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().covers(date)) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+    
+    /**
+     * Evict every cached report
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+    
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+    
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    @Override
+    public synchronized String toString() {
+        return "Cached reports: " + entries.size() + " | Hits: " + hits + " | Misses: " + misses +
+               " | Evictions: " + evictions + " | Invalidations: " + invalidations;
+    }
+}
@@ -0,0 +1,129 @@
+package controller;
+
+import model.Movie;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * ShowtimeIndex keeps every showing across all cinemas ordered by start time,
+ * so the showings in a time window are found without visiting every movie
+ */
+public class ShowtimeIndex {
+    
+    /**
+     * One showing of a movie, ordered by start time, then cinema ID, then movie ID
+     */
+    public static class Showtime implements Comparable<Showtime> {
+        private final LocalDateTime start;
+        private final int cinemaId;
+        private final int movieId;
+        private final Movie movie;
+        
+        Showtime(LocalDateTime start, int cinemaId, int movieId, Movie movie) {
+            this.start = start;
+            this.cinemaId = cinemaId;
+            this.movieId = movieId;
+            this.movie = movie;
+        }
+        
+        public LocalDateTime getStart() {
+            return start;
+        }
+        
+        public int getCinemaId() {
+            return cinemaId;
+        }
+        
+        public int getMovieId() {
+            return movieId;
+        }
+        
+        public Movie getMovie() {
+            return movie;
+        }
+        
+        @Override
+        public int compareTo(Showtime other) {
+            int result = start.compareTo(other.start);
+            if (result != 0) return result;
+            result = Integer.compare(cinemaId, other.cinemaId);
+            if (result != 0) return result;
+            return Integer.compare(movieId, other.movieId);
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Showtime && compareTo((Showtime) obj) == 0;
+        }
+        
+        @Override
+        public int hashCode() {
+            return (start.hashCode() * 31 + cinemaId) * 31 + movieId;
+        }
+    }
+    
+    private final ConcurrentSkipListSet<Showtime> showtimes = new ConcurrentSkipListSet<>();
+    
+    // Showings indexed per movie, so a changed movie's old entries can be removed
+    private final Map<Movie, List<Showtime>> movieShowtimes = new IdentityHashMap<>();
+    
+    /**
+     * Add a movie's showings, or replace them after its schedules or cinema changed
+     * @param movie The movie
+     */
+    public synchronized void index(Movie movie) {
+        remove(movie);
+        
+        int cinemaId = movie.getCinema() != null ? movie.getCinema().getId() : 0;
+        List<Showtime> entries = new ArrayList<>();
+        for (LocalDateTime schedule : movie.getSchedules()) {
+            Showtime showtime = new Showtime(schedule, cinemaId, movie.getId(), movie);
+            showtimes.add(showtime);
+            entries.add(showtime);
+        }
+        movieShowtimes.put(movie, entries);
+    }
+    
+    /**
+     * Remove all of a movie's showings
+     * @param movie The movie
+     */
+    public synchronized void remove(Movie movie) {
+        List<Showtime> entries = movieShowtimes.remove(movie);
+        if (entries == null) return;
+        
+        for (Showtime showtime : entries) {
+            showtimes.remove(showtime);
+        }
+    }
+    
+    /**
+     * Get the showings starting in a time window. The result is a live view,
+     * so iterating only the first few showings costs only those few steps.
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @return Showings in start time order
+     */
+    public NavigableSet<Showtime> startingBetween(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) return Collections.emptyNavigableSet();
+        
+        return Collections.unmodifiableNavigableSet(showtimes.subSet(
+            new Showtime(from, Integer.MIN_VALUE, Integer.MIN_VALUE, null), true,
+            new Showtime(to, Integer.MIN_VALUE, Integer.MIN_VALUE, null), false));
+    }
+    
+    /**
+     * Get the number of indexed showings
+     * @return The number of showings
+     */
+    public int size() {
+        return showtimes.size();
+    }
+}
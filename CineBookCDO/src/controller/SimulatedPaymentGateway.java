@@ -0,0 +1,130 @@
+package controller;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a payment service. Each request is answered after a random
+ * latency by a scheduler thread, so no thread waits while a payment is in flight.
+ * A share of requests can be made to fail, be declined, or never be answered, to
+ * exercise timeouts, retries and the circuit breaker. Voids fail and hang at the same
+ * rates.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final Duration minLatency;
+    private final Duration maxLatency;
+    private final double failureRate;
+    private final double declineRate;
+    private final double hangRate;
+    private final Random random;
+    private final ScheduledExecutorService scheduler;
+    
+    // Approved requests by ID, so a retried request returns the same authorization
+    private final Map<String, Authorization> approved = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a gateway that answers in 300 to 1200 ms and fails 2% of requests
+     */
+    public SimulatedPaymentGateway() {
+        this(Duration.ofMillis(300), Duration.ofMillis(1200), 0.02, 0.0, 0.0, new Random());
+    }
+    
+    /**
+     * @param minLatency Shortest time to answer
+     * @param maxLatency Longest time to answer
+     * @param failureRate Share of requests failing with GatewayUnavailableException
+     * @param declineRate Share of requests declined
+     * @param hangRate Share of requests never answered
+     * @param random Source of latencies and outcomes
+     */
+    public SimulatedPaymentGateway(Duration minLatency, Duration maxLatency, double failureRate,
+                                   double declineRate, double hangRate, Random random) {
+        this.minLatency = minLatency;
+        this.maxLatency = maxLatency;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+        this.hangRate = hangRate;
+        this.random = random;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Authorization> authorize(PaymentRequest request) {
+        CompletableFuture<Authorization> result = new CompletableFuture<>();
+        
+        double outcome = nextOutcome();
+        
+        // Lost requests are never answered; the caller's timeout has to deal with them
+        if (outcome < hangRate) return result;
+        
+        scheduler.schedule(() -> {
+            Authorization previous = approved.get(request.getRequestId());
+            if (previous != null && Double.compare(previous.getAmount(), request.getAmount()) != 0) {
+                // A retry must be the same charge; a different amount under the same key is refused
+                result.completeExceptionally(new DeclinedException("Request ID already used for a different amount"));
+            } else if (previous != null) {
+                result.complete(previous);
+            } else if (outcome < hangRate + failureRate) {
+                result.completeExceptionally(new GatewayUnavailableException("Payment service unavailable"));
+            } else if (outcome < hangRate + failureRate + declineRate) {
+                result.completeExceptionally(new DeclinedException("Insufficient funds"));
+            } else {
+                String code = String.format("AUTH%06d", Math.floorMod(request.getRequestId().hashCode(), 1_000_000));
+                result.complete(approved.computeIfAbsent(request.getRequestId(),
+                    id -> new Authorization(id, code, request.getAmount())));
+            }
+        }, nextLatencyMillis(), TimeUnit.MILLISECONDS);
+        
+        return result;
+    }
+    
+    @Override
+    public CompletableFuture<Void> voidAuthorization(String requestId) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        
+        double outcome = nextOutcome();
+        if (outcome < hangRate) return result;
+        
+        scheduler.schedule(() -> {
+            if (outcome < hangRate + failureRate) {
+                result.completeExceptionally(new GatewayUnavailableException("Payment service unavailable"));
+            } else {
+                approved.remove(requestId);
+                result.complete(null);
+            }
+        }, nextLatencyMillis(), TimeUnit.MILLISECONDS);
+        
+        return result;
+    }
+    
+    /**
+     * Get the number of distinct requests approved and not voided, i.e. charges made
+     * @return The number of charges
+     */
+    public int getChargeCount() {
+        return approved.size();
+    }
+    
+    private double nextOutcome() {
+        synchronized (random) {
+            return random.nextDouble();
+        }
+    }
+    
+    private long nextLatencyMillis() {
+        synchronized (random) {
+            return minLatency.toMillis() +
+                (long) (random.nextDouble() * (maxLatency.toMillis() - minLatency.toMillis()));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package controller;
+
+import model.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TypeAheadSearch answers search-as-you-type queries against a MoviePrefixTrie.
+ * When a query extends the previous one, its results are refined from the previous
+ * results instead of being looked up again. Queries with no matches fall back to
+ * typo-tolerant title matching.
+ */
+public class TypeAheadSearch {
+    // Queries shorter than this match most of a large catalog, so suggestions
+    // for them only look at a bounded number of matches
+    private static final int SHORT_QUERY_LENGTH = 3;
+    private static final int SHORT_QUERY_SCAN_LIMIT = 256;
+    
+    private MoviePrefixTrie trie;
+    private FuzzyTitleIndex fuzzyIndex;
+    
+    // Previous query and its results (valid only for the trie version they were computed at)
+    private String lastQuery;
+    private List<Movie> lastResults;
+    private long lastVersion = -1;
+    
+    public TypeAheadSearch(MoviePrefixTrie trie) {
+        this(trie, null);
+    }
+    
+    /**
+     * Create a type-ahead search that suggests near matches when nothing matches exactly
+     * @param trie The prefix trie
+     * @param fuzzyIndex The fuzzy title index (null for exact matches only)
+     */
+    public TypeAheadSearch(MoviePrefixTrie trie, FuzzyTitleIndex fuzzyIndex) {
+        this.trie = trie;
+        this.fuzzyIndex = fuzzyIndex;
+    }
+    
+    /**
+     * Find movies where every word of the query starts a word of the title or director
+     * @param query The raw query as typed
+     * @return Matching movies (empty for a blank query)
+     */
+    public List<Movie> search(String query) {
+        String normalized = MovieSearchIndex.normalize(query);
+        if (normalized.isEmpty()) {
+            lastQuery = null;
+            lastResults = null;
+            return new ArrayList<>();
+        }
+        
+        String[] terms = normalized.split(" ");
+        long version = trie.getVersion();
+        List<Movie> results;
+        
+        if (lastResults != null && version == lastVersion && normalized.startsWith(lastQuery)) {
+            // Extending the previous query can only remove matches
+            results = refine(lastResults, terms);
+        } else {
+            // Look up the longest term in the trie, then check the others
+            String longest = terms[0];
+            for (String term : terms) {
+                if (term.length() > longest.length()) longest = term;
+            }
+            results = terms.length == 1 ? trie.matchPrefix(longest) : refine(trie.matchPrefix(longest), terms);
+        }
+        
+        lastQuery = normalized;
+        lastResults = results;
+        lastVersion = version;
+        return results;
+    }
+    
+    /**
+     * Get up to limit suggestions among active movies, titles starting with the query first
+     * @param query The raw query as typed
+     * @param limit Maximum number of suggestions
+     * @return Suggested movies
+     */
+    public List<Movie> suggest(String query, int limit) {
+        String normalized = MovieSearchIndex.normalize(query);
+        List<Movie> suggestions = new ArrayList<>(limit);
+        if (normalized.isEmpty()) return suggestions;
+        
+        List<Movie> matches;
+        if (normalized.length() < SHORT_QUERY_LENGTH && normalized.indexOf(' ') < 0) {
+            matches = trie.matchPrefix(normalized, Math.max(limit, SHORT_QUERY_SCAN_LIMIT));
+        } else {
+            matches = search(query);
+        }
+        
+        if (matches.isEmpty() && fuzzyIndex != null) {
+            // Likely a typo: suggest the closest titles, already ranked
+            for (Movie movie : fuzzyIndex.search(query, SHORT_QUERY_SCAN_LIMIT)) {
+                if (suggestions.size() >= limit) break;
+                if (movie.isActive()) suggestions.add(movie);
+            }
+            return suggestions;
+        }
+        
+        // First pass: titles that start with the query
+        for (Movie movie : matches) {
+            if (suggestions.size() >= limit) return suggestions;
+            if (!movie.isActive()) continue;
+            
+            String text = trie.getSearchText(movie);
+            if (text != null && text.startsWith(normalized)) {
+                suggestions.add(movie);
+            }
+        }
+        
+        // Second pass: any other match
+        for (Movie movie : matches) {
+            if (suggestions.size() >= limit) break;
+            if (!movie.isActive()) continue;
+            
+            String text = trie.getSearchText(movie);
+            if (text == null || !text.startsWith(normalized)) {
+                suggestions.add(movie);
+            }
+        }
+        
+        return suggestions;
+    }
+    
+    private List<Movie> refine(List<Movie> movies, String[] terms) {
+        List<Movie> result = new ArrayList<>();
+        for (Movie movie : movies) {
+            String text = trie.getSearchText(movie);
+            if (text != null && MoviePrefixTrie.matchesAllPrefixes(text, terms)) {
+                result.add(movie);
+            }
+        }
+        return result;
+    }
+}
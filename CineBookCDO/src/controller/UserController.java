@@ -1,63 +1,135 @@
 package controller;
 
 import model.User;
+import utils.PasswordHasher;
 
-import java.util.ArrayList;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
- * UserController handles user management operations
+ * UserController handles user management operations. Passwords are kept as salted
+ * hashes, and the slow hashing for logins and registrations can run on a bounded
+ * worker pool so the UI stays responsive.
  */
 public class UserController {
-    private List<User> users;
-    private int nextUserId;
+    // Sign-ins waiting beyond this are refused rather than queued indefinitely
+    private static final int AUTH_QUEUE_CAPACITY = 64;
+    
+    // Guests are forgotten a week after their last visit, and at most this many are kept
+    private static final Duration GUEST_TTL = Duration.ofDays(7);
+    private static final int MAX_GUESTS = 50000;
+    
+    private UserDirectory directory;
+    private GuestRegistry guests;
+    private ExecutorService authExecutor;
+    
+    // Verified when the username is unknown, so a failed login takes as long either way
+    private String unknownUserHash;
     
     public UserController() {
-        this.users = new ArrayList<>();
-        this.nextUserId = 1;
+        this.directory = new UserDirectory();
+        this.authExecutor = createAuthExecutor();
+        this.guests = new GuestRegistry(GUEST_TTL, MAX_GUESTS, Clock.systemDefaultZone(), directory::removeGuest);
+        this.unknownUserHash = PasswordHasher.hash(new char[0]);
         
         // Add a default admin user
-        User admin = new User(nextUserId++, "admin", "admin123", "System Administrator", 
-                "admin@cinebookcdo.com", "09123456789", true);
-        users.add(admin);
+        String adminHash = PasswordHasher.hash("admin123".toCharArray());
+        directory.register("admin", id -> new User(id, "admin", adminHash, "System Administrator", 
+                "admin@cinebookcdo.com", "09123456789", true));
     }
     
     /**
      * Get all users
-     * @return List of all users
+     * @return List of all users in ID order
      */
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        return directory.getAll();
     }
     
     /**
-     * Find user by username
+     * Find user by username, ignoring case
      * @param username The username to search for
      * @return The user if found, null otherwise
      */
     public User findUserByUsername(String username) {
-        for (User user : users) {
-            if (user.getUsername() != null && user.getUsername().equals(username)) {
-                return user;
-            }
-        }
-        return null;
+        return directory.findByUsername(username);
+    }
+    
+    /**
+     * Find a registered user by email, ignoring case
+     * @param email The email to search for
+     * @return The user if found, null otherwise
+     */
+    public User findUserByEmail(String email) {
+        return directory.findByEmail(email);
+    }
+    
+    /**
+     * Find user by ID
+     * @param id The user ID
+     * @return The user if found, null otherwise
+     */
+    public User findUserById(int id) {
+        return directory.findById(id);
     }
     
     /**
-     * Login a user
+     * Login a user. This hashes the password, so call it off the Event Dispatch Thread.
      * @param username The username
      * @param password The password
      * @return The user if credentials are valid, null otherwise
      */
     public User login(String username, String password) {
-        User user = findUserByUsername(username);
-        
-        if (user != null && user.getPassword().equals(password)) {
+        return login(username, password.toCharArray());
+    }
+    
+    /**
+     * Login a user. This hashes the password, so call it off the Event Dispatch Thread.
+     * @param username The username
+     * @param password The password (cleared afterwards)
+     * @return The user if credentials are valid, null otherwise
+     */
+    public User login(String username, char[] password) {
+        try {
+            User user = findUserByUsername(username);
+            
+            if (user == null || user.isGuest()) {
+                PasswordHasher.verify(password, unknownUserHash);
+                return null;
+            }
+            if (!PasswordHasher.verify(password, user.getPassword())) {
+                return null;
+            }
+            
+            // Move the password to the current cost while we have it
+            if (PasswordHasher.needsRehash(user.getPassword())) {
+                user.setPassword(PasswordHasher.hash(password));
+            }
             return user;
+        } finally {
+            Arrays.fill(password, '\0');
         }
-        
-        return null;
+    }
+    
+    /**
+     * Login a user on the authentication worker pool
+     * @param username The username
+     * @param password The password (cleared afterwards)
+     * @return Completes with the user, or null if the credentials are invalid. Completes
+     *         exceptionally with a RejectedExecutionException if too many logins are waiting.
+     */
+    public CompletableFuture<User> loginAsync(String username, char[] password) {
+        return submit(() -> login(username, password), password);
     }
     
     /**
@@ -67,45 +139,103 @@ public class UserController {
      * @param fullName The full name
      * @param email The email
      * @param phoneNumber The phone number
-     * @return The created user, or null if username already exists
+     * @return The created user, or null if the username already exists in any letter case
      */
     public User registerUser(String username, String password, String fullName, String email, String phoneNumber) {
-        // Check if username already exists
-        if (findUserByUsername(username) != null) {
-            return null;
+        return registerUser(username, password.toCharArray(), fullName, email, phoneNumber);
+    }
+    
+    /**
+     * Register a new user. This hashes the password, so call it off the Event Dispatch Thread.
+     * @param username The username
+     * @param password The password (cleared afterwards)
+     * @param fullName The full name
+     * @param email The email
+     * @param phoneNumber The phone number
+     * @return The created user, or null if the username already exists in any letter case
+     */
+    public User registerUser(String username, char[] password, String fullName, String email, String phoneNumber) {
+        try {
+            // Skip the slow hash for a name that is plainly taken
+            if (findUserByUsername(username) != null) {
+                return null;
+            }
+            String hash = PasswordHasher.hash(password);
+            
+            // Checked and inserted in one step, so concurrent registrations cannot both take the username
+            return directory.register(username, 
+                    id -> new User(id, username.trim(), hash, fullName, email, phoneNumber, false));
+        } finally {
+            Arrays.fill(password, '\0');
         }
-        
-        // Create new user
-        User newUser = new User(nextUserId++, username, password, fullName, email, phoneNumber, false);
-        users.add(newUser);
-        
-        return newUser;
     }
     
     /**
-     * Create a guest user (no username/password)
+     * Register a new user on the authentication worker pool
+     * @param username The username
+     * @param password The password (cleared afterwards)
+     * @param fullName The full name
+     * @param email The email
+     * @param phoneNumber The phone number
+     * @return Completes with the created user, or null if the username already exists
+     */
+    public CompletableFuture<User> registerUserAsync(String username, char[] password, String fullName, 
+                                                     String email, String phoneNumber) {
+        return submit(() -> registerUser(username, password, fullName, email, phoneNumber), password);
+    }
+    
+    /**
+     * Get a guest user (no username/password). A guest returning with the same email
+     * or phone number gets their existing record back.
      * @param fullName The full name
      * @param email The email
      * @param phoneNumber The phone number
-     * @return The created guest user
+     * @return The guest user
      */
     public User createGuestUser(String fullName, String email, String phoneNumber) {
-        User guestUser = new User(nextUserId++, fullName, email, phoneNumber);
-        users.add(guestUser);
-        
-        return guestUser;
+        return guests.intern(fullName, email, phoneNumber, () -> {
+            User guestUser = new User(directory.nextId(), fullName, email, phoneNumber);
+            directory.add(guestUser);
+            return guestUser;
+        });
     }
     
     /**
-     * Add existing user to the system (for data initialization)
+     * Add existing user to the system (for data initialization). A plain-text
+     * password is replaced by its hash.
      * @param user The user to add
+     * @return true if added, false if the username is already taken
      */
-    public void addUser(User user) {
-        // Update nextUserId if necessary
-        if (user.getId() >= nextUserId) {
-            nextUserId = user.getId() + 1;
+    public boolean addUser(User user) {
+        if (!user.isGuest() && user.getPassword() != null && !PasswordHasher.isHash(user.getPassword())) {
+            user.setPassword(PasswordHasher.hash(user.getPassword().toCharArray()));
         }
+        return directory.add(user);
+    }
+    
+    private CompletableFuture<User> submit(Supplier<User> task, char[] password) {
+        try {
+            return CompletableFuture.supplyAsync(task, authExecutor);
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(password, '\0');
+            CompletableFuture<User> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+    
+    // One worker per core, since hashing is CPU-bound; idle workers exit after a while
+    private static ExecutorService createAuthExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
         
-        users.add(user);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(AUTH_QUEUE_CAPACITY), runnable -> {
+                Thread thread = new Thread(runnable, "auth-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
@@ -0,0 +1,140 @@
+package controller;
+
+import model.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * UserDirectory indexes users by ID, username and email in concurrent hash maps,
+ * so lookups take constant time however many members there are. Usernames and
+ * emails are compared case-insensitively, and a username can only be taken once,
+ * even when two registrations for it race.
+ */
+public class UserDirectory {
+    private final ConcurrentHashMap<Integer, User> usersById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, User> usersByUsername = new ConcurrentHashMap<>();
+    
+    // Registered accounts by email (the first account registered with an email)
+    private final ConcurrentHashMap<String, User> usersByEmail = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger nextUserId = new AtomicInteger(1);
+    
+    /**
+     * Normalize a username or email for lookup
+     * @param key The username or email as entered
+     * @return The trimmed lower-case key, or null for a missing or blank value
+     */
+    public static String normalize(String key) {
+        if (key == null) return null;
+        String normalized = key.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+    
+    /**
+     * Register a user if the username is not yet taken. The check and the insert
+     * are one atomic step, and an ID is only used up when the user is created.
+     * @param username The requested username
+     * @param factory Creates the user from the ID assigned to it
+     * @return The created user, or null if the username is taken or blank
+     */
+    public User register(String username, IntFunction<User> factory) {
+        String key = normalize(username);
+        if (key == null) return null;
+        
+        User[] created = new User[1];
+        usersByUsername.computeIfAbsent(key, k -> {
+            created[0] = factory.apply(nextUserId.getAndIncrement());
+            return created[0];
+        });
+        if (created[0] == null) return null;
+        
+        usersById.put(created[0].getId(), created[0]);
+        indexEmail(created[0]);
+        return created[0];
+    }
+    
+    /**
+     * Add a user that already has an ID, such as a guest or a user loaded at startup
+     * @param user The user to add
+     * @return true if added, false if a registered user's username is already taken
+     */
+    public boolean add(User user) {
+        String key = normalize(user.getUsername());
+        if (key != null && usersByUsername.putIfAbsent(key, user) != null) {
+            return false;
+        }
+        
+        usersById.put(user.getId(), user);
+        nextUserId.accumulateAndGet(user.getId() + 1, Math::max);
+        indexEmail(user);
+        return true;
+    }
+    
+    /**
+     * Remove a guest, such as one evicted from the guest registry
+     * @param user The guest to remove
+     * @return true if the guest was removed
+     */
+    public boolean removeGuest(User user) {
+        return user.isGuest() && usersById.remove(user.getId(), user);
+    }
+    
+    /**
+     * Take the next free user ID
+     * @return The ID
+     */
+    public int nextId() {
+        return nextUserId.getAndIncrement();
+    }
+    
+    public User findById(int id) {
+        return usersById.get(id);
+    }
+    
+    /**
+     * Find a user by username, ignoring case
+     * @param username The username
+     * @return The user, or null if not found
+     */
+    public User findByUsername(String username) {
+        String key = normalize(username);
+        return key == null ? null : usersByUsername.get(key);
+    }
+    
+    /**
+     * Find a registered account by email, ignoring case
+     * @param email The email
+     * @return The user, or null if not found
+     */
+    public User findByEmail(String email) {
+        String key = normalize(email);
+        return key == null ? null : usersByEmail.get(key);
+    }
+    
+    /**
+     * Get all users
+     * @return Users in ID order
+     */
+    public List<User> getAll() {
+        List<User> users = new ArrayList<>(usersById.values());
+        users.sort(Comparator.comparingInt(User::getId));
+        return users;
+    }
+    
+    public int size() {
+        return usersById.size();
+    }
+    
+    private void indexEmail(User user) {
+        String key = normalize(user.getEmail());
+        if (key != null && !user.isGuest()) {
+            usersByEmail.putIfAbsent(key, user);
+        }
+    }
+}
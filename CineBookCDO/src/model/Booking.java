@@ -126,6 +126,10 @@ public class Booking {
         return new ArrayList<>(selectedSeats); // Return a copy to prevent external modification
     }
     
+    public int getSeatCount() {
+        return selectedSeats.size();
+    }
+    
     public List<Snack> getSelectedSnacks() {
         return new ArrayList<>(selectedSnacks); // Return a copy to prevent external modification
     }
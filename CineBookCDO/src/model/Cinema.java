@@ -1,18 +1,24 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Cinema class representing a cinema within the movie theater complex
  */
 public class Cinema {
+    // Number of seats in each row of the seat layout
+    public static final int SEATS_PER_ROW = 10;
+    
     private int id;
     private String name;
     private String description;
     private int seatingCapacity;
     private boolean has3D;
     private List<Seat> seats;
+    private Map<String, Integer> seatIndexes; // Seat number to index in the seat layout
     private List<Movie> movies;
     
     public Cinema(int id, String name, String description, int seatingCapacity, boolean has3D) {
@@ -22,6 +28,7 @@ public class Cinema {
         this.seatingCapacity = seatingCapacity;
         this.has3D = has3D;
         this.seats = new ArrayList<>();
+        this.seatIndexes = new HashMap<>();
         this.movies = new ArrayList<>();
         
         // Initialize seats for this cinema
@@ -32,7 +39,7 @@ public class Cinema {
     private void initializeSeats() {
         // Create a standard seat layout with rows A-J and columns 1-10
         char[] rows = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J'};
-        int columns = 10;
+        int columns = SEATS_PER_ROW;
         
         for (char row : rows) {
             for (int col = 1; col <= columns; col++) {
@@ -41,11 +48,27 @@ public class Cinema {
                 // Make the last 3 rows Deluxe seats, others Standard
                 Seat.SeatType type = (row >= 'H') ? Seat.SeatType.DELUXE : Seat.SeatType.STANDARD;
                 
+                seatIndexes.put(seatNumber, seats.size());
                 seats.add(new Seat(seatNumber, type, this));
             }
         }
     }
     
+    /**
+     * Get the index of a seat in this cinema's seat layout
+     * @param seatNumber The seat number (e.g. "B5")
+     * @return The seat index, or -1 if there is no such seat
+     */
+    public int getSeatIndex(String seatNumber) {
+        Integer index = seatIndexes.get(seatNumber);
+        return index != null ? index : -1;
+    }
+    
+    // Number of seats in the seat layout
+    public int getSeatCount() {
+        return seats.size();
+    }
+    
     // Add a movie to this cinema
     public void addMovie(Movie movie) {
         if (!movies.contains(movie)) {
@@ -0,0 +1,55 @@
+package model;
+
+/**
+ * SeatOccupancy records which seats of a single showing are sold, one bit per seat.
+ * Seats are addressed by their index in the cinema's seat layout.
+ */
+public class SeatOccupancy {
+    private final int capacity;
+    private final long[] words;
+    
+    public SeatOccupancy(int capacity) {
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+    
+    // Mark a seat as sold
+    public void set(int seatIndex) {
+        words[seatIndex >>> 6] |= 1L << seatIndex;
+    }
+    
+    // Mark a seat as free again
+    public void clear(int seatIndex) {
+        words[seatIndex >>> 6] &= ~(1L << seatIndex);
+    }
+    
+    // Check whether a seat is sold
+    public boolean get(int seatIndex) {
+        return (words[seatIndex >>> 6] & (1L << seatIndex)) != 0;
+    }
+    
+    // Count sold seats, one popcount per 64 seats
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+    
+    public boolean isSoldOut() {
+        return cardinality() == capacity;
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Get the backing words for bulk reads. Bit i of word w is seat (w * 64 + i).
+     * The array must not be modified.
+     */
+    public long[] getWords() {
+        return words;
+    }
+}
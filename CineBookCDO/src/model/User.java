@@ -1,6 +1,7 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,7 +10,7 @@ import java.util.List;
 public class User {
     private int id;
     private String username;
-    private String password;
+    private String password; // Salted hash, see utils.PasswordHasher
     private String fullName;
     private String email;
     private String phoneNumber;
@@ -44,9 +45,9 @@ public class User {
         bookings.add(booking);
     }
     
-    // Get all bookings for this user
+    // Get all bookings for this user (read-only view; use BookingController.getBookingHistory for pages)
     public List<Booking> getBookings() {
-        return new ArrayList<>(bookings); // Return a copy to prevent external modification
+        return Collections.unmodifiableList(bookings);
     }
     
     // Getters and setters
@@ -2,6 +2,7 @@ package utils;
 
 import controller.AdminController;
 import controller.BookingController;
+import controller.CatalogStore;
 import controller.MovieController;
 import controller.UserController;
 import model.Booking;
@@ -17,42 +18,94 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * DataInitializer provides sample data for testing
+ * DataInitializer provides sample data for testing. Loading runs as a StartupGraph of
+ * parallel tasks, so screens can open as soon as the data they need is ready.
  */
 public class DataInitializer {
+    // Startup task names
+    public static final String TASK_CATALOG = "catalog";
+    public static final String TASK_USERS = "users";
+    public static final String TASK_SEATS = "seats";
+    public static final String TASK_BOOKINGS = "bookings";
+    
     // Singleton instance of each controller
-    private static UserController userController;
+    private static volatile UserController userController;
     private static MovieController movieController;
     private static BookingController bookingController;
     private static AdminController adminController;
     
-    // Flag to prevent multiple initializations
-    private static boolean initialized = false;
+    private static StartupGraph startup;
     
     /**
-     * Initialize the application data with sample values
+     * Get the startup graph that loads the data, creating the controllers the first
+     * time. More tasks may be added until startInitialization is called.
+     * @return The startup graph
      */
-    public static void initializeData() {
-        if (initialized) return;
+    public static synchronized StartupGraph getStartup() {
+        if (startup != null) return startup;
         
-        // Get controller instances
-        userController = new UserController();
-        movieController = new MovieController();
+        // Get controller instances, all sharing one movie and cinema catalog. These are
+        // cheap to create; the user controller hashes passwords so is created by its task.
+        CatalogStore catalog = new CatalogStore();
+        movieController = new MovieController(catalog);
         bookingController = new BookingController();
-        adminController = new AdminController();
+        adminController = new AdminController(catalog);
         
         // Set cross-controller references
         adminController.setBookingController(bookingController);
         
-        // Initialize sample data
-        initializeCinemas();
-        initializeMovies();
-        initializeUsers();
-        initializeBookings();
-        
-        initialized = true;
+        startup = new StartupGraph()
+            .addTask(TASK_CATALOG, "Loading cinemas and movies...", () -> {
+                initializeCinemas();
+                initializeMovies();
+            })
+            .addTask(TASK_USERS, "Loading user accounts...", () -> {
+                userController = new UserController();
+                initializeUsers();
+            })
+            .addTask(TASK_SEATS, "Setting up seating arrangements...",
+                     DataInitializer::initializeSeats, TASK_CATALOG)
+            .addTask(TASK_BOOKINGS, "Loading bookings...",
+                     DataInitializer::initializeBookings, TASK_CATALOG, TASK_USERS, TASK_SEATS);
+        return startup;
+    }
+    
+    /**
+     * Start loading the data in the background. Does nothing if already started.
+     * @param listener Notified of progress (may be null)
+     * @return The startup graph, for waiting on particular tasks
+     */
+    public static synchronized StartupGraph startInitialization(StartupGraph.ProgressListener listener) {
+        StartupGraph graph = getStartup();
+        graph.start(createExecutor(), listener);
+        return graph;
+    }
+    
+    /**
+     * Initialize the application data with sample values, waiting until it is loaded
+     */
+    public static void initializeData() {
+        startInitialization(null).whenAllDone().join();
+    }
+    
+    // Enough workers for the independent tasks; they exit once startup is over
+    private static ExecutorService createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(3, 3, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "startup-worker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
     
     /**
@@ -64,19 +117,19 @@ public class DataInitializer {
         Cinema cinema2 = new Cinema(2, "CineBook Limketkai", "Largest cinema at Limketkai Mall", 120, true);
         Cinema cinema3 = new Cinema(3, "CineBook Gaisano", "Family cinema at Gaisano Mall", 80, false);
         
-        // Add to controllers
+        // Add to the shared catalog
         movieController.addCinema(cinema1);
         movieController.addCinema(cinema2);
         movieController.addCinema(cinema3);
-        
-        adminController.addCinema(cinema1);
-        adminController.addCinema(cinema2);
-        adminController.addCinema(cinema3);
-        
-        // Initialize seat maps
-        bookingController.initializeCinemaSeats(cinema1);
-        bookingController.initializeCinemaSeats(cinema2);
-        bookingController.initializeCinemaSeats(cinema3);
+    }
+    
+    /**
+     * Initialize seat maps for the cinemas
+     */
+    private static void initializeSeats() {
+        for (Cinema cinema : movieController.getAllCinemas()) {
+            bookingController.initializeCinemaSeats(cinema);
+        }
     }
     
     /**
@@ -152,20 +205,13 @@ public class DataInitializer {
         movie6.addSchedule(LocalDateTime.of(tomorrow, LocalTime.of(14, 0)));
         movie6.addSchedule(LocalDateTime.of(tomorrow, LocalTime.of(17, 15)));
         
-        // Add to controllers
+        // Add to the shared catalog
         movieController.addMovie(movie1);
         movieController.addMovie(movie2);
         movieController.addMovie(movie3);
         movieController.addMovie(movie4);
         movieController.addMovie(movie5);
         movieController.addMovie(movie6);
-        
-        adminController.addMovie(movie1);
-        adminController.addMovie(movie2);
-        adminController.addMovie(movie3);
-        adminController.addMovie(movie4);
-        adminController.addMovie(movie5);
-        adminController.addMovie(movie6);
     }
     
     /**
@@ -247,34 +293,34 @@ public class DataInitializer {
     }
     
     /**
-     * Get singleton UserController instance
+     * Get singleton UserController instance, waiting until user accounts are loaded
      */
     public static UserController getUserController() {
-        if (!initialized) initializeData();
+        startInitialization(null).whenDone(TASK_USERS).join();
         return userController;
     }
     
     /**
-     * Get singleton MovieController instance
+     * Get singleton MovieController instance (the catalog may still be loading)
      */
     public static MovieController getMovieController() {
-        if (!initialized) initializeData();
+        getStartup();
         return movieController;
     }
     
     /**
-     * Get singleton BookingController instance
+     * Get singleton BookingController instance (bookings may still be loading)
      */
     public static BookingController getBookingController() {
-        if (!initialized) initializeData();
+        getStartup();
         return bookingController;
     }
     
     /**
-     * Get singleton AdminController instance
+     * Get singleton AdminController instance (data may still be loading)
      */
     public static AdminController getAdminController() {
-        if (!initialized) initializeData();
+        getStartup();
         return adminController;
     }
 }
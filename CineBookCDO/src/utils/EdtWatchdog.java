@@ -0,0 +1,301 @@
+package utils;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EdtWatchdog detects when the Event Dispatch Thread stops responding. A daemon thread
+ * posts a heartbeat event and waits for it to run; if it has not run within the
+ * threshold, the EDT's stack is captured. When the heartbeat finally runs, the stall is
+ * added to a duration histogram, kept in a short list of recent stalls and appended to
+ * a rolling log file. While the EDT is responsive, the only cost is one tiny event per
+ * heartbeat interval.
+ */
+public class EdtWatchdog {
+    
+    /**
+     * Notified on the watchdog thread when a stall has ended
+     */
+    public interface StallListener {
+        void stallRecorded(Stall stall);
+    }
+    
+    /**
+     * One stall of the Event Dispatch Thread
+     */
+    public static class Stall {
+        private final LocalDateTime startTime;
+        private final long durationMillis;
+        private final StackTraceElement[] stackTrace;
+        
+        Stall(LocalDateTime startTime, long durationMillis, StackTraceElement[] stackTrace) {
+            this.startTime = startTime;
+            this.durationMillis = durationMillis;
+            this.stackTrace = stackTrace;
+        }
+        
+        public LocalDateTime getStartTime() {
+            return startTime;
+        }
+        
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+        
+        /**
+         * @return What the EDT was doing when the stall was detected
+         */
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace.clone();
+        }
+    }
+    
+    /**
+     * Counts so far. Bucket i holds stalls shorter than getBucketBoundsMillis()[i];
+     * the last bucket holds the rest.
+     */
+    public static class Statistics {
+        private final long heartbeats;
+        private final long[] bucketCounts;
+        private final long longestMillis;
+        
+        Statistics(long heartbeats, long[] bucketCounts, long longestMillis) {
+            this.heartbeats = heartbeats;
+            this.bucketCounts = bucketCounts;
+            this.longestMillis = longestMillis;
+        }
+        
+        public long getHeartbeats() {
+            return heartbeats;
+        }
+        
+        public long[] getBucketCounts() {
+            return bucketCounts.clone();
+        }
+        
+        public long getStallCount() {
+            long total = 0;
+            for (long count : bucketCounts) {
+                total += count;
+            }
+            return total;
+        }
+        
+        public long getLongestMillis() {
+            return longestMillis;
+        }
+    }
+    
+    private static final long DEFAULT_THRESHOLD_MILLIS = 100;
+    private static final long[] BUCKET_BOUNDS_MILLIS = {250, 500, 1000, 2000, 5000};
+    private static final int RECENT_STALLS = 50;
+    private static final long MAX_LOG_BYTES = 1024 * 1024;
+    private static final int LOG_FILES = 3;
+    private static final DateTimeFormatter LOG_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    
+    private static EdtWatchdog shared;
+    
+    /**
+     * Get the watchdog shared by the application, logging to logs/edt-stalls.log
+     * @return The shared watchdog (not started)
+     */
+    public static synchronized EdtWatchdog getShared() {
+        if (shared == null) {
+            shared = new EdtWatchdog(Duration.ofMillis(DEFAULT_THRESHOLD_MILLIS), Paths.get("logs", "edt-stalls.log"));
+        }
+        return shared;
+    }
+    
+    private final long thresholdMillis;
+    private final Path logFile;
+    private final List<StallListener> listeners = new CopyOnWriteArrayList<>();
+    
+    // Guarded by this
+    private long heartbeats;
+    private final long[] bucketCounts = new long[BUCKET_BOUNDS_MILLIS.length + 1];
+    private long longestMillis;
+    private final ArrayDeque<Stall> recentStalls = new ArrayDeque<>();
+    
+    private volatile Thread watchdogThread;
+    private volatile Thread eventDispatchThread;
+    
+    /**
+     * @param threshold How long a heartbeat may wait before the EDT counts as stalled
+     * @param logFile Log of stalls, rolled over at 1 MB (may be null for no log)
+     */
+    public EdtWatchdog(Duration threshold, Path logFile) {
+        this.thresholdMillis = threshold.toMillis();
+        this.logFile = logFile;
+    }
+    
+    /**
+     * Start watching. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (watchdogThread != null) return;
+        
+        watchdogThread = new Thread(this::run, "edt-watchdog");
+        watchdogThread.setDaemon(true);
+        watchdogThread.start();
+    }
+    
+    public synchronized void stop() {
+        if (watchdogThread != null) {
+            watchdogThread.interrupt();
+            watchdogThread = null;
+        }
+    }
+    
+    public void addStallListener(StallListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeStallListener(StallListener listener) {
+        listeners.remove(listener);
+    }
+    
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+    
+    /**
+     * @return Upper bounds of the histogram buckets, except the last which is unbounded
+     */
+    public static long[] getBucketBoundsMillis() {
+        return BUCKET_BOUNDS_MILLIS.clone();
+    }
+    
+    public synchronized Statistics getStatistics() {
+        return new Statistics(heartbeats, bucketCounts.clone(), longestMillis);
+    }
+    
+    /**
+     * @return The most recent stalls, newest first
+     */
+    public synchronized List<Stall> getRecentStalls() {
+        List<Stall> stalls = new ArrayList<>(recentStalls);
+        Collections.reverse(stalls);
+        return stalls;
+    }
+    
+    public Path getLogFile() {
+        return logFile;
+    }
+    
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                heartbeat();
+                
+                // Heartbeats are spaced by the threshold, so a stall is caught within twice the threshold
+                Thread.sleep(thresholdMillis);
+            }
+        } catch (InterruptedException e) {
+            // Stopped
+        }
+    }
+    
+    private void heartbeat() throws InterruptedException {
+        CountDownLatch processed = new CountDownLatch(1);
+        long posted = System.nanoTime();
+        
+        EventQueue.invokeLater(() -> {
+            eventDispatchThread = Thread.currentThread();
+            processed.countDown();
+        });
+        
+        if (processed.await(thresholdMillis, TimeUnit.MILLISECONDS)) {
+            synchronized (this) {
+                heartbeats++;
+            }
+            return;
+        }
+        
+        // Stalled: record what the EDT is stuck on, then wait for it to recover
+        LocalDateTime postedAt = LocalDateTime.now().minusNanos(System.nanoTime() - posted);
+        Thread edt = eventDispatchThread;
+        StackTraceElement[] stackTrace = edt != null ? edt.getStackTrace() : new StackTraceElement[0];
+        processed.await();
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted);
+        
+        record(new Stall(postedAt, durationMillis, stackTrace));
+    }
+    
+    private void record(Stall stall) {
+        synchronized (this) {
+            heartbeats++;
+            bucketCounts[bucketOf(stall.getDurationMillis())]++;
+            longestMillis = Math.max(longestMillis, stall.getDurationMillis());
+            
+            recentStalls.addLast(stall);
+            if (recentStalls.size() > RECENT_STALLS) {
+                recentStalls.removeFirst();
+            }
+        }
+        
+        writeToLog(stall);
+        for (StallListener listener : listeners) {
+            listener.stallRecorded(stall);
+        }
+    }
+    
+    private static int bucketOf(long durationMillis) {
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && durationMillis >= BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+    
+    // Append to the log, rolling edt-stalls.log over to edt-stalls.log.1, .2 ... when it gets too big
+    private void writeToLog(Stall stall) {
+        if (logFile == null) return;
+        
+        StringBuilder entry = new StringBuilder();
+        entry.append(stall.getStartTime().format(LOG_TIME_FORMAT))
+            .append(" EDT stalled for ").append(stall.getDurationMillis()).append(" ms")
+            .append(System.lineSeparator());
+        for (StackTraceElement element : stall.stackTrace) {
+            entry.append("\tat ").append(element).append(System.lineSeparator());
+        }
+        
+        try {
+            if (logFile.getParent() != null) {
+                Files.createDirectories(logFile.getParent());
+            }
+            if (Files.exists(logFile) && Files.size(logFile) >= MAX_LOG_BYTES) {
+                rollLog();
+            }
+            Files.write(logFile, entry.toString().getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Could not write EDT stall log: " + e.getMessage());
+        }
+    }
+    
+    private void rollLog() throws IOException {
+        for (int i = LOG_FILES - 1; i >= 1; i--) {
+            Path older = Paths.get(logFile + "." + i);
+            Path newer = i == 1 ? logFile : Paths.get(logFile + "." + (i - 1));
+            if (Files.exists(newer)) {
+                Files.move(newer, older, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package utils;
+
+import javax.imageio.ImageIO;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ImageService loads poster and snack images off the Event Dispatch Thread. Images are
+ * decoded and scaled on a small worker pool, and the scaled variants are kept in an LRU
+ * cache bounded by their size in bytes. Requests for the same image and size share one
+ * load, so a list can ask again on every repaint until the image arrives.
+ */
+public class ImageService {
+    private static final long DEFAULT_CACHE_BYTES = 64L * 1024 * 1024;
+    
+    // How long a file that could not be loaded is skipped before it is tried again
+    private static final long MISSING_RETRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    
+    private static ImageService shared;
+    
+    /**
+     * Get the service shared by all views, loading images from the assets directory
+     * @return The shared service
+     */
+    public static synchronized ImageService getShared() {
+        if (shared == null) {
+            int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+            shared = new ImageService(Paths.get("assets"), threads, DEFAULT_CACHE_BYTES);
+        }
+        return shared;
+    }
+    
+    private final Path directory;
+    private final long maxBytes;
+    private final ExecutorService executor;
+    
+    // Scaled images, least recently used first (guarded by this)
+    private final LinkedHashMap<Key, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    
+    // Loads in progress, and when files that could not be read or decoded last failed
+    private final Map<Key, CompletableFuture<BufferedImage>> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> missing = new ConcurrentHashMap<>();
+    
+    /**
+     * @param directory Directory the image filenames are relative to
+     * @param threads Number of decoding threads
+     * @param maxBytes Memory budget for the scaled images
+     */
+    public ImageService(Path directory, int threads, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "image-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Get an image if it has already been loaded at this size. Cheap enough to call while painting.
+     * @param file Image filename
+     * @param width Width of the box the image is scaled to fit
+     * @param height Height of the box
+     * @return The scaled image, or null if it is not cached
+     */
+    public BufferedImage getCached(String file, int width, int height) {
+        if (file == null) return null;
+        return getCached(new Key(file, width, height));
+    }
+    
+    /**
+     * Load an image scaled to fit a box, keeping its aspect ratio
+     * @param file Image filename
+     * @param width Width of the box
+     * @param height Height of the box
+     * @return Future for the scaled image, which is null if the file cannot be read
+     */
+    public CompletableFuture<BufferedImage> load(String file, int width, int height) {
+        if (file == null || isMissing(file)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        Key key = new Key(file, width, height);
+        BufferedImage cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        try {
+            return pending.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> decode(k), executor));
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<BufferedImage> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+    
+    /**
+     * Load an image and hand it to a callback on the Event Dispatch Thread. The callback
+     * is not called if the image cannot be loaded, so the caller keeps its placeholder.
+     * @param file Image filename
+     * @param width Width of the box
+     * @param height Height of the box
+     * @param onReady Called with the scaled image
+     */
+    public void request(String file, int width, int height, Consumer<BufferedImage> onReady) {
+        load(file, width, height).thenAccept(image -> {
+            if (image != null) {
+                SwingUtilities.invokeLater(() -> onReady.accept(image));
+            }
+        });
+    }
+    
+    /**
+     * Get the memory used by the cached images
+     * @return Size in bytes
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+    
+    private synchronized BufferedImage getCached(Key key) {
+        return cache.get(key);
+    }
+    
+    // A file that failed recently is skipped; once the retry delay has passed it is tried again,
+    // so an image added or fixed while the application runs shows up
+    private boolean isMissing(String file) {
+        Long failedAt = missing.get(file);
+        if (failedAt == null) return false;
+        if (System.nanoTime() - failedAt < MISSING_RETRY_NANOS) return true;
+        
+        missing.remove(file, failedAt);
+        return false;
+    }
+    
+    // Runs on a worker thread
+    private BufferedImage decode(Key key) {
+        try {
+            BufferedImage scaled = null;
+            try {
+                Path path = directory.resolve(key.file);
+                BufferedImage source = Files.isRegularFile(path) ? ImageIO.read(path.toFile()) : null;
+                
+                // ImageIO returns null for formats it has no reader for
+                if (source != null) {
+                    scaled = scaleToFit(source, key.width, key.height);
+                }
+            } catch (IOException e) {
+                scaled = null;
+            }
+            
+            // Cache first, so a new request finds the image once it is no longer pending
+            if (scaled != null) {
+                put(key, scaled);
+            } else {
+                missing.put(key.file, System.nanoTime());
+            }
+            return scaled;
+        } finally {
+            // Also on unexpected errors, so a later request tries again instead of getting the failed load
+            pending.remove(key);
+        }
+    }
+    
+    private synchronized void put(Key key, BufferedImage image) {
+        BufferedImage previous = cache.put(key, image);
+        if (previous != null) cachedBytes -= sizeOf(previous);
+        cachedBytes += sizeOf(image);
+        
+        // Evict least recently used images, always keeping the newest one
+        Iterator<BufferedImage> eldest = cache.values().iterator();
+        while (cachedBytes > maxBytes && cache.size() > 1) {
+            cachedBytes -= sizeOf(eldest.next());
+            eldest.remove();
+        }
+    }
+    
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+    
+    /**
+     * Scale an image to fit a box. Large reductions are done in halving steps, since a
+     * single bilinear pass skips most of the source pixels and looks grainy.
+     */
+    static BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min((double) maxWidth / source.getWidth(), (double) maxHeight / source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (scale > 0.5) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        
+        return current;
+    }
+    
+    private static class Key {
+        final String file;
+        final int width;
+        final int height;
+        
+        Key(String file, int width, int height) {
+            this.file = file;
+            this.width = width;
+            this.height = height;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return width == other.width && height == other.height && file.equals(other.file);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, width, height);
+        }
+    }
+}
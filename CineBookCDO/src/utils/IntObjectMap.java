@@ -0,0 +1,111 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * IntObjectMap is a hash map from primitive int keys to objects, using open
+ * addressing so lookups do not box the key or follow entry chains.
+ * Null values are not supported.
+ * @param <V> The value type
+ */
+public class IntObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+    
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    
+    public IntObjectMap() {
+        this(16);
+    }
+    
+    /**
+     * Create a map sized for the expected number of entries
+     * @param expectedSize The expected number of entries
+     */
+    public IntObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+    
+    /**
+     * Add or replace the value for a key
+     * @param key The key
+     * @param value The value (not null)
+     * @return The previous value, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        
+        int slot = slot(key);
+        V previous = (V) values[slot];
+        if (previous == null) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        
+        if (size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+        return previous;
+    }
+    
+    /**
+     * Get the value for a key
+     * @param key The key
+     * @return The value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[slot(key)];
+    }
+    
+    public boolean containsKey(int key) {
+        return values[slot(key)] != null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    // Slot holding the key, or the empty slot where it would go
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    // Spread sequential IDs across the table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,187 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * IntervalTree stores half-open intervals [start, end) with a value each and finds
+ * the intervals overlapping a query range. It is a treap ordered by start, where
+ * every node also records the largest end in its subtree, so subtrees that cannot
+ * overlap the query are skipped.
+ * @param <T> The value type
+ */
+public class IntervalTree<T> {
+    
+    private static class Node<T> {
+        private final long start;
+        private final long end;
+        private final int priority;
+        private final T value;
+        private long maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+        
+        Node(long start, long end, int priority, T value) {
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+    
+    private final Random random = new Random();
+    private Node<T> root;
+    private int size;
+    
+    /**
+     * Add an interval
+     * @param start Start of the interval (inclusive)
+     * @param end End of the interval (exclusive)
+     * @param value The value stored with the interval
+     */
+    public void insert(long start, long end, T value) {
+        root = insert(root, new Node<>(start, end, random.nextInt(), value));
+        size++;
+    }
+    
+    /**
+     * Remove an interval
+     * @param start Start of the interval
+     * @param value The value stored with the interval
+     * @return true if the interval was found and removed
+     */
+    public boolean remove(long start, T value) {
+        int before = size;
+        root = remove(root, start, value);
+        return size < before;
+    }
+    
+    /**
+     * Find any interval overlapping [start, end) in O(log n)
+     * @param start Start of the query range (inclusive)
+     * @param end End of the query range (exclusive)
+     * @return The value of an overlapping interval, or null if there is none
+     */
+    public T findAnyOverlap(long start, long end) {
+        Node<T> node = root;
+        while (node != null) {
+            if (node.start < end && node.end > start) return node.value;
+            
+            // If the left subtree reaches past start but has no overlap, neither has the right
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Find every interval overlapping [start, end)
+     * @param start Start of the query range (inclusive)
+     * @param end End of the query range (exclusive)
+     * @return Values of the overlapping intervals, in order of interval start
+     */
+    public List<T> findOverlaps(long start, long end) {
+        List<T> result = new ArrayList<>();
+        collectOverlaps(root, start, end, result);
+        return result;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) return added;
+        
+        if (added.start < node.start) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+    
+    private Node<T> remove(Node<T> node, long start, T value) {
+        if (node == null) return null;
+        
+        if (start < node.start) {
+            node.left = remove(node.left, start, value);
+        } else if (start > node.start) {
+            node.right = remove(node.right, start, value);
+        } else if (Objects.equals(node.value, value)) {
+            size--;
+            return merge(node.left, node.right);
+        } else {
+            // Intervals with the same start may sit on either side
+            int before = size;
+            node.left = remove(node.left, start, value);
+            if (size == before) {
+                node.right = remove(node.right, start, value);
+            }
+        }
+        update(node);
+        return node;
+    }
+    
+    // Join two treaps where every start in left is at most every start in right
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        } else {
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+    }
+    
+    private void collectOverlaps(Node<T> node, long start, long end, List<T> result) {
+        if (node == null || node.maxEnd <= start) return;
+        
+        collectOverlaps(node.left, start, end, result);
+        if (node.start >= end) return; // Everything to the right starts later still
+        
+        if (node.end > start) {
+            result.add(node.value);
+        }
+        collectOverlaps(node.right, start, end, result);
+    }
+    
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+    
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+    
+    private static <T> void update(Node<T> node) {
+        long maxEnd = node.end;
+        if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        node.maxEnd = maxEnd;
+    }
+}
@@ -0,0 +1,114 @@
+package utils;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PasswordHasher stores passwords as salted PBKDF2 hashes. The iteration count is the
+ * cost: each one makes verifying a password, and guessing it, proportionally slower.
+ * Hashes are stored as "pbkdf2-sha256$iterations$salt$hash" so the cost can be raised
+ * later without invalidating existing passwords.
+ */
+public class PasswordHasher {
+    
+    // About 27 ms per hash, so each core verifies about 35 logins a second
+    public static final int DEFAULT_ITERATIONS = 100000;
+    
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    
+    private static final SecureRandom random = new SecureRandom();
+    private static volatile int iterations = DEFAULT_ITERATIONS;
+    
+    /**
+     * Set the cost used for new hashes
+     * @param count The number of PBKDF2 iterations
+     */
+    public static void setIterations(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Iterations must be positive");
+        }
+        iterations = count;
+    }
+    
+    public static int getIterations() {
+        return iterations;
+    }
+    
+    /**
+     * Hash a password with a new random salt
+     * @param password The password
+     * @return The encoded hash
+     */
+    public static String hash(char[] password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        
+        int count = iterations;
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + count + "$" + encoder.encodeToString(salt) + "$" +
+               encoder.encodeToString(derive(password, salt, count));
+    }
+    
+    /**
+     * Check a password against a stored hash. The hashes are compared in constant time.
+     * @param password The password to check
+     * @param stored The encoded hash
+     * @return true if the password matches
+     */
+    public static boolean verify(char[] password, String stored) {
+        String[] parts = split(stored);
+        if (parts == null) return false;
+        
+        Base64.Decoder decoder = Base64.getDecoder();
+        byte[] expected = decoder.decode(parts[3]);
+        byte[] actual = derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+    
+    /**
+     * Check whether a stored value is a hash produced by this class
+     * @param stored The stored value
+     * @return true if it is an encoded hash
+     */
+    public static boolean isHash(String stored) {
+        return split(stored) != null;
+    }
+    
+    /**
+     * Check whether a hash was made with a different cost than the current one
+     * @param stored The encoded hash
+     * @return true if the password should be hashed again on its next successful login
+     */
+    public static boolean needsRehash(String stored) {
+        String[] parts = split(stored);
+        return parts == null || Integer.parseInt(parts[1]) != iterations;
+    }
+    
+    private static String[] split(String stored) {
+        if (stored == null) return null;
+        
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(PREFIX) || !parts[1].matches("\\d{1,9}")) {
+            return null;
+        }
+        return parts;
+    }
+    
+    private static byte[] derive(char[] password, byte[] salt, int count) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, count, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StartupGraph runs initialization tasks in parallel, each starting as soon as the
+ * tasks it depends on have finished. Dependencies must be added before the tasks that
+ * use them, so the graph cannot contain a cycle. A task that fails fails everything
+ * depending on it.
+ */
+public class StartupGraph {
+    
+    /**
+     * Notified on the worker threads as tasks start and finish
+     */
+    public interface ProgressListener {
+        void taskStarted(String name, String description);
+        
+        void taskFinished(String name, int finishedTasks, int totalTasks);
+    }
+    
+    private static class Task {
+        private final String name;
+        private final String description;
+        private final Runnable work;
+        private final List<Task> dependencies;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile long durationNanos;
+        
+        Task(String name, String description, Runnable work, List<Task> dependencies) {
+            this.name = name;
+            this.description = description;
+            this.work = work;
+            this.dependencies = dependencies;
+        }
+    }
+    
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final AtomicInteger finishedTasks = new AtomicInteger();
+    private boolean started;
+    
+    /**
+     * Add a task
+     * @param name Unique name of the task
+     * @param description Shown while the task runs, e.g. "Loading movies..."
+     * @param work The work to do
+     * @param dependencies Names of tasks that must finish first (already added)
+     * @return This graph
+     */
+    public synchronized StartupGraph addTask(String name, String description, Runnable work, String... dependencies) {
+        if (started) {
+            throw new IllegalStateException("Startup has already begun");
+        }
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task: " + name);
+        }
+        
+        List<Task> required = new ArrayList<>();
+        for (String dependency : dependencies) {
+            required.add(getTask(dependency));
+        }
+        tasks.put(name, new Task(name, description, work, required));
+        return this;
+    }
+    
+    /**
+     * Start running the tasks. Does nothing if already started.
+     * @param executor Runs the tasks
+     * @param listener Notified of progress (may be null)
+     */
+    public synchronized void start(Executor executor, ProgressListener listener) {
+        if (started) return;
+        started = true;
+        
+        int totalTasks = tasks.size();
+        for (Task task : tasks.values()) {
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[task.dependencies.size()];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = task.dependencies.get(i).done;
+            }
+            
+            CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                if (listener != null) {
+                    listener.taskStarted(task.name, task.description);
+                }
+                long start = System.nanoTime();
+                task.work.run();
+                task.durationNanos = System.nanoTime() - start;
+            }, executor).whenComplete((result, error) -> {
+                if (error != null) {
+                    task.done.completeExceptionally(error);
+                    return;
+                }
+                task.done.complete(null);
+                if (listener != null) {
+                    listener.taskFinished(task.name, finishedTasks.incrementAndGet(), totalTasks);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Get a future that completes when the named tasks have finished
+     * @param names Task names
+     * @return Future for the tasks
+     */
+    public synchronized CompletableFuture<Void> whenDone(String... names) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            futures[i] = getTask(names[i]).done;
+        }
+        return CompletableFuture.allOf(futures);
+    }
+    
+    /**
+     * Get a future that completes when every task has finished
+     * @return Future for the whole graph
+     */
+    public synchronized CompletableFuture<Void> whenAllDone() {
+        return whenDone(tasks.keySet().toArray(new String[0]));
+    }
+    
+    /**
+     * Get how long each finished task took, in the order the tasks were added
+     * @return Task durations in milliseconds by name
+     */
+    public synchronized Map<String, Long> getTaskDurationsMillis() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (Task task : tasks.values()) {
+            if (task.done.isDone() && !task.done.isCompletedExceptionally()) {
+                durations.put(task.name, TimeUnit.NANOSECONDS.toMillis(task.durationNanos));
+            }
+        }
+        return Collections.unmodifiableMap(durations);
+    }
+    
+    private Task getTask(String name) {
+        Task task = tasks.get(name);
+        if (task == null) {
+            throw new IllegalArgumentException("Unknown startup task: " + name);
+        }
+        return task;
+    }
+}
@@ -137,4 +137,27 @@ public class UIHelper {
         
         return panel;
     }
+    
+    /**
+     * Escape text for use in an HTML label, so names containing markup are shown as typed
+     * @param text The text (null is shown as an empty string)
+     * @return The escaped text
+     */
+    public static String escapeHtml(String text) {
+        if (text == null) return "";
+        
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '"': escaped.append("&quot;"); break;
+                case '\'': escaped.append("&#39;"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
 }
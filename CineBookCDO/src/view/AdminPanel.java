@@ -1,22 +1,38 @@
 package view;
 
 import controller.AdminController;
+import controller.AsyncControllers;
+import controller.HallScheduleIndex;
+import controller.ProgrammeScheduler;
 import model.Booking;
 import model.Cinema;
 import model.Movie;
 import model.Seat;
 import model.Snack;
 import model.User;
+import utils.EdtWatchdog;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 
 /**
  * AdminPanel class for managing movies, schedules, and viewing booking logs
@@ -26,8 +42,11 @@ public class AdminPanel extends JPanel {
     private JPanel moviesPanel;
     private JPanel bookingsPanel;
     private JPanel reportsPanel;
+    private JPanel heatmapPanel;
+    private JPanel programmePanel;
     
     private AdminController adminController;
+    private AsyncControllers asyncControllers;
     private MainFrame parentFrame;
     private User adminUser;
     
@@ -50,10 +69,18 @@ public class AdminPanel extends JPanel {
     
     // Bookings tab components
     private JTable bookingsTable;
+    private BookingTableModel bookingTableModel;
+    private TableRowSorter<BookingTableModel> bookingSorter;
     private JTextArea bookingDetailsArea;
     
-    public AdminPanel(AdminController adminController, MainFrame parentFrame, User adminUser) {
+    // Reports tab components
+    private SwingWorker<Integer, String> reportWorker;
+    private JLabel reportCacheLabel;
+    
+    public AdminPanel(AdminController adminController, AsyncControllers asyncControllers,
+                      MainFrame parentFrame, User adminUser) {
         this.adminController = adminController;
+        this.asyncControllers = asyncControllers;
         this.parentFrame = parentFrame;
         this.adminUser = adminUser;
         
@@ -69,15 +96,33 @@ public class AdminPanel extends JPanel {
         createMoviesTab();
         createBookingsTab();
         createReportsTab();
+        createHeatmapTab();
+        createProgrammeTab();
         
         // Add tabs to tabbed pane
         tabbedPane.addTab("Movies & Schedules", moviesPanel);
         tabbedPane.addTab("Bookings", bookingsPanel);
         tabbedPane.addTab("Reports", reportsPanel);
+        tabbedPane.addTab("Seat Heatmap", heatmapPanel);
+        tabbedPane.addTab("Programme Planner", programmePanel);
+        tabbedPane.addTab("Diagnostics", new DiagnosticsPanel(EdtWatchdog.getShared()));
         
         add(tabbedPane, BorderLayout.CENTER);
     }
     
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        bookingTableModel.connect();
+    }
+    
+    @Override
+    public void removeNotify() {
+        // Stop following new bookings once the panel is no longer shown
+        bookingTableModel.disconnect();
+        super.removeNotify();
+    }
+    
     private void createHeader() {
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -423,30 +468,20 @@ public class AdminPanel extends JPanel {
         JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.setBorder(BorderFactory.createTitledBorder("All Bookings"));
         
-        // Create table model with bookings data
-        String[] columnNames = {"Confirmation", "User", "Movie", "Date", "Seats", "Total"};
-        List<Booking> bookings = adminController.getAllBookings();
-        Object[][] data = new Object[bookings.size()][columnNames.length];
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
-        
-        for (int i = 0; i < bookings.size(); i++) {
-            Booking booking = bookings.get(i);
-            data[i][0] = booking.getConfirmationCode();
-            data[i][1] = booking.getUser().getFullName();
-            data[i][2] = booking.getMovie().getTitle();
-            data[i][3] = booking.getSchedule().format(formatter);
-            data[i][4] = booking.getSelectedSeats().size();
-            data[i][5] = String.format("₱%.2f", booking.getTotalAmount());
-        }
+        // Table reads the booking store directly; rows are formatted only when painted
+        bookingTableModel = new BookingTableModel(adminController);
+        bookingSorter = new TableRowSorter<>(bookingTableModel);
         
-        bookingsTable = new JTable(data, columnNames);
+        bookingsTable = new JTable(bookingTableModel);
+        bookingsTable.setRowSorter(bookingSorter);
+        bookingsTable.setDefaultRenderer(LocalDateTime.class, new DateCellRenderer());
+        bookingsTable.setDefaultRenderer(Double.class, new CurrencyCellRenderer());
         bookingsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         bookingsTable.getSelectionModel().addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 int selectedRow = bookingsTable.getSelectedRow();
-                if (selectedRow >= 0 && selectedRow < bookings.size()) {
-                    displayBookingDetails(bookings.get(selectedRow));
+                if (selectedRow >= 0) {
+                    displayBookingDetails(bookingTableModel.getBooking(bookingsTable.convertRowIndexToModel(selectedRow)));
                 }
             }
         });
@@ -468,8 +503,14 @@ public class AdminPanel extends JPanel {
                 LocalDate date = LocalDate.parse(dateField.getText(), 
                     DateTimeFormatter.ofPattern("MM/dd/yyyy"));
                 
-                List<Booking> filteredBookings = adminController.getBookingsByDate(date);
-                updateBookingsTable(filteredBookings);
+                bookingSorter.setRowFilter(new RowFilter<BookingTableModel, Integer>() {
+                    @Override
+                    public boolean include(Entry<? extends BookingTableModel, ? extends Integer> entry) {
+                        Booking booking = entry.getModel().getBooking(entry.getIdentifier());
+                        return booking.getSchedule().toLocalDate().equals(date);
+                    }
+                });
+                bookingDetailsArea.setText("Select a booking to view details");
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(AdminPanel.this,
                     "Please enter a valid date in MM/dd/yyyy format",
@@ -480,7 +521,8 @@ public class AdminPanel extends JPanel {
         
         JButton showAllButton = new JButton("Show All");
         showAllButton.addActionListener(e -> {
-            updateBookingsTable(adminController.getAllBookings());
+            bookingSorter.setRowFilter(null);
+            bookingDetailsArea.setText("Select a booking to view details");
         });
         filterPanel.add(showAllButton);
         
@@ -527,6 +569,18 @@ public class AdminPanel extends JPanel {
         generateButton.setForeground(Color.WHITE);
         datePanel.add(generateButton);
         
+        JButton occupancyButton = new JButton("Occupancy Report");
+        datePanel.add(occupancyButton);
+        
+        JButton cancelReportButton = new JButton("Cancel");
+        cancelReportButton.setEnabled(false);
+        datePanel.add(cancelReportButton);
+        
+        JProgressBar reportProgressBar = new JProgressBar(0, 100);
+        reportProgressBar.setStringPainted(true);
+        reportProgressBar.setVisible(false);
+        datePanel.add(reportProgressBar);
+        
         reportsPanel.add(datePanel, BorderLayout.NORTH);
         
         // Main panel with report content
@@ -540,10 +594,15 @@ public class AdminPanel extends JPanel {
         reportContentPanel.add(reportScrollPane, BorderLayout.CENTER);
         
         // Export button
-        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JPanel exportPanel = new JPanel(new BorderLayout());
+        
+        reportCacheLabel = new JLabel(adminController.getReportCache().toString());
+        reportCacheLabel.setForeground(Color.GRAY);
+        exportPanel.add(reportCacheLabel, BorderLayout.WEST);
+        
         JButton exportButton = new JButton("Export to TXT");
         exportButton.setEnabled(false);
-        exportPanel.add(exportButton);
+        exportPanel.add(exportButton, BorderLayout.EAST);
         
         reportContentPanel.add(exportPanel, BorderLayout.SOUTH);
         
@@ -553,23 +612,60 @@ public class AdminPanel extends JPanel {
         generateButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                LocalDate fromDate;
+                LocalDate toDate;
                 try {
-                    LocalDate fromDate = LocalDate.parse(fromDateField.getText(), 
+                    fromDate = LocalDate.parse(fromDateField.getText(), 
                         DateTimeFormatter.ofPattern("MM/dd/yyyy"));
-                    LocalDate toDate = LocalDate.parse(toDateField.getText(), 
+                    toDate = LocalDate.parse(toDateField.getText(), 
                         DateTimeFormatter.ofPattern("MM/dd/yyyy"));
-                    
-                    // Generate report
-                    String report = adminController.generateSalesReport(fromDate, toDate);
-                    reportArea.setText(report);
-                    
-                    // Enable export button
-                    exportButton.setEnabled(true);
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(AdminPanel.this,
                         "Please enter valid dates in MM/dd/yyyy format",
                         "Invalid Date", JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
+                
+                // Generate report in the background
+                startReportWorker(fromDate, toDate, reportArea, generateButton, cancelReportButton,
+                    reportProgressBar, exportButton);
+            }
+        });
+        
+        occupancyButton.addActionListener(e -> {
+            LocalDate fromDate;
+            LocalDate toDate;
+            try {
+                fromDate = LocalDate.parse(fromDateField.getText(), 
+                    DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+                toDate = LocalDate.parse(toDateField.getText(), 
+                    DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(AdminPanel.this,
+                    "Please enter valid dates in MM/dd/yyyy format",
+                    "Invalid Date", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            occupancyButton.setEnabled(false);
+            asyncControllers.generateOccupancyReport(fromDate, toDate).whenComplete((report, error) -> {
+                occupancyButton.setEnabled(true);
+                if (error != null) {
+                    JOptionPane.showMessageDialog(AdminPanel.this,
+                        "Failed to generate occupancy report: " + error.getMessage(),
+                        "Report Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                reportArea.setText(report);
+                reportArea.setCaretPosition(0);
+                exportButton.setEnabled(true);
+            });
+        });
+        
+        cancelReportButton.addActionListener(e -> {
+            if (reportWorker != null) {
+                reportWorker.cancel(true);
             }
         });
         
@@ -605,6 +701,372 @@ public class AdminPanel extends JPanel {
         });
     }
     
+    /**
+     * Generate a sales report off the Event Dispatch Thread, appending each chunk to the
+     * report area as it arrives
+     */
+    private void startReportWorker(LocalDate fromDate, LocalDate toDate, JTextArea reportArea,
+                                   JButton generateButton, JButton cancelButton,
+                                   JProgressBar progressBar, JButton exportButton) {
+        reportArea.setText("");
+        exportButton.setEnabled(false);
+        generateButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        
+        // The last chunks can be processed after done() has run, so the report is only
+        // finished once both the whole text has arrived and done() knows its length
+        reportWorker = new SwingWorker<Integer, String>() {
+            private int insertedLength;
+            private int reportLength = -1;
+            
+            @Override
+            protected Integer doInBackground() {
+                int[] length = {0};
+                adminController.generateSalesReport(fromDate, toDate, (chunk, sectionsDone, sectionCount) -> {
+                    length[0] += chunk.length();
+                    publish(chunk);
+                    setProgress(sectionsDone * 100 / sectionCount);
+                });
+                return length[0];
+            }
+            
+            @Override
+            protected void process(List<String> chunks) {
+                if (isCancelled()) return;
+                
+                Document document = reportArea.getDocument();
+                try {
+                    for (String chunk : chunks) {
+                        document.insertString(document.getLength(), chunk, null);
+                        insertedLength += chunk.length();
+                    }
+                } catch (BadLocationException ex) {
+                    ex.printStackTrace();
+                }
+                finishIfComplete();
+            }
+            
+            private void finishIfComplete() {
+                if (reportLength < 0 || insertedLength < reportLength) return;
+                
+                reportLength = -1;
+                reportArea.setCaretPosition(0);
+                exportButton.setEnabled(true);
+            }
+            
+            @Override
+            protected void done() {
+                generateButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                progressBar.setVisible(false);
+                reportCacheLabel.setText(adminController.getReportCache().toString());
+                
+                if (isCancelled()) {
+                    reportArea.append("\n[Report generation cancelled]\n");
+                    return;
+                }
+                
+                try {
+                    reportLength = get();
+                    finishIfComplete();
+                } catch (InterruptedException | ExecutionException ex) {
+                    JOptionPane.showMessageDialog(AdminPanel.this,
+                        "Failed to generate report: " + ex.getMessage(),
+                        "Report Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        
+        reportWorker.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            }
+        });
+        
+        reportWorker.execute();
+    }
+    
+    private void createHeatmapTab() {
+        heatmapPanel = new JPanel(new BorderLayout(10, 10));
+        heatmapPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        // Top panel with cinema and date range selection
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        optionsPanel.setBorder(BorderFactory.createTitledBorder("Seat Popularity"));
+        
+        optionsPanel.add(new JLabel("Cinema:"));
+        JComboBox<Cinema> heatmapCinemaComboBox = new JComboBox<>(
+            adminController.getAllCinemas().toArray(new Cinema[0]));
+        optionsPanel.add(heatmapCinemaComboBox);
+        
+        optionsPanel.add(new JLabel("From:"));
+        JTextField fromDateField = new JTextField(10);
+        fromDateField.setText(LocalDate.now().minusDays(90).format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        optionsPanel.add(fromDateField);
+        
+        optionsPanel.add(new JLabel("To:"));
+        JTextField toDateField = new JTextField(10);
+        toDateField.setText(LocalDate.now().plusDays(7).format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        optionsPanel.add(toDateField);
+        
+        JButton computeButton = new JButton("Show Heatmap");
+        computeButton.setBackground(new Color(0, 123, 255));
+        computeButton.setForeground(Color.WHITE);
+        optionsPanel.add(computeButton);
+        
+        heatmapPanel.add(optionsPanel, BorderLayout.NORTH);
+        
+        SeatHeatmapPanel heatmap = new SeatHeatmapPanel();
+        JPanel heatmapContainer = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        heatmapContainer.setBackground(Color.WHITE);
+        heatmapContainer.add(heatmap);
+        heatmapPanel.add(new JScrollPane(heatmapContainer), BorderLayout.CENTER);
+        
+        JLabel heatmapStatusLabel = new JLabel("Select a cinema and date range, then click Show Heatmap");
+        heatmapPanel.add(heatmapStatusLabel, BorderLayout.SOUTH);
+        
+        computeButton.addActionListener(e -> {
+            Cinema cinema = (Cinema) heatmapCinemaComboBox.getSelectedItem();
+            if (cinema == null) return;
+            
+            LocalDate fromDate;
+            LocalDate toDate;
+            try {
+                fromDate = LocalDate.parse(fromDateField.getText(), 
+                    DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+                toDate = LocalDate.parse(toDateField.getText(), 
+                    DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(AdminPanel.this,
+                    "Please enter valid dates in MM/dd/yyyy format",
+                    "Invalid Date", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            computeButton.setEnabled(false);
+            long start = System.nanoTime();
+            asyncControllers.computeSeatHeatmap(cinema, fromDate, toDate).whenComplete((counts, error) -> {
+                computeButton.setEnabled(true);
+                if (error != null) {
+                    JOptionPane.showMessageDialog(AdminPanel.this,
+                        "Failed to compute heatmap: " + error.getMessage(),
+                        "Heatmap Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                heatmap.setHeatmap(cinema, counts);
+                
+                int unsold = 0;
+                for (int count : counts) {
+                    if (count == 0) unsold++;
+                }
+                heatmapStatusLabel.setText(cinema.getName() + ": " + unsold + " of " + counts.length +
+                    " seats never sold (computed in " + elapsedMillis + " ms)");
+            });
+        });
+    }
+    
+    private void createProgrammeTab() {
+        programmePanel = new JPanel(new BorderLayout(10, 10));
+        programmePanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        // Top panel with week, opening hours and cleaning buffer
+        JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        optionsPanel.setBorder(BorderFactory.createTitledBorder("Week Programme"));
+        
+        optionsPanel.add(new JLabel("Week starting:"));
+        JTextField weekStartField = new JTextField(10);
+        weekStartField.setText(LocalDate.now().plusDays(1).format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
+        optionsPanel.add(weekStartField);
+        
+        optionsPanel.add(new JLabel("Open (HH:MM):"));
+        JTextField openingField = new JTextField("10:00", 5);
+        optionsPanel.add(openingField);
+        
+        optionsPanel.add(new JLabel("Close (HH:MM):"));
+        JTextField closingField = new JTextField("00:30", 5);
+        optionsPanel.add(closingField);
+        
+        optionsPanel.add(new JLabel("Cleaning (min):"));
+        JTextField bufferField = new JTextField(String.valueOf(HallScheduleIndex.CLEANING_BUFFER_MINUTES), 4);
+        optionsPanel.add(bufferField);
+        
+        JButton generateButton = new JButton("Generate");
+        generateButton.setBackground(new Color(0, 123, 255));
+        generateButton.setForeground(Color.WHITE);
+        optionsPanel.add(generateButton);
+        
+        programmePanel.add(optionsPanel, BorderLayout.NORTH);
+        
+        // Movie priorities on the left, generated programme on the right.
+        // Row i of the weights table is the priority of movies.get(i).
+        List<Movie> movies = new ArrayList<>();
+        String[] columnNames = {"Movie", "Cinema", "Minutes", "Priority"};
+        javax.swing.table.DefaultTableModel weightsModel = new javax.swing.table.DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return column == 3;
+            }
+            
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 3 ? Double.class : super.getColumnClass(column);
+            }
+        };
+        JTable weightsTable = new JTable(weightsModel);
+        
+        // The planner schedules every movie in the catalog, so list the current ones each time
+        // the tab is shown, keeping the priorities already set for movies still listed
+        Runnable refreshWeights = () -> {
+            if (weightsTable.isEditing()) {
+                weightsTable.getCellEditor().stopCellEditing();
+            }
+            Map<Movie, Object> previous = new IdentityHashMap<>();
+            for (int i = 0; i < movies.size(); i++) {
+                previous.put(movies.get(i), weightsModel.getValueAt(i, 3));
+            }
+            
+            movies.clear();
+            movies.addAll(adminController.getAllMovies());
+            weightsModel.setRowCount(0);
+            for (Movie movie : movies) {
+                weightsModel.addRow(new Object[] {movie.getTitle(), movie.getCinema().getName(),
+                                                  movie.getDurationMinutes(), previous.getOrDefault(movie, 1.0)});
+            }
+        };
+        refreshWeights.run();
+        programmePanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentShown(ComponentEvent e) {
+                refreshWeights.run();
+            }
+        });
+        
+        JTextArea programmeArea = new JTextArea();
+        programmeArea.setEditable(false);
+        programmeArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+            new JScrollPane(weightsTable), new JScrollPane(programmeArea));
+        splitPane.setResizeWeight(0.4);
+        programmePanel.add(splitPane, BorderLayout.CENTER);
+        
+        // Bottom panel with status and apply
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        JLabel programmeStatusLabel = new JLabel("Set movie priorities (0 leaves a movie out), then click Generate");
+        bottomPanel.add(programmeStatusLabel, BorderLayout.CENTER);
+        
+        JButton applyButton = new JButton("Apply Programme");
+        applyButton.setBackground(new Color(40, 167, 69));
+        applyButton.setForeground(Color.WHITE);
+        applyButton.setEnabled(false);
+        bottomPanel.add(applyButton, BorderLayout.EAST);
+        programmePanel.add(bottomPanel, BorderLayout.SOUTH);
+        
+        ProgrammeScheduler.Programme[] generated = new ProgrammeScheduler.Programme[1];
+        
+        generateButton.addActionListener(e -> {
+            ProgrammeScheduler.ProgrammeRequest request;
+            try {
+                LocalDate weekStart = LocalDate.parse(weekStartField.getText(), 
+                    DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+                LocalTime opening = LocalTime.parse(openingField.getText(), DateTimeFormatter.ofPattern("HH:mm"));
+                LocalTime closing = LocalTime.parse(closingField.getText(), DateTimeFormatter.ofPattern("HH:mm"));
+                int buffer = Integer.parseInt(bufferField.getText().trim());
+                
+                request = new ProgrammeScheduler.ProgrammeRequest(weekStart, opening, closing, buffer);
+                if (weightsTable.isEditing()) {
+                    weightsTable.getCellEditor().stopCellEditing();
+                }
+                for (int i = 0; i < movies.size(); i++) {
+                    request.setWeight(movies.get(i), ((Number) weightsModel.getValueAt(i, 3)).doubleValue());
+                }
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(AdminPanel.this,
+                    "Please enter a valid date (MM/DD/YYYY), times (HH:MM) and buffer minutes",
+                    "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            generateButton.setEnabled(false);
+            applyButton.setEnabled(false);
+            programmeStatusLabel.setText("Planning...");
+            
+            asyncControllers.generateProgramme(request).whenComplete((programme, error) -> {
+                generateButton.setEnabled(true);
+                if (error != null) {
+                    programmeStatusLabel.setText("Planning failed");
+                    JOptionPane.showMessageDialog(AdminPanel.this,
+                        "Failed to generate programme: " + error.getMessage(),
+                        "Programme Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                generated[0] = programme;
+                programmeArea.setText(formatProgramme(programme.getShowings()));
+                programmeArea.setCaretPosition(0);
+                programmeStatusLabel.setText(programme.getShowings().size() + " showings planned, score " + 
+                    String.format("%.1f", programme.getScore()) + 
+                    " (computed in " + programme.getElapsedMillis() + " ms)");
+                applyButton.setEnabled(!programme.getShowings().isEmpty());
+            });
+        });
+        
+        applyButton.addActionListener(e -> {
+            if (generated[0] == null) return;
+            
+            List<HallScheduleIndex.ScheduleConflict> conflicts = 
+                adminController.applyProgramme(generated[0].getShowings());
+            applyButton.setEnabled(false);
+            
+            if (conflicts.isEmpty()) {
+                programmeStatusLabel.setText(generated[0].getShowings().size() + " showings added");
+                refreshMovieList();
+                JOptionPane.showMessageDialog(AdminPanel.this,
+                    "Programme applied successfully!",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                // The schedule changed since the programme was generated
+                JOptionPane.showMessageDialog(AdminPanel.this,
+                    conflicts.size() + " showing(s) now conflict with the schedule, e.g.\n" + conflicts.get(0) + 
+                    "\nPlease generate the programme again.",
+                    "Schedule Conflict", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+    
+    private String formatProgramme(List<HallScheduleIndex.Showing> showings) {
+        DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("EEE MMM d");
+        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+        
+        // Group by hall, then list in start order
+        Map<String, List<HallScheduleIndex.Showing>> byHall = new TreeMap<>();
+        for (HallScheduleIndex.Showing showing : showings) {
+            byHall.computeIfAbsent(showing.getCinema().getName(), k -> new ArrayList<>()).add(showing);
+        }
+        
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, List<HallScheduleIndex.Showing>> entry : byHall.entrySet()) {
+            text.append(entry.getKey()).append("\n");
+            entry.getValue().sort(Comparator.comparing(HallScheduleIndex.Showing::getStart));
+            
+            LocalDate day = null;
+            for (HallScheduleIndex.Showing showing : entry.getValue()) {
+                if (!showing.getStart().toLocalDate().equals(day)) {
+                    day = showing.getStart().toLocalDate();
+                    text.append("  ").append(day.format(dayFormatter)).append("\n");
+                }
+                text.append("    ").append(showing.getStart().format(timeFormatter))
+                    .append("  ").append(showing.getMovie().getTitle()).append("\n");
+            }
+            text.append("\n");
+        }
+        return text.toString();
+    }
+    
     private void displayMovieDetails(Movie movie) {
         // Fill form fields with movie details
         titleField.setText(movie.getTitle());
@@ -726,8 +1188,23 @@ public class AdminPanel extends JPanel {
                     
                     LocalDateTime newSchedule = LocalDateTime.of(date, time);
                     
+                    // The hall must be free for the movie plus cleaning time
+                    HallScheduleIndex.ScheduleConflict conflict = 
+                        adminController.getScheduleConflict(movie, newSchedule);
+                    if (conflict != null) {
+                        JOptionPane.showMessageDialog(AdminPanel.this,
+                            "The hall is not free at that time:\n" + conflict,
+                            "Schedule Conflict", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    
                     // Add schedule
-                    adminController.addSchedule(movie, newSchedule);
+                    if (!adminController.addSchedule(movie, newSchedule)) {
+                        JOptionPane.showMessageDialog(AdminPanel.this,
+                            "This schedule already exists",
+                            "Schedule Conflict", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
                     
                     // Refresh schedules
                     displaySchedules(movie);
@@ -746,6 +1223,53 @@ public class AdminPanel extends JPanel {
         
         schedulePanel.add(addScheduleButton);
         
+        // Check the week starting on the entered date for overlapping showings in any hall
+        JButton checkWeekButton = new JButton("Check Week for Conflicts");
+        checkWeekButton.setAlignmentX(Component.LEFT_ALIGNMENT);
+        checkWeekButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                LocalDate weekStart;
+                try {
+                    weekStart = LocalDate.parse(dateField.getText(), 
+                        DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+                } catch (Exception ex) {
+                    JOptionPane.showMessageDialog(AdminPanel.this,
+                        "Please enter a valid date (MM/DD/YYYY)",
+                        "Invalid Input", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                checkWeekButton.setEnabled(false);
+                asyncControllers.findWeekConflicts(weekStart).whenComplete((conflicts, error) -> {
+                    checkWeekButton.setEnabled(true);
+                    if (error != null) {
+                        JOptionPane.showMessageDialog(AdminPanel.this,
+                            "Failed to check the week: " + error.getMessage(),
+                            "Week Programme", JOptionPane.ERROR_MESSAGE);
+                    } else if (conflicts.isEmpty()) {
+                        JOptionPane.showMessageDialog(AdminPanel.this,
+                            "No overlapping showings in the week starting " + 
+                            weekStart.format(DateTimeFormatter.ofPattern("MMMM d, yyyy")),
+                            "Week Programme", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        StringBuilder message = new StringBuilder();
+                        message.append(conflicts.size()).append(" overlapping showing(s):\n\n");
+                        for (HallScheduleIndex.ScheduleConflict conflict : conflicts) {
+                            message.append(conflict).append("\n");
+                        }
+                        
+                        JTextArea conflictsArea = new JTextArea(message.toString(), 12, 60);
+                        conflictsArea.setEditable(false);
+                        JOptionPane.showMessageDialog(AdminPanel.this,
+                            new JScrollPane(conflictsArea),
+                            "Week Programme", JOptionPane.WARNING_MESSAGE);
+                    }
+                });
+            }
+        });
+        schedulePanel.add(checkWeekButton);
+        
         // Refresh the panel
         schedulePanel.revalidate();
         schedulePanel.repaint();
@@ -814,30 +1338,6 @@ public class AdminPanel extends JPanel {
         bookingDetailsArea.setCaretPosition(0); // Scroll to top
     }
     
-    private void updateBookingsTable(List<Booking> bookings) {
-        // Create table model with bookings data
-        String[] columnNames = {"Confirmation", "User", "Movie", "Date", "Seats", "Total"};
-        Object[][] data = new Object[bookings.size()][columnNames.length];
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
-        
-        for (int i = 0; i < bookings.size(); i++) {
-            Booking booking = bookings.get(i);
-            data[i][0] = booking.getConfirmationCode();
-            data[i][1] = booking.getUser().getFullName();
-            data[i][2] = booking.getMovie().getTitle();
-            data[i][3] = booking.getSchedule().format(formatter);
-            data[i][4] = booking.getSelectedSeats().size();
-            data[i][5] = String.format("₱%.2f", booking.getTotalAmount());
-        }
-        
-        // Replace table model
-        bookingsTable.setModel(new javax.swing.table.DefaultTableModel(data, columnNames));
-        
-        // Clear booking details
-        bookingDetailsArea.setText("Select a booking to view details");
-    }
-    
     private void clearMovieDetails() {
         // Clear form fields
         titleField.setText("");
@@ -873,4 +1373,30 @@ public class AdminPanel extends JPanel {
             movieListModel.addElement(movie);
         }
     }
+    
+    /**
+     * Formats booking dates as they are painted
+     */
+    private static class DateCellRenderer extends DefaultTableCellRenderer {
+        private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm");
+        
+        @Override
+        protected void setValue(Object value) {
+            setText(value == null ? "" : ((LocalDateTime) value).format(FORMATTER));
+        }
+    }
+    
+    /**
+     * Formats booking totals as they are painted
+     */
+    private static class CurrencyCellRenderer extends DefaultTableCellRenderer {
+        CurrencyCellRenderer() {
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+        
+        @Override
+        protected void setValue(Object value) {
+            setText(value == null ? "" : String.format("₱%.2f", (Double) value));
+        }
+    }
 }
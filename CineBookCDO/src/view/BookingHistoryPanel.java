@@ -0,0 +1,149 @@
+package view;
+
+import controller.AsyncControllers;
+import controller.BookingHistoryIndex;
+import model.Booking;
+import model.Seat;
+import model.User;
+import utils.UIHelper;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Panel listing a user's past bookings, newest first. Bookings are loaded a page at
+ * a time as the user scrolls towards the end of the list.
+ */
+public class BookingHistoryPanel extends JPanel {
+    private static final int PAGE_SIZE = 20;
+    
+    // Start loading the next page when this many rows are left below the visible area
+    private static final int PREFETCH_ROWS = 5;
+    
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy h:mm a");
+    
+    private AsyncControllers asyncControllers;
+    private MainFrame parentFrame;
+    private User currentUser;
+    
+    private DefaultListModel<Booking> historyModel;
+    private JList<Booking> historyList;
+    private JLabel statusLabel;
+    
+    // Paging state (only touched on the EDT)
+    private BookingHistoryIndex.Cursor nextCursor;
+    private boolean hasMore = true;
+    private boolean loading;
+    
+    public BookingHistoryPanel(AsyncControllers asyncControllers, MainFrame parentFrame, User currentUser) {
+        this.asyncControllers = asyncControllers;
+        this.parentFrame = parentFrame;
+        this.currentUser = currentUser;
+        
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        initComponents();
+        loadNextPage();
+    }
+    
+    private void initComponents() {
+        // Header with title and back button
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.add(UIHelper.createHeading("My Bookings", 24), BorderLayout.WEST);
+        
+        JButton backButton = UIHelper.createSecondaryButton("Back to Movies");
+        backButton.addActionListener(e -> parentFrame.closeBookingHistory());
+        headerPanel.add(backButton, BorderLayout.EAST);
+        add(headerPanel, BorderLayout.NORTH);
+        
+        // Rows have a fixed height, so the list never measures the bookings it has not shown
+        historyModel = new DefaultListModel<>();
+        historyList = new JList<>(historyModel);
+        historyList.setCellRenderer(new BookingRenderer());
+        historyList.setFixedCellHeight(56);
+        historyList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        
+        JScrollPane scrollPane = new JScrollPane(historyList);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getViewport().addChangeListener(e -> loadMoreIfNeeded());
+        add(scrollPane, BorderLayout.CENTER);
+        
+        statusLabel = new JLabel(" ");
+        statusLabel.setForeground(UIHelper.SECONDARY_COLOR);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+    
+    /**
+     * Load the next page once the user has scrolled close to the last loaded booking
+     */
+    private void loadMoreIfNeeded() {
+        // Until the list is on screen there is no scroll position to go by
+        if (loading || !hasMore || !historyList.isShowing()) return;
+        
+        if (historyList.getLastVisibleIndex() >= historyModel.size() - PREFETCH_ROWS) {
+            loadNextPage();
+        }
+    }
+    
+    private void loadNextPage() {
+        loading = true;
+        statusLabel.setText("Loading bookings...");
+        BookingHistoryIndex.Cursor after = nextCursor;
+        
+        asyncControllers.getBookingHistory(currentUser, after, PAGE_SIZE).whenComplete((page, error) -> {
+            loading = false;
+            if (error != null) {
+                statusLabel.setText("Could not load bookings: " + error.getMessage());
+                return;
+            }
+            
+            for (Booking booking : page.getBookings()) {
+                historyModel.addElement(booking);
+            }
+            nextCursor = page.getNextCursor();
+            hasMore = page.hasMore();
+            
+            if (historyModel.isEmpty()) {
+                statusLabel.setText("You have no bookings yet.");
+            } else {
+                statusLabel.setText(hasMore ? "Showing " + historyModel.size() + " bookings, scroll for more" :
+                                    "Showing all " + historyModel.size() + " bookings");
+            }
+            
+            // A short page may not fill the view, so check again
+            if (hasMore) {
+                SwingUtilities.invokeLater(() -> loadMoreIfNeeded());
+            }
+        });
+    }
+    
+    /**
+     * Renders a booking as two lines: movie and showing, then seats, total and confirmation code
+     */
+    private static class BookingRenderer extends DefaultListCellRenderer {
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            
+            Booking booking = (Booking) value;
+            StringBuilder seats = new StringBuilder();
+            for (Seat seat : booking.getSelectedSeats()) {
+                if (seats.length() > 0) seats.append(", ");
+                seats.append(seat.getSeatNumber());
+            }
+            
+            // Titles and names are entered by admins, so they are escaped rather than rendered as markup
+            setText("<html><b>" + UIHelper.escapeHtml(booking.getMovie().getTitle()) + "</b> &nbsp; " +
+                    booking.getSchedule().format(DATE_FORMATTER) + " &nbsp; " +
+                    UIHelper.escapeHtml(booking.getMovie().getCinema().getName()) + "<br>" +
+                    "Seats: " + UIHelper.escapeHtml(seats.toString()) +
+                    " &nbsp; Total: ₱" + String.format("%.2f", booking.getTotalAmount()) +
+                    " &nbsp; Code: " + UIHelper.escapeHtml(booking.getConfirmationCode()) + "</html>");
+            setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+            return this;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package view;
 
+import controller.AsyncControllers;
 import controller.BookingController;
 import model.Booking;
 import model.Movie;
@@ -24,6 +25,11 @@ public class BookingPanel extends JPanel {
     private JButton backButton;
     private JButton cancelButton;
     
+    private JLabel titleLabel;
+    private JLabel scheduleLabel;
+    private JLabel cinemaLabel;
+    private JLabel stepLabel;
+    
     private CardLayout cardLayout;
     private SeatSelectionPanel seatSelectionPanel;
     private SnackSelectionPanel snackSelectionPanel;
@@ -32,6 +38,7 @@ public class BookingPanel extends JPanel {
     
     private MainFrame parentFrame;
     private BookingController bookingController;
+    private AsyncControllers asyncControllers;
     private User currentUser;
     private Movie selectedMovie;
     private LocalDateTime selectedSchedule;
@@ -41,22 +48,54 @@ public class BookingPanel extends JPanel {
     private int currentStep = 0;
     private final String[] STEPS = {"Select Seats", "Add Snacks", "Payment", "Ticket Summary"};
     
-    public BookingPanel(MainFrame parentFrame, BookingController bookingController, 
-                        User currentUser, Movie selectedMovie, LocalDateTime selectedSchedule) {
+    private static final DateTimeFormatter SCHEDULE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy 'at' h:mm a");
+    
+    /**
+     * Create the panel and its step panels. The panel is reused for each booking;
+     * call startBooking before showing it.
+     */
+    public BookingPanel(MainFrame parentFrame, BookingController bookingController,
+                        AsyncControllers asyncControllers) {
         this.parentFrame = parentFrame;
         this.bookingController = bookingController;
-        this.currentUser = currentUser;
-        this.selectedMovie = selectedMovie;
-        this.selectedSchedule = selectedSchedule;
+        this.asyncControllers = asyncControllers;
         
         setLayout(new BorderLayout(0, 10));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
+        // Initialize UI components
+        initComponents();
+    }
+    
+    /**
+     * Start a new booking, resetting every step
+     * @param currentUser The user making the booking
+     * @param selectedMovie The selected movie
+     * @param selectedSchedule The selected schedule
+     */
+    public void startBooking(User currentUser, Movie selectedMovie, LocalDateTime selectedSchedule) {
+        this.currentUser = currentUser;
+        this.selectedMovie = selectedMovie;
+        this.selectedSchedule = selectedSchedule;
+        
         // Initialize the booking
         this.currentBooking = bookingController.createBooking(currentUser, selectedMovie, selectedSchedule);
         
-        // Initialize UI components
-        initComponents();
+        titleLabel.setText(selectedMovie.getTitle());
+        scheduleLabel.setText(selectedSchedule.format(SCHEDULE_FORMATTER));
+        cinemaLabel.setText(selectedMovie.getCinema().getName());
+        
+        seatSelectionPanel.setBooking(currentBooking);
+        snackSelectionPanel.setBooking(currentBooking);
+        paymentPanel.setBooking(currentBooking);
+        ticketSummaryPanel.setBooking(currentBooking);
+        
+        // Back to the first step
+        currentStep = 0;
+        updateStepUI();
+        setNavigationEnabled(true);
+        nextButton.setText("Next");
+        cardLayout.show(contentPanel, STEPS[0]);
     }
     
     private void initComponents() {
@@ -70,22 +109,21 @@ public class BookingPanel extends JPanel {
         // Movie title and schedule
         JPanel movieInfoPanel = new JPanel(new GridLayout(3, 1));
         
-        JLabel titleLabel = new JLabel(selectedMovie.getTitle());
+        titleLabel = new JLabel(" ");
         titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
         movieInfoPanel.add(titleLabel);
         
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy 'at' h:mm a");
-        JLabel scheduleLabel = new JLabel(selectedSchedule.format(formatter));
+        scheduleLabel = new JLabel(" ");
         movieInfoPanel.add(scheduleLabel);
         
-        JLabel cinemaLabel = new JLabel(selectedMovie.getCinema().getName());
+        cinemaLabel = new JLabel(" ");
         movieInfoPanel.add(cinemaLabel);
         
         headerPanel.add(movieInfoPanel, BorderLayout.WEST);
         
         // Step indicator
         JPanel stepPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        JLabel stepLabel = new JLabel("Step 1 of " + STEPS.length + ": " + STEPS[0]);
+        stepLabel = new JLabel("Step 1 of " + STEPS.length + ": " + STEPS[0]);
         stepPanel.add(stepLabel);
         headerPanel.add(stepPanel, BorderLayout.EAST);
         
@@ -97,10 +135,10 @@ public class BookingPanel extends JPanel {
         contentPanel.setLayout(cardLayout);
         
         // Initialize all step panels
-        seatSelectionPanel = new SeatSelectionPanel(bookingController, currentBooking);
-        snackSelectionPanel = new SnackSelectionPanel(bookingController, currentBooking);
-        paymentPanel = new PaymentPanel(bookingController, currentBooking);
-        ticketSummaryPanel = new TicketSummaryPanel(currentBooking);
+        seatSelectionPanel = new SeatSelectionPanel(asyncControllers);
+        snackSelectionPanel = new SnackSelectionPanel(bookingController);
+        paymentPanel = new PaymentPanel(asyncControllers);
+        ticketSummaryPanel = new TicketSummaryPanel();
         
         // Add all panels to card layout
         contentPanel.add(seatSelectionPanel, STEPS[0]);
@@ -160,23 +198,72 @@ public class BookingPanel extends JPanel {
                 );
                 
                 if (choice == JOptionPane.YES_OPTION) {
-                    // Cancel booking and return to movie listing
-                    bookingController.cancelBooking(currentBooking);
-                    parentFrame.showMovieListingPanel();
+                    cancelBooking();
                 }
             }
         });
     }
     
+    // Cancel the booking and return to the movie listing, voiding the payment first if it was made
+    private void cancelBooking() {
+        if (!currentBooking.isPaid()) {
+            bookingController.cancelBooking(currentBooking);
+            parentFrame.showMovieListingPanel();
+            return;
+        }
+        
+        Booking booking = currentBooking;
+        setNavigationEnabled(false);
+        asyncControllers.voidPayment(booking).whenComplete((result, error) -> {
+            setNavigationEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this,
+                    "Your payment could not be refunded, so the booking was kept.\n" +
+                    "Please try cancelling again.",
+                    "Cancellation Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            booking.setPaid(false);
+            bookingController.cancelBooking(booking);
+            if (booking == currentBooking) {
+                parentFrame.showMovieListingPanel();
+            }
+        });
+    }
+    
     private void nextStep() {
         // Validate current step before proceeding
         if (!validateCurrentStep()) {
             return;
         }
         
+        // Payment is authorized in the background; move on once it is approved
+        if (currentStep == 2 && !currentBooking.isPaid()) {
+            setNavigationEnabled(false);
+            paymentPanel.processPayment(approved -> {
+                setNavigationEnabled(true);
+                if (approved) {
+                    advanceStep();
+                }
+            });
+            return;
+        }
+        
+        advanceStep();
+    }
+    
+    private void advanceStep() {
         if (currentStep < STEPS.length - 1) {
             currentStep++;
             updateStepUI();
+            
+            // The seats and snacks may have changed since the summary was last shown
+            if (currentStep == 2) {
+                paymentPanel.updateOrderSummary();
+            } else if (currentStep == STEPS.length - 1) {
+                ticketSummaryPanel.updateTicketInfo();
+            }
             cardLayout.show(contentPanel, STEPS[currentStep]);
             
             // Update button text for last step
@@ -190,7 +277,7 @@ public class BookingPanel extends JPanel {
     }
     
     private void previousStep() {
-        if (currentStep > 0) {
+        if (canGoBack()) {
             currentStep--;
             updateStepUI();
             cardLayout.show(contentPanel, STEPS[currentStep]);
@@ -198,13 +285,24 @@ public class BookingPanel extends JPanel {
         }
     }
     
+    private void setNavigationEnabled(boolean enabled) {
+        nextButton.setEnabled(enabled);
+        cancelButton.setEnabled(enabled);
+        backButton.setEnabled(enabled && canGoBack());
+    }
+    
+    // Once paid, the seats and snacks are locked: changing them would change the total
+    // after the payment was authorized
+    private boolean canGoBack() {
+        return currentStep > 0 && !currentBooking.isPaid();
+    }
+    
     private void updateStepUI() {
         // Update the step indicator in the header
-        JLabel stepLabel = (JLabel) ((JPanel) headerPanel.getComponent(1)).getComponent(0);
         stepLabel.setText("Step " + (currentStep + 1) + " of " + STEPS.length + ": " + STEPS[currentStep]);
         
         // Enable/disable back button based on current step
-        backButton.setEnabled(currentStep > 0);
+        backButton.setEnabled(canGoBack());
     }
     
     private boolean validateCurrentStep() {
@@ -236,17 +334,6 @@ public class BookingPanel extends JPanel {
                         "Payment Required", JOptionPane.WARNING_MESSAGE);
                     return false;
                 }
-                
-                // Process the payment
-                if (!paymentPanel.processPayment()) {
-                    JOptionPane.showMessageDialog(this,
-                        "Payment processing failed. Please try again.",
-                        "Payment Error", JOptionPane.ERROR_MESSAGE);
-                    return false;
-                }
-                
-                // If payment was successful, update the booking receipt
-                ticketSummaryPanel.updateTicketInfo();
                 return true;
                 
             default:
@@ -270,7 +357,7 @@ public class BookingPanel extends JPanel {
             System.out.println("To: " + currentUser.getEmail());
             System.out.println("Subject: Your CineBook CDO Ticket Confirmation - " + currentBooking.getConfirmationCode());
             System.out.println("Movie: " + selectedMovie.getTitle());
-            System.out.println("Schedule: " + selectedSchedule.format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy 'at' h:mm a")));
+            System.out.println("Schedule: " + selectedSchedule.format(SCHEDULE_FORMATTER));
             System.out.println("Cinema: " + selectedMovie.getCinema().getName());
             System.out.println("Seats: " + currentBooking.getSelectedSeats().size() + " seat(s)");
             System.out.println("Total Amount: ₱" + String.format("%.2f", currentBooking.getTotalAmount()));
@@ -0,0 +1,146 @@
+package view;
+
+import controller.AdminController;
+import controller.BookingController;
+import model.Booking;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table model for the admin bookings tab. Each row is a booking from the booking store,
+ * and cells are read only when the table paints them, with dates and amounts left to
+ * the renderers to format. While connected, bookings are added and removed as they
+ * are made and cancelled. A removed booking's row is filled with the last row, so
+ * removal takes constant time; the table's sorter decides the order shown.
+ */
+public class BookingTableModel extends AbstractTableModel implements BookingController.BookingListener {
+    private static final String[] COLUMN_NAMES = {"Confirmation", "User", "Movie", "Date", "Seats", "Total"};
+    private static final Class<?>[] COLUMN_CLASSES = {
+        String.class, String.class, String.class, LocalDateTime.class, Integer.class, Double.class
+    };
+    
+    private AdminController adminController;
+    private List<Booking> bookings = new ArrayList<>();
+    private Map<Booking, Integer> rows = new IdentityHashMap<>();
+    private boolean connected;
+    
+    public BookingTableModel(AdminController adminController) {
+        this.adminController = adminController;
+    }
+    
+    /**
+     * Load the current bookings and start following changes to the booking store
+     */
+    public void connect() {
+        if (connected) return;
+        connected = true;
+        
+        // Listen before taking the snapshot so no booking made in between is missed;
+        // events for bookings already in the snapshot are ignored
+        adminController.addBookingListener(this);
+        bookings = new ArrayList<>(adminController.getAllBookings());
+        rows = new IdentityHashMap<>(bookings.size() * 2);
+        for (int row = 0; row < bookings.size(); row++) {
+            rows.put(bookings.get(row), row);
+        }
+        fireTableDataChanged();
+    }
+    
+    /**
+     * Stop following the booking store, e.g. while the panel is not shown
+     */
+    public void disconnect() {
+        if (!connected) return;
+        connected = false;
+        adminController.removeBookingListener(this);
+    }
+    
+    /**
+     * Get the booking shown in a row
+     * @param row Row index in the model (not the view)
+     * @return The booking
+     */
+    public Booking getBooking(int row) {
+        return bookings.get(row);
+    }
+    
+    @Override
+    public int getRowCount() {
+        return bookings.size();
+    }
+    
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+    
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+    
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+    
+    @Override
+    public Object getValueAt(int row, int column) {
+        Booking booking = bookings.get(row);
+        switch (column) {
+            case 0: return booking.getConfirmationCode();
+            case 1: return booking.getUser().getFullName();
+            case 2: return booking.getMovie().getTitle();
+            case 3: return booking.getSchedule();
+            case 4: return booking.getSeatCount();
+            case 5: return booking.getTotalAmount();
+            default: return null;
+        }
+    }
+    
+    @Override
+    public void bookingAdded(Booking booking) {
+        runOnEdt(() -> {
+            if (!connected || rows.containsKey(booking)) return;
+            int row = bookings.size();
+            bookings.add(booking);
+            rows.put(booking, row);
+            fireTableRowsInserted(row, row);
+        });
+    }
+    
+    @Override
+    public void bookingRemoved(Booking booking) {
+        runOnEdt(() -> {
+            Integer row = connected ? rows.remove(booking) : null;
+            if (row == null) return;
+            
+            // Move the last booking into the removed row rather than shifting every row after it
+            // (the model stays consistent with each event, as the sorter reads it while handling them)
+            int last = bookings.size() - 1;
+            if (row != last) {
+                Booking moved = bookings.get(last);
+                bookings.set(row, moved);
+                rows.put(moved, row);
+                fireTableRowsUpdated(row, row);
+            }
+            bookings.remove(last);
+            fireTableRowsDeleted(last, last);
+        });
+    }
+    
+    // Bookings may be finalized off the Event Dispatch Thread, but the table must only change on it
+    private static void runOnEdt(Runnable task) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            task.run();
+        } else {
+            SwingUtilities.invokeLater(task);
+        }
+    }
+}
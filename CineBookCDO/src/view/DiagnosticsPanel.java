@@ -0,0 +1,178 @@
+package view;
+
+import utils.EdtWatchdog;
+
+import javax.swing.*;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Admin view of Event Dispatch Thread stalls caught by the EdtWatchdog: a histogram of
+ * stall durations, the most recent stalls, and the stack the EDT was stuck in.
+ */
+public class DiagnosticsPanel extends JPanel {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("MMM d, HH:mm:ss");
+    
+    private EdtWatchdog watchdog;
+    
+    private JLabel summaryLabel;
+    private DefaultTableModel histogramModel;
+    private DefaultListModel<EdtWatchdog.Stall> stallListModel;
+    private JList<EdtWatchdog.Stall> stallList;
+    private JTextArea stackArea;
+    
+    // Refreshes the view after each stall
+    private EdtWatchdog.StallListener stallListener = new EdtWatchdog.StallListener() {
+        @Override
+        public void stallRecorded(EdtWatchdog.Stall stall) {
+            SwingUtilities.invokeLater(() -> refresh());
+        }
+    };
+    
+    public DiagnosticsPanel(EdtWatchdog watchdog) {
+        this.watchdog = watchdog;
+        
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        initComponents();
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        watchdog.addStallListener(stallListener);
+        refresh();
+    }
+    
+    @Override
+    public void removeNotify() {
+        watchdog.removeStallListener(stallListener);
+        super.removeNotify();
+    }
+    
+    private void initComponents() {
+        // Summary and refresh
+        JPanel topPanel = new JPanel(new BorderLayout());
+        summaryLabel = new JLabel();
+        topPanel.add(summaryLabel, BorderLayout.CENTER);
+        
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                refresh();
+            }
+        });
+        topPanel.add(refreshButton, BorderLayout.EAST);
+        add(topPanel, BorderLayout.NORTH);
+        
+        // Histogram of stall durations
+        histogramModel = new DefaultTableModel(new Object[]{"Stall Duration", "Stalls"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        long[] bounds = EdtWatchdog.getBucketBoundsMillis();
+        long lower = watchdog.getThresholdMillis();
+        for (long bound : bounds) {
+            histogramModel.addRow(new Object[]{lower + " - " + bound + " ms", 0L});
+            lower = bound;
+        }
+        histogramModel.addRow(new Object[]{lower + " ms or more", 0L});
+        
+        JTable histogramTable = new JTable(histogramModel);
+        JScrollPane histogramScrollPane = new JScrollPane(histogramTable);
+        histogramScrollPane.setBorder(BorderFactory.createTitledBorder("Stall Durations"));
+        histogramScrollPane.setPreferredSize(new Dimension(260, 0));
+        add(histogramScrollPane, BorderLayout.WEST);
+        
+        // Recent stalls and the stack of the selected one
+        stallListModel = new DefaultListModel<>();
+        stallList = new JList<>(stallListModel);
+        stallList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        stallList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                EdtWatchdog.Stall stall = (EdtWatchdog.Stall) value;
+                setText(stall.getStartTime().format(TIME_FORMATTER) + "  (" + stall.getDurationMillis() + " ms)");
+                return this;
+            }
+        });
+        stallList.addListSelectionListener(new ListSelectionListener() {
+            @Override
+            public void valueChanged(ListSelectionEvent e) {
+                if (!e.getValueIsAdjusting()) {
+                    showStack(stallList.getSelectedValue());
+                }
+            }
+        });
+        
+        JScrollPane stallScrollPane = new JScrollPane(stallList);
+        stallScrollPane.setBorder(BorderFactory.createTitledBorder("Recent Stalls"));
+        
+        stackArea = new JTextArea();
+        stackArea.setEditable(false);
+        stackArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JScrollPane stackScrollPane = new JScrollPane(stackArea);
+        stackScrollPane.setBorder(BorderFactory.createTitledBorder("Event Dispatch Thread Stack"));
+        
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, stallScrollPane, stackScrollPane);
+        splitPane.setResizeWeight(0.35);
+        add(splitPane, BorderLayout.CENTER);
+        
+        if (watchdog.getLogFile() != null) {
+            add(new JLabel("Stalls are also logged to " + watchdog.getLogFile().toAbsolutePath()), BorderLayout.SOUTH);
+        }
+    }
+    
+    private void refresh() {
+        EdtWatchdog.Statistics statistics = watchdog.getStatistics();
+        summaryLabel.setText("Heartbeats: " + statistics.getHeartbeats() +
+            "   Stalls over " + watchdog.getThresholdMillis() + " ms: " + statistics.getStallCount() +
+            "   Longest: " + statistics.getLongestMillis() + " ms");
+        
+        long[] counts = statistics.getBucketCounts();
+        for (int i = 0; i < counts.length; i++) {
+            histogramModel.setValueAt(counts[i], i, 1);
+        }
+        
+        // Keep the selected stall selected if it is still listed
+        EdtWatchdog.Stall selected = stallList.getSelectedValue();
+        List<EdtWatchdog.Stall> stalls = watchdog.getRecentStalls();
+        stallListModel.clear();
+        for (EdtWatchdog.Stall stall : stalls) {
+            stallListModel.addElement(stall);
+        }
+        if (selected != null && stalls.contains(selected)) {
+            stallList.setSelectedValue(selected, false);
+        } else if (!stalls.isEmpty()) {
+            stallList.setSelectedIndex(0);
+        } else {
+            showStack(null);
+        }
+    }
+    
+    private void showStack(EdtWatchdog.Stall stall) {
+        if (stall == null) {
+            stackArea.setText("");
+            return;
+        }
+        
+        StringBuilder text = new StringBuilder();
+        for (StackTraceElement element : stall.getStackTrace()) {
+            text.append("at ").append(element).append('\n');
+        }
+        stackArea.setText(text.toString());
+        stackArea.setCaretPosition(0);
+    }
+}
@@ -1,13 +1,13 @@
 package view;
 
-import controller.UserController;
-import model.User;
+import controller.AsyncControllers;
 import utils.UIHelper;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Panel for user login and registration
@@ -26,11 +26,11 @@ public class LoginPanel extends JPanel {
     private CardLayout cardLayout;
     private JPanel cardPanel;
     
-    private UserController userController;
+    private AsyncControllers asyncControllers;
     private MainFrame parentFrame;
     
-    public LoginPanel(UserController userController, MainFrame parentFrame) {
-        this.userController = userController;
+    public LoginPanel(AsyncControllers asyncControllers, MainFrame parentFrame) {
+        this.asyncControllers = asyncControllers;
         this.parentFrame = parentFrame;
         
         setLayout(new BorderLayout(10, 10));
@@ -218,30 +218,37 @@ public class LoginPanel extends JPanel {
             @Override
             public void actionPerformed(ActionEvent e) {
                 String username = usernameField.getText();
-                String password = new String(passwordField.getPassword());
+                char[] password = passwordField.getPassword();
                 
-                if (username.isEmpty() || password.isEmpty()) {
+                if (username.isEmpty() || password.length == 0) {
                     JOptionPane.showMessageDialog(LoginPanel.this, 
                         "Please enter both username and password", 
                         "Login Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 
-                User user = userController.login(username, password);
-                if (user != null) {
-                    if (user.isAdmin()) {
-                        // Show admin panel
-                        parentFrame.showAdminPanel(user);
+                // Verifying the password hash is slow, so it runs on the authentication workers
+                setBusy(true);
+                asyncControllers.login(username, password).whenComplete((user, error) -> {
+                    setBusy(false);
+                    if (error != null) {
+                        showAuthError(error, "Login Failed");
+                    } else if (user != null) {
+                        passwordField.setText("");
+                        if (user.isAdmin()) {
+                            // Show admin panel
+                            parentFrame.showAdminPanel(user);
+                        } else {
+                            // Show movie listing
+                            parentFrame.setLoggedInUser(user);
+                            parentFrame.showMovieListingPanel();
+                        }
                     } else {
-                        // Show movie listing
-                        parentFrame.setLoggedInUser(user);
-                        parentFrame.showMovieListingPanel();
+                        JOptionPane.showMessageDialog(LoginPanel.this, 
+                            "Invalid username or password", 
+                            "Login Failed", JOptionPane.ERROR_MESSAGE);
                     }
-                } else {
-                    JOptionPane.showMessageDialog(LoginPanel.this, 
-                        "Invalid username or password", 
-                        "Login Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                });
             }
         });
         
@@ -256,14 +263,19 @@ public class LoginPanel extends JPanel {
                         "Enter admin password:", "Admin Login", JOptionPane.PLAIN_MESSAGE);
                     
                     if (password != null && !password.isEmpty()) {
-                        User admin = userController.login(username, password);
-                        if (admin != null && admin.isAdmin()) {
-                            parentFrame.showAdminPanel(admin);
-                        } else {
-                            JOptionPane.showMessageDialog(LoginPanel.this, 
-                                "Invalid admin credentials", 
-                                "Login Failed", JOptionPane.ERROR_MESSAGE);
-                        }
+                        setBusy(true);
+                        asyncControllers.login(username, password.toCharArray()).whenComplete((admin, error) -> {
+                            setBusy(false);
+                            if (error != null) {
+                                showAuthError(error, "Login Failed");
+                            } else if (admin != null && admin.isAdmin()) {
+                                parentFrame.showAdminPanel(admin);
+                            } else {
+                                JOptionPane.showMessageDialog(LoginPanel.this, 
+                                    "Invalid admin credentials", 
+                                    "Login Failed", JOptionPane.ERROR_MESSAGE);
+                            }
+                        });
                     }
                 }
             }
@@ -299,12 +311,17 @@ public class LoginPanel extends JPanel {
                         return;
                     }
                     
-                    // Create guest user
-                    User guestUser = userController.createGuestUser(name, email, phone);
-                    
-                    // Continue to movie listing
-                    parentFrame.setLoggedInUser(guestUser);
-                    parentFrame.showMovieListingPanel();
+                    // Create guest user, then continue to movie listing
+                    setBusy(true);
+                    asyncControllers.createGuestUser(name, email, phone).whenComplete((guestUser, error) -> {
+                        setBusy(false);
+                        if (error != null) {
+                            showAuthError(error, "Guest Checkout Failed");
+                        } else {
+                            parentFrame.setLoggedInUser(guestUser);
+                            parentFrame.showMovieListingPanel();
+                        }
+                    });
                 }
             }
         });
@@ -316,33 +333,38 @@ public class LoginPanel extends JPanel {
                 String email = emailField.getText();
                 String phone = phoneField.getText();
                 String username = regUsernameField.getText();
-                String password = new String(regPasswordField.getPassword());
+                char[] password = regPasswordField.getPassword();
                 
                 if (name.isEmpty() || email.isEmpty() || phone.isEmpty() || 
-                    username.isEmpty() || password.isEmpty()) {
+                    username.isEmpty() || password.length == 0) {
                     JOptionPane.showMessageDialog(LoginPanel.this, 
                         "Please fill in all fields", "Registration Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 
-                User newUser = userController.registerUser(username, password, name, email, phone);
-                if (newUser != null) {
-                    JOptionPane.showMessageDialog(LoginPanel.this, 
-                        "Registration successful! Please login.", 
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                    
-                    // Clear fields and switch to login panel
-                    nameField.setText("");
-                    emailField.setText("");
-                    phoneField.setText("");
-                    regUsernameField.setText("");
-                    regPasswordField.setText("");
-                    cardLayout.show(cardPanel, "login");
-                } else {
-                    JOptionPane.showMessageDialog(LoginPanel.this, 
-                        "Username already exists. Please choose another username.", 
-                        "Registration Failed", JOptionPane.ERROR_MESSAGE);
-                }
+                setBusy(true);
+                asyncControllers.registerUser(username, password, name, email, phone).whenComplete((newUser, error) -> {
+                    setBusy(false);
+                    if (error != null) {
+                        showAuthError(error, "Registration Failed");
+                    } else if (newUser != null) {
+                        JOptionPane.showMessageDialog(LoginPanel.this, 
+                            "Registration successful! Please login.", 
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                        
+                        // Clear fields and switch to login panel
+                        nameField.setText("");
+                        emailField.setText("");
+                        phoneField.setText("");
+                        regUsernameField.setText("");
+                        regPasswordField.setText("");
+                        cardLayout.show(cardPanel, "login");
+                    } else {
+                        JOptionPane.showMessageDialog(LoginPanel.this, 
+                            "Username already exists. Please choose another username.", 
+                            "Registration Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             }
         });
         
@@ -360,4 +382,22 @@ public class LoginPanel extends JPanel {
             }
         });
     }
+    
+    /**
+     * Disable the sign-in buttons while a login or registration is being checked
+     * @param busy true while waiting for the result
+     */
+    private void setBusy(boolean busy) {
+        loginButton.setEnabled(!busy);
+        registerButton.setEnabled(!busy);
+        guestButton.setEnabled(!busy);
+        setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+    
+    private void showAuthError(Throwable error, String title) {
+        String message = error instanceof RejectedExecutionException ? 
+            "Too many sign-ins at the moment. Please try again shortly." : 
+            "Could not complete the request: " + error.getMessage();
+        JOptionPane.showMessageDialog(this, message, title, JOptionPane.ERROR_MESSAGE);
+    }
 }
@@ -1,24 +1,35 @@
 package view;
 
 import controller.AdminController;
+import controller.AsyncControllers;
 import controller.BookingController;
 import controller.MovieController;
 import controller.UserController;
 import model.Movie;
 import model.User;
+import utils.DataInitializer;
 import utils.UIHelper;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * MainFrame is the main window of the application
  * It manages all panels and handles navigation between them
  */
 public class MainFrame extends JFrame {
+    // How long the UI must be idle before the next screen is built in advance
+    private static final int PREWARM_DELAY_MILLIS = 500;
+    
+    // Startup and navigation times are printed when run with -Dcinebook.debug=true
+    private static final boolean DEBUG = Boolean.getBoolean("cinebook.debug");
+    
     private CardLayout cardLayout;
     private JPanel cardPanel;
     
@@ -28,21 +39,35 @@ public class MainFrame extends JFrame {
     private BookingController bookingController;
     private AdminController adminController;
     
+    // Runs controller work off the Event Dispatch Thread for the panels
+    private AsyncControllers asyncControllers;
+    
     // Panels
     private SplashScreen splashScreen;
     private LoginPanel loginPanel;
     private MovieListingPanel movieListingPanel;
     private AdminPanel adminPanel;
+    private BookingHistoryPanel bookingHistoryPanel;
+    private BookingPanel bookingPanel;
+    
+    // Users the cached panels were built for
+    private User movieListingUser;
+    private User adminPanelUser;
+    
+    // Builds the booking panel once the event queue is idle
+    private Timer prewarmTimer;
     
     // Currently logged in user
     private User loggedInUser;
     
+    // Startup timing, and a screen waiting for the remaining data to load
+    private long createdNanos;
+    private boolean startupComplete;
+    private String startupError;
+    private Runnable pendingNavigation;
+    
     public MainFrame() {
-        // Initialize controllers
-        userController = new UserController();
-        movieController = new MovieController();
-        bookingController = new BookingController();
-        adminController = new AdminController();
+        createdNanos = System.nanoTime();
         
         // Set up the frame
         setTitle("CineBook CDO");
@@ -72,15 +97,95 @@ public class MainFrame extends JFrame {
     }
     
     /**
-     * Initialize all panels after data is loaded
+     * Open the login screen once user accounts are loaded; the rest of the data may still be loading
      */
     public void initializeApplication() {
+        // Use the controllers holding the loaded data
+        userController = DataInitializer.getUserController();
+        movieController = DataInitializer.getMovieController();
+        bookingController = DataInitializer.getBookingController();
+        adminController = DataInitializer.getAdminController();
+        asyncControllers = new AsyncControllers(userController, movieController, bookingController,
+                                                adminController, SwingUtilities::invokeLater);
+        
         // Create login panel
-        loginPanel = new LoginPanel(userController, this);
+        loginPanel = new LoginPanel(asyncControllers, this);
         cardPanel.add(loginPanel, "login");
         
         // Show login panel
         cardLayout.show(cardPanel, "login");
+        
+        // Time to interactive: the login screen has been laid out and can be painted
+        if (DEBUG) {
+            SwingUtilities.invokeLater(() -> System.out.println("Login screen ready " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos) + " ms after the window was created (" +
+                ManagementFactory.getRuntimeMXBean().getUptime() + " ms after launch)"));
+        }
+    }
+    
+    /**
+     * Called once all startup tasks have finished
+     * @param taskDurations How long each startup task took, in milliseconds
+     */
+    public void startupCompleted(Map<String, Long> taskDurations) {
+        startupComplete = true;
+        if (DEBUG) {
+            System.out.println("Startup finished " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos) +
+                " ms after the window was created; task times (ms): " + taskDurations);
+        }
+        
+        if (pendingNavigation != null) {
+            Runnable navigation = pendingNavigation;
+            pendingNavigation = null;
+            navigation.run();
+        }
+    }
+    
+    /**
+     * Called if a startup task fails. A screen waiting for the data is abandoned and,
+     * if user accounts were loaded, the login screen is shown again.
+     * @param message What went wrong
+     */
+    public void startupFailed(String message) {
+        startupError = message;
+        pendingNavigation = null;
+        
+        if (loginPanel != null) {
+            loggedInUser = null;
+            cardLayout.show(cardPanel, "login");
+        }
+        showStartupError();
+    }
+    
+    private void showStartupError() {
+        JOptionPane.showMessageDialog(this,
+            "The application could not load its data:\n" + startupError,
+            "Startup Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    // Screens past the login need all the data; if it is still loading, show the
+    // splash screen's progress and continue once it is done
+    private boolean deferUntilStartupComplete(Runnable navigation) {
+        if (startupComplete) return false;
+        
+        // The data will never arrive, so stay on the login screen
+        if (startupError != null) {
+            loggedInUser = null;
+            showStartupError();
+            return true;
+        }
+        
+        pendingNavigation = navigation;
+        cardLayout.show(cardPanel, "splash");
+        return true;
+    }
+    
+    /**
+     * Get the asynchronous facade over the controllers
+     * @return The async controllers
+     */
+    public AsyncControllers getAsyncControllers() {
+        return asyncControllers;
     }
     
     /**
@@ -103,18 +208,49 @@ public class MainFrame extends JFrame {
      * Show the movie listing panel for customer bookings
      */
     public void showMovieListingPanel() {
-        // Check if the panel already exists
-        if (movieListingPanel == null) {
-            movieListingPanel = new MovieListingPanel(movieController, this, loggedInUser);
-            cardPanel.add(movieListingPanel, "movieListing");
-        } else {
-            // If user changed, recreate the panel
-            cardPanel.remove(movieListingPanel);
-            movieListingPanel = new MovieListingPanel(movieController, this, loggedInUser);
+        if (deferUntilStartupComplete(this::showMovieListingPanel)) return;
+        
+        long start = System.nanoTime();
+        
+        // Built once per user; coming back from a booking just shows it again
+        if (movieListingPanel == null || movieListingUser != loggedInUser) {
+            if (movieListingPanel != null) {
+                cardPanel.remove(movieListingPanel);
+            }
+            movieListingPanel = new MovieListingPanel(movieController, asyncControllers, this, loggedInUser);
+            movieListingUser = loggedInUser;
             cardPanel.add(movieListingPanel, "movieListing");
         }
         
-        cardLayout.show(cardPanel, "movieListing");
+        showScreen("movieListing", start);
+        
+        // Booking is the likely next screen
+        prewarmBookingPanel();
+    }
+    
+    /**
+     * Show the logged in user's booking history
+     */
+    public void showBookingHistory() {
+        closeBookingHistory();
+        
+        bookingHistoryPanel = new BookingHistoryPanel(asyncControllers, this, loggedInUser);
+        cardPanel.add(bookingHistoryPanel, "bookingHistory");
+        cardLayout.show(cardPanel, "bookingHistory");
+    }
+    
+    /**
+     * Leave the booking history and return to the movie listing
+     */
+    public void closeBookingHistory() {
+        if (bookingHistoryPanel != null) {
+            cardPanel.remove(bookingHistoryPanel);
+            bookingHistoryPanel = null;
+        }
+        
+        if (movieListingPanel != null) {
+            cardLayout.show(cardPanel, "movieListing");
+        }
     }
     
     /**
@@ -130,12 +266,21 @@ public class MainFrame extends JFrame {
         }
         
         setLoggedInUser(adminUser);
+        if (deferUntilStartupComplete(() -> showAdminPanel(adminUser))) return;
         
-        // Create new admin panel instance
-        adminPanel = new AdminPanel(adminController, this, adminUser);
-        cardPanel.add(adminPanel, "admin");
+        long start = System.nanoTime();
+        
+        // Built once per admin user
+        if (adminPanel == null || adminPanelUser != adminUser) {
+            if (adminPanel != null) {
+                cardPanel.remove(adminPanel);
+            }
+            adminPanel = new AdminPanel(adminController, asyncControllers, this, adminUser);
+            adminPanelUser = adminUser;
+            cardPanel.add(adminPanel, "admin");
+        }
         
-        cardLayout.show(cardPanel, "admin");
+        showScreen("admin", start);
     }
     
     /**
@@ -144,9 +289,47 @@ public class MainFrame extends JFrame {
      * @param schedule The selected schedule
      */
     public void startBookingProcess(Movie movie, LocalDateTime schedule) {
-        BookingPanel bookingPanel = new BookingPanel(this, bookingController, loggedInUser, movie, schedule);
-        cardPanel.add(bookingPanel, "booking");
-        cardLayout.show(cardPanel, "booking");
+        long start = System.nanoTime();
+        
+        // The booking panel is reused; starting a booking resets all its steps
+        getBookingPanel().startBooking(loggedInUser, movie, schedule);
+        showScreen("booking", start);
+    }
+    
+    private BookingPanel getBookingPanel() {
+        if (bookingPanel == null) {
+            bookingPanel = new BookingPanel(this, bookingController, asyncControllers);
+            cardPanel.add(bookingPanel, "booking");
+        }
+        return bookingPanel;
+    }
+    
+    // Build the booking panel ahead of time, once no other events are waiting
+    private void prewarmBookingPanel() {
+        if (bookingPanel != null) return;
+        
+        if (prewarmTimer == null) {
+            prewarmTimer = new Timer(PREWARM_DELAY_MILLIS, e -> {
+                if (bookingPanel != null || movieListingPanel == null) return;
+                
+                if (Toolkit.getDefaultToolkit().getSystemEventQueue().peekEvent() != null) {
+                    prewarmTimer.restart();
+                    return;
+                }
+                getBookingPanel();
+            });
+            prewarmTimer.setRepeats(false);
+        }
+        prewarmTimer.restart();
+    }
+    
+    // Switch screens, in debug runs logging how long it took until the new screen could be painted
+    private void showScreen(String name, long startNanos) {
+        cardLayout.show(cardPanel, name);
+        if (DEBUG) {
+            SwingUtilities.invokeLater(() -> System.out.println("Navigation to " + name + " took " +
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) / 1000.0 + " ms"));
+        }
     }
     
     /**
@@ -168,6 +351,22 @@ public class MainFrame extends JFrame {
             cardPanel.remove(adminPanel);
             adminPanel = null;
         }
+        
+        if (bookingHistoryPanel != null) {
+            cardPanel.remove(bookingHistoryPanel);
+            bookingHistoryPanel = null;
+        }
+        
+        if (bookingPanel != null) {
+            cardPanel.remove(bookingPanel);
+            bookingPanel = null;
+        }
+        
+        if (prewarmTimer != null) {
+            prewarmTimer.stop();
+        }
+        movieListingUser = null;
+        adminPanelUser = null;
     }
     
     /**
@@ -1,20 +1,34 @@
 package view;
 
+import controller.AsyncControllers;
 import controller.MovieController;
+import controller.MovieFacetIndex;
+import controller.MovieFacetIndex.Facet;
+import controller.ShowtimeIndex;
+import controller.TypeAheadSearch;
 import model.Cinema;
 import model.Movie;
 import model.User;
+import utils.ImageService;
 import utils.UIHelper;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Panel for displaying movie listings and allowing users to select a movie
@@ -22,19 +36,68 @@ import java.util.List;
 public class MovieListingPanel extends JPanel {
     private JComboBox<Cinema> cinemaComboBox;
     private JComboBox<String> genreComboBox;
+    private JComboBox<String> ratingComboBox;
+    private JComboBox<String> formatComboBox;
+    private JComboBox<String> dateComboBox;
+    private JComboBox<String> timeComboBox;
     private JTextField searchField;
     private JButton searchButton;
-    private JPanel moviesPanel;
+    private JTable movieTable;
+    private MovieTableModel movieTableModel;
+    private JLabel noMoviesLabel;
     private JScrollPane scrollPane;
     
+    // Movie cards
+    private static final int CARD_GAP = 10;
+    private static final DateTimeFormatter SCHEDULE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
+    
+    // Text of the displayed movies' cards, built when a card is first painted and
+    // dropped whenever the movies are displayed again
+    private final Map<Movie, CardText> cardTexts = new IdentityHashMap<>();
+    
+    // Posters are scaled to fit inside the poster panel's border
+    private static final int POSTER_WIDTH = 118;
+    private static final int POSTER_HEIGHT = 178;
+    private final ImageService images = ImageService.getShared();
+    
+    // Type-ahead search
+    private static final int SEARCH_DEBOUNCE_MILLIS = 250;
+    private static final int MAX_SUGGESTIONS = 8;
+    private TypeAheadSearch typeAheadSearch;
+    private Timer searchDebounceTimer;
+    private JPopupMenu suggestionPopup;
+    private DefaultListModel<Movie> suggestionListModel;
+    private JList<Movie> suggestionList;
+    private boolean applyingSuggestion;
+    
+    // Movies currently shown, to skip rebuilding cards when a filter gives the same result
+    private List<Movie> displayedMovies;
+    
+    // Facet counts of the last filter, shown next to each filter option
+    private MovieFacetIndex.FacetResult facetCounts;
+    
+    // Number of the latest filter request, so results of superseded ones are dropped
+    private int filterRequest;
+    
+    // "Starting soon" strip of showings across all cinemas
+    private static final Duration STARTING_SOON_WINDOW = Duration.ofHours(2);
+    private static final int STARTING_SOON_LIMIT = 6;
+    private static final int STARTING_SOON_REFRESH_MILLIS = 60000;
+    private JPanel startingSoonPanel;
+    private Timer startingSoonTimer;
+    
     private MovieController movieController;
+    private AsyncControllers asyncControllers;
     private MainFrame parentFrame;
     private User currentUser;
     
-    public MovieListingPanel(MovieController movieController, MainFrame parentFrame, User currentUser) {
+    public MovieListingPanel(MovieController movieController, AsyncControllers asyncControllers,
+                             MainFrame parentFrame, User currentUser) {
         this.movieController = movieController;
+        this.asyncControllers = asyncControllers;
         this.parentFrame = parentFrame;
         this.currentUser = currentUser;
+        this.typeAheadSearch = movieController.createTypeAheadSearch();
         
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -43,7 +106,7 @@ public class MovieListingPanel extends JPanel {
         initComponents();
         
         // Load all movies initially
-        displayMovies(movieController.getAllActiveMovies());
+        applyFilters();
     }
     
     private void initComponents() {
@@ -62,18 +125,29 @@ public class MovieListingPanel extends JPanel {
         logoutButton.setForeground(Color.WHITE);
         
         userPanel.add(userLabel);
+        
+        // Registered users can look back at their bookings
+        if (!currentUser.isGuest()) {
+            JButton historyButton = new JButton("My Bookings");
+            historyButton.addActionListener(e -> parentFrame.showBookingHistory());
+            userPanel.add(historyButton);
+        }
+        
         userPanel.add(logoutButton);
         headerPanel.add(userPanel, BorderLayout.EAST);
         
-        add(headerPanel, BorderLayout.NORTH);
-        
-        // Filter panel
-        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        // Filter panel, with facet filters on the first row and search on the second
+        JPanel filterPanel = new JPanel(new GridLayout(2, 1));
         filterPanel.setBorder(BorderFactory.createTitledBorder("Filter Movies"));
         
+        JPanel facetRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        JPanel searchRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        filterPanel.add(facetRow);
+        filterPanel.add(searchRow);
+        
         // Cinema filter
         JLabel cinemaLabel = new JLabel("Cinema:");
-        filterPanel.add(cinemaLabel);
+        facetRow.add(cinemaLabel);
         
         List<Cinema> cinemas = movieController.getAllCinemas();
         Cinema[] cinemasArray = cinemas.toArray(new Cinema[0]);
@@ -81,36 +155,101 @@ public class MovieListingPanel extends JPanel {
         cinemaComboBox.setPreferredSize(new Dimension(150, 25));
         cinemaComboBox.insertItemAt(new Cinema(0, "All Cinemas", "", 0, false), 0);
         cinemaComboBox.setSelectedIndex(0);
-        filterPanel.add(cinemaComboBox);
+        cinemaComboBox.setRenderer(new FacetCountRenderer(Facet.CINEMA));
+        facetRow.add(cinemaComboBox);
         
         // Genre filter
         JLabel genreLabel = new JLabel("Genre:");
-        filterPanel.add(genreLabel);
-        
-        String[] genres = {"All Genres", "Action", "Comedy", "Drama", "Horror", "Sci-Fi", "Romance", "Animation"};
-        genreComboBox = new JComboBox<>(genres);
-        genreComboBox.setPreferredSize(new Dimension(150, 25));
-        filterPanel.add(genreComboBox);
+        facetRow.add(genreLabel);
+        
+        genreComboBox = createFacetComboBox(Facet.GENRE, "All Genres");
+        facetRow.add(genreComboBox);
+        
+        // Rating filter
+        facetRow.add(new JLabel("Rating:"));
+        ratingComboBox = createFacetComboBox(Facet.RATING, "All Ratings");
+        facetRow.add(ratingComboBox);
+        
+        // Format filter
+        facetRow.add(new JLabel("Format:"));
+        formatComboBox = createFacetComboBox(Facet.FORMAT, "All Formats");
+        facetRow.add(formatComboBox);
+        
+        // Showing date filter (upcoming dates only)
+        searchRow.add(new JLabel("Date:"));
+        dateComboBox = new JComboBox<>();
+        dateComboBox.addItem("Any Date");
+        LocalDate today = LocalDate.now();
+        for (String date : movieController.getFacetValues(Facet.DATE)) {
+            if (!LocalDate.parse(date).isBefore(today)) {
+                dateComboBox.addItem(date);
+            }
+        }
+        dateComboBox.setPreferredSize(new Dimension(150, 25));
+        dateComboBox.setRenderer(new FacetCountRenderer(Facet.DATE));
+        searchRow.add(dateComboBox);
+        
+        // Time band filter
+        searchRow.add(new JLabel("Time:"));
+        timeComboBox = new JComboBox<>(new String[] {"Any Time", MovieFacetIndex.MORNING, 
+            MovieFacetIndex.AFTERNOON, MovieFacetIndex.EVENING, MovieFacetIndex.LATE_NIGHT});
+        timeComboBox.setPreferredSize(new Dimension(150, 25));
+        timeComboBox.setRenderer(new FacetCountRenderer(Facet.TIME_BAND));
+        searchRow.add(timeComboBox);
         
         // Search filter
         JLabel searchLabel = new JLabel("Search:");
-        filterPanel.add(searchLabel);
+        searchRow.add(searchLabel);
         
         searchField = new JTextField(15);
-        filterPanel.add(searchField);
+        searchRow.add(searchField);
+        initTypeAhead();
         
         searchButton = new JButton("Search");
         searchButton.setBackground(new Color(0, 123, 255));
         searchButton.setForeground(Color.WHITE);
-        filterPanel.add(searchButton);
-        
-        add(filterPanel, BorderLayout.NORTH);
+        searchRow.add(searchButton);
+        
+        // Starting soon strip below the filters
+        startingSoonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        startingSoonPanel.setBorder(BorderFactory.createTitledBorder("Starting Soon"));
+        startingSoonTimer = new Timer(STARTING_SOON_REFRESH_MILLIS, e -> refreshStartingSoon());
+        refreshStartingSoon();
+        
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+        northPanel.add(filterPanel, BorderLayout.CENTER);
+        northPanel.add(startingSoonPanel, BorderLayout.SOUTH);
+        add(northPanel, BorderLayout.NORTH);
+        
+        // Movie list: a one-column table, so cards only exist for the visible rows. One card
+        // paints every row, and a second one becomes live under the mouse for booking.
+        movieTableModel = new MovieTableModel();
+        movieTable = new JTable(movieTableModel);
+        movieTable.setTableHeader(null);
+        movieTable.setShowGrid(false);
+        movieTable.setIntercellSpacing(new Dimension(0, 0));
+        MovieCardRenderer cardRenderer = new MovieCardRenderer();
+        movieTable.setRowHeight(cardRenderer.card.getPreferredSize().height);
+        movieTable.setRowSelectionAllowed(false);
+        movieTable.setBackground(getBackground());
+        movieTable.setDefaultRenderer(Movie.class, cardRenderer);
+        movieTable.setDefaultEditor(Movie.class, new MovieCardEditor());
+        movieTable.addMouseMotionListener(new java.awt.event.MouseMotionAdapter() {
+            @Override
+            public void mouseMoved(java.awt.event.MouseEvent e) {
+                int row = movieTable.rowAtPoint(e.getPoint());
+                if (row >= 0 && row != movieTable.getEditingRow()) {
+                    movieTable.editCellAt(row, 0);
+                }
+            }
+        });
         
-        // Movies panel (grid layout)
-        moviesPanel = new JPanel();
-        moviesPanel.setLayout(new BoxLayout(moviesPanel, BoxLayout.Y_AXIS));
+        // Shown until the first results arrive, and when nothing matches
+        noMoviesLabel = new JLabel("Loading movies...", SwingConstants.CENTER);
+        noMoviesLabel.setFont(new Font("Arial", Font.BOLD, 16));
         
-        scrollPane = new JScrollPane(moviesPanel);
+        scrollPane = new JScrollPane(noMoviesLabel);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
         
@@ -120,6 +259,8 @@ public class MovieListingPanel extends JPanel {
         searchButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                searchDebounceTimer.stop();
+                suggestionPopup.setVisible(false);
                 applyFilters();
             }
         });
@@ -131,12 +272,17 @@ public class MovieListingPanel extends JPanel {
             }
         });
         
-        genreComboBox.addActionListener(new ActionListener() {
+        ActionListener facetListener = new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
                 applyFilters();
             }
-        });
+        };
+        genreComboBox.addActionListener(facetListener);
+        ratingComboBox.addActionListener(facetListener);
+        formatComboBox.addActionListener(facetListener);
+        dateComboBox.addActionListener(facetListener);
+        timeComboBox.addActionListener(facetListener);
         
         logoutButton.addActionListener(new ActionListener() {
             @Override
@@ -155,156 +301,590 @@ public class MovieListingPanel extends JPanel {
         });
     }
     
-    private void applyFilters() {
-        Cinema selectedCinema = (Cinema) cinemaComboBox.getSelectedItem();
-        String selectedGenre = (String) genreComboBox.getSelectedItem();
-        String searchTerm = searchField.getText().trim();
+    /**
+     * Set up live search: suggestions update on every keystroke, while the movie list
+     * is refreshed once typing pauses
+     */
+    private void initTypeAhead() {
+        searchDebounceTimer = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> applyFilters());
+        searchDebounceTimer.setRepeats(false);
+        
+        suggestionListModel = new DefaultListModel<>();
+        suggestionList = new JList<>(suggestionListModel);
+        suggestionList.setFocusable(false);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, 
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                
+                if (value instanceof Movie) {
+                    Movie movie = (Movie) value;
+                    setText(movie.getTitle() + " - " + movie.getDirector());
+                }
+                
+                return this;
+            }
+        });
+        suggestionList.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                acceptSuggestion();
+            }
+        });
+        
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.add(suggestionList);
+        
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTextChanged();
+            }
+        });
         
-        List<Movie> filteredMovies = movieController.filterMovies(selectedCinema, selectedGenre, searchTerm);
-        displayMovies(filteredMovies);
+        // Arrow keys move through suggestions, Enter accepts, Escape closes
+        searchField.addKeyListener(new java.awt.event.KeyAdapter() {
+            @Override
+            public void keyPressed(java.awt.event.KeyEvent e) {
+                if (!suggestionPopup.isVisible()) return;
+                
+                int index = suggestionList.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case java.awt.event.KeyEvent.VK_DOWN:
+                        suggestionList.setSelectedIndex(Math.min(index + 1, suggestionListModel.size() - 1));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_UP:
+                        suggestionList.setSelectedIndex(Math.max(index - 1, 0));
+                        e.consume();
+                        break;
+                    case java.awt.event.KeyEvent.VK_ENTER:
+                        if (index >= 0) {
+                            acceptSuggestion();
+                            e.consume();
+                        }
+                        break;
+                    case java.awt.event.KeyEvent.VK_ESCAPE:
+                        suggestionPopup.setVisible(false);
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
     }
     
-    private void displayMovies(List<Movie> movies) {
-        moviesPanel.removeAll();
+    private void searchTextChanged() {
+        if (applyingSuggestion) return;
+        
+        updateSuggestions();
+        searchDebounceTimer.restart();
+    }
+    
+    private void updateSuggestions() {
+        List<Movie> suggestions = typeAheadSearch.suggest(searchField.getText(), MAX_SUGGESTIONS);
         
-        if (movies.isEmpty()) {
-            JLabel noMoviesLabel = new JLabel("No movies found matching your criteria");
-            noMoviesLabel.setFont(new Font("Arial", Font.BOLD, 16));
-            noMoviesLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-            moviesPanel.add(noMoviesLabel);
+        suggestionListModel.clear();
+        for (Movie movie : suggestions) {
+            suggestionListModel.addElement(movie);
+        }
+        
+        if (suggestions.isEmpty() || !searchField.isShowing()) {
+            suggestionPopup.setVisible(false);
         } else {
-            for (Movie movie : movies) {
-                JPanel movieCard = createMovieCard(movie);
-                movieCard.setMaximumSize(new Dimension(Integer.MAX_VALUE, 220));
-                moviesPanel.add(movieCard);
-                moviesPanel.add(Box.createRigidArea(new Dimension(0, 10)));
+            suggestionList.setVisibleRowCount(suggestions.size());
+            suggestionPopup.pack();
+            if (!suggestionPopup.isVisible()) {
+                suggestionPopup.show(searchField, 0, searchField.getHeight());
             }
         }
+    }
+    
+    private void acceptSuggestion() {
+        Movie movie = suggestionList.getSelectedValue();
+        if (movie == null) return;
+        
+        applyingSuggestion = true;
+        searchField.setText(movie.getTitle());
+        applyingSuggestion = false;
         
-        revalidate();
-        repaint();
+        suggestionPopup.setVisible(false);
+        searchDebounceTimer.stop();
+        applyFilters();
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        startingSoonTimer.start();
+    }
+    
+    @Override
+    public void removeNotify() {
+        // Stop refreshing once the panel is no longer shown
+        startingSoonTimer.stop();
+        super.removeNotify();
+    }
+    
+    /**
+     * Show the next showings starting within the window at any cinema
+     */
+    private void refreshStartingSoon() {
+        asyncControllers.getShowtimesStartingSoon(LocalDateTime.now(), STARTING_SOON_WINDOW, STARTING_SOON_LIMIT)
+            .whenComplete((showtimes, error) -> {
+                if (error == null) showStartingSoon(showtimes);
+            });
     }
     
-    private JPanel createMovieCard(Movie movie) {
-        JPanel card = new JPanel(new BorderLayout(10, 0));
-        card.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(Color.LIGHT_GRAY),
-            BorderFactory.createEmptyBorder(10, 10, 10, 10)
-        ));
-        card.setBackground(Color.WHITE);
-        
-        // Left panel for movie poster
-        JPanel posterPanel = new JPanel();
-        posterPanel.setPreferredSize(new Dimension(120, 180));
-        posterPanel.setBackground(new Color(240, 240, 240));
-        posterPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
-        
-        // Use movie title as placeholder for poster
-        JLabel posterLabel = new JLabel(movie.getTitle());
-        posterLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        posterPanel.add(posterLabel);
-        
-        card.add(posterPanel, BorderLayout.WEST);
-        
-        // Center panel for movie details
-        JPanel detailsPanel = new JPanel();
-        detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
-        detailsPanel.setBackground(Color.WHITE);
-        
-        JLabel titleLabel = new JLabel(movie.getTitle());
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
-        detailsPanel.add(titleLabel);
-        
-        JLabel genreLabel = new JLabel("Genre: " + movie.getGenre());
-        detailsPanel.add(genreLabel);
-        
-        JLabel durationLabel = new JLabel("Duration: " + movie.getDurationMinutes() + " minutes");
-        detailsPanel.add(durationLabel);
-        
-        JLabel directorLabel = new JLabel("Director: " + movie.getDirector());
-        detailsPanel.add(directorLabel);
-        
-        JLabel cinemaLabel = new JLabel("Cinema: " + movie.getCinema().getName());
-        detailsPanel.add(cinemaLabel);
-        
-        JLabel ratingLabel = new JLabel("Rating: " + movie.getRating());
-        detailsPanel.add(ratingLabel);
-        
-        // Show available schedules
-        JPanel schedulesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        schedulesPanel.setBackground(Color.WHITE);
-        JLabel schedulesLabel = new JLabel("Schedules: ");
-        schedulesPanel.add(schedulesLabel);
-        
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
-        
-        List<LocalDateTime> schedules = movie.getSchedules();
-        if (schedules.isEmpty()) {
-            schedulesPanel.add(new JLabel("No schedules available"));
+    private void showStartingSoon(List<ShowtimeIndex.Showtime> showtimes) {
+        startingSoonPanel.removeAll();
+        
+        if (showtimes.isEmpty()) {
+            startingSoonPanel.add(new JLabel("No showings in the next " + STARTING_SOON_WINDOW.toHours() + " hours"));
         } else {
-            JComboBox<String> scheduleComboBox = new JComboBox<>();
+            DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("hh:mm a");
             
-            for (LocalDateTime schedule : schedules) {
-                scheduleComboBox.addItem(schedule.format(formatter));
+            for (ShowtimeIndex.Showtime showtime : showtimes) {
+                Movie movie = showtime.getMovie();
+                JButton showtimeButton = new JButton(showtime.getStart().format(timeFormatter) + " - " + movie.getTitle());
+                showtimeButton.setToolTipText(movie.getCinema().getName());
+                showtimeButton.addActionListener(e -> parentFrame.startBookingProcess(movie, showtime.getStart()));
+                startingSoonPanel.add(showtimeButton);
             }
+        }
+        
+        startingSoonPanel.revalidate();
+        startingSoonPanel.repaint();
+    }
+    
+    private JComboBox<String> createFacetComboBox(Facet facet, String allLabel) {
+        JComboBox<String> comboBox = new JComboBox<>();
+        comboBox.addItem(allLabel);
+        for (String value : movieController.getFacetValues(facet)) {
+            comboBox.addItem(value);
+        }
+        comboBox.setPreferredSize(new Dimension(150, 25));
+        comboBox.setRenderer(new FacetCountRenderer(facet));
+        return comboBox;
+    }
+    
+    private void applyFilters() {
+        MovieFacetIndex.FacetQuery query = new MovieFacetIndex.FacetQuery();
+        
+        Cinema selectedCinema = (Cinema) cinemaComboBox.getSelectedItem();
+        if (selectedCinema != null && selectedCinema.getId() != 0) {
+            query.select(Facet.CINEMA, String.valueOf(selectedCinema.getId()));
+        }
+        
+        // The first item of each facet combo box means "no filter"
+        selectFacet(query, Facet.GENRE, genreComboBox);
+        selectFacet(query, Facet.RATING, ratingComboBox);
+        selectFacet(query, Facet.FORMAT, formatComboBox);
+        selectFacet(query, Facet.DATE, dateComboBox);
+        selectFacet(query, Facet.TIME_BAND, timeComboBox);
+        
+        String searchTerm = searchField.getText().trim();
+        
+        // Filtering runs on the controller workers
+        int request = ++filterRequest;
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        
+        asyncControllers.filterMovies(query, searchTerm).whenComplete((result, error) -> {
+            if (request != filterRequest) return;
+            setCursor(null);
             
-            schedulesPanel.add(scheduleComboBox);
+            if (error != null) {
+                displayedMovies = null;
+                noMoviesLabel.setText("Could not load movies: " + error.getMessage());
+                scrollPane.setViewportView(noMoviesLabel);
+                return;
+            }
+            
+            facetCounts = result;
+            displayMovies(facetCounts.getMovies());
+            
+            // Option labels show the new counts
+            cinemaComboBox.repaint();
+            genreComboBox.repaint();
+            ratingComboBox.repaint();
+            formatComboBox.repaint();
+            dateComboBox.repaint();
+            timeComboBox.repaint();
+        });
+    }
+    
+    private void selectFacet(MovieFacetIndex.FacetQuery query, Facet facet, JComboBox<String> comboBox) {
+        if (comboBox.getSelectedIndex() > 0) {
+            query.select(facet, (String) comboBox.getSelectedItem());
+        }
+    }
+    
+    /**
+     * Renders filter options with the number of movies they would show, e.g. "Action (12)"
+     */
+    private class FacetCountRenderer extends DefaultListCellRenderer {
+        private final Facet facet;
+        private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEE, MMM dd");
+        
+        FacetCountRenderer(Facet facet) {
+            this.facet = facet;
         }
         
-        detailsPanel.add(schedulesPanel);
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, 
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            
+            String key = null;
+            String label = String.valueOf(value);
+            if (value instanceof Cinema) {
+                Cinema cinema = (Cinema) value;
+                if (cinema.getId() != 0) key = String.valueOf(cinema.getId());
+                label = cinema.getName();
+            } else if (value instanceof String && facet == Facet.DATE && !"Any Date".equals(value)) {
+                key = (String) value;
+                label = LocalDate.parse(key).format(dateFormatter);
+            } else if (value instanceof String && list.getModel().getSize() > 0 && 
+                       !value.equals(list.getModel().getElementAt(0))) {
+                key = (String) value;
+            }
+            
+            if (key != null && facetCounts != null) {
+                label += " (" + facetCounts.getCount(facet, key) + ")";
+            }
+            setText(label);
+            
+            return this;
+        }
+    }
+    
+    private void displayMovies(List<Movie> movies) {
+        // Rebuilt on the next paint, picking up any changes to the movies
+        cardTexts.clear();
+        movieTable.repaint();
         
-        // Synopsis with scroll pane
-        JLabel synopsisLabel = new JLabel("Synopsis:");
-        detailsPanel.add(synopsisLabel);
+        // Nothing else to update if the same movies are already shown
+        if (movies.equals(displayedMovies)) return;
+        displayedMovies = movies;
         
-        JTextArea synopsisArea = new JTextArea(movie.getSynopsis());
-        synopsisArea.setLineWrap(true);
-        synopsisArea.setWrapStyleWord(true);
-        synopsisArea.setEditable(false);
-        synopsisArea.setBackground(Color.WHITE);
-        synopsisArea.setRows(3);
+        if (movieTable.isEditing()) {
+            movieTable.getCellEditor().cancelCellEditing();
+        }
+        movieTableModel.setMovies(movies);
         
-        JScrollPane synopsisScroll = new JScrollPane(synopsisArea);
-        synopsisScroll.setPreferredSize(new Dimension(400, 60));
-        detailsPanel.add(synopsisScroll);
+        noMoviesLabel.setText("No movies found matching your criteria");
+        Component view = movies.isEmpty() ? noMoviesLabel : movieTable;
+        if (scrollPane.getViewport().getView() != view) {
+            scrollPane.setViewportView(view);
+        }
+        scrollPane.getVerticalScrollBar().setValue(0);
+    }
+    
+    private CardText getCardText(Movie movie) {
+        return cardTexts.computeIfAbsent(movie, CardText::new);
+    }
+    
+    /**
+     * The text shown on a movie's card, so painting a row does not copy the
+     * schedules or build strings
+     */
+    private static class CardText {
+        private final String genre;
+        private final String duration;
+        private final String director;
+        private final String cinema;
+        private final String rating;
+        private final List<LocalDateTime> schedules;
+        private final String[] scheduleLabels;
+        
+        CardText(Movie movie) {
+            genre = "Genre: " + movie.getGenre();
+            duration = "Duration: " + movie.getDurationMinutes() + " minutes";
+            director = "Director: " + movie.getDirector();
+            cinema = "Cinema: " + movie.getCinema().getName();
+            rating = "Rating: " + movie.getRating();
+            schedules = Collections.unmodifiableList(movie.getSchedules());
+            scheduleLabels = new String[schedules.size()];
+            for (int i = 0; i < scheduleLabels.length; i++) {
+                scheduleLabels[i] = schedules.get(i).format(SCHEDULE_FORMATTER);
+            }
+        }
+    }
+    
+    /**
+     * Table model holding the displayed movies, one per row
+     */
+    private static class MovieTableModel extends javax.swing.table.AbstractTableModel {
+        private List<Movie> movies = new ArrayList<>();
+        
+        void setMovies(List<Movie> movies) {
+            this.movies = movies;
+            fireTableDataChanged();
+        }
         
-        card.add(detailsPanel, BorderLayout.CENTER);
+        @Override
+        public int getRowCount() {
+            return movies.size();
+        }
         
-        // Right panel for booking button
-        JPanel actionPanel = new JPanel(new BorderLayout());
-        actionPanel.setBackground(Color.WHITE);
+        @Override
+        public int getColumnCount() {
+            return 1;
+        }
         
-        JButton bookButton = new JButton("Book Now");
-        bookButton.setBackground(new Color(40, 167, 69));
-        bookButton.setForeground(Color.WHITE);
-        bookButton.setPreferredSize(new Dimension(100, 30));
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return Movie.class;
+        }
         
-        actionPanel.add(bookButton, BorderLayout.NORTH);
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            return movies.get(rowIndex);
+        }
         
-        card.add(actionPanel, BorderLayout.EAST);
+        @Override
+        public boolean isCellEditable(int rowIndex, int columnIndex) {
+            return true;
+        }
+    }
+    
+    /**
+     * A movie card whose components are created once and refilled for each movie
+     */
+    private class MovieCard extends JPanel {
+        private final JLabel posterLabel = new JLabel();
+        private final PosterIcon posterIcon = new PosterIcon();
+        private final JLabel titleLabel = new JLabel();
+        private final JLabel genreLabel = new JLabel();
+        private final JLabel durationLabel = new JLabel();
+        private final JLabel directorLabel = new JLabel();
+        private final JLabel cinemaLabel = new JLabel();
+        private final JLabel ratingLabel = new JLabel();
+        private final JLabel noSchedulesLabel = new JLabel("No schedules available");
+        private final DefaultComboBoxModel<String> scheduleModel = new DefaultComboBoxModel<>();
+        private final JComboBox<String> scheduleComboBox = new JComboBox<>(scheduleModel);
+        private final JTextArea synopsisArea = new JTextArea();
+        private final JButton bookButton = new JButton("Book Now");
+        private Movie movie;
+        private List<LocalDateTime> schedules = Collections.emptyList();
+        
+        MovieCard() {
+            super(new BorderLayout(10, 0));
+            
+            // Every row has the same height, so measure the card with placeholder text
+            for (JLabel label : new JLabel[] {posterLabel, titleLabel, genreLabel, durationLabel,
+                                              directorLabel, cinemaLabel, ratingLabel}) {
+                label.setText(" ");
+            }
+            setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, CARD_GAP, 0, MovieListingPanel.this.getBackground()),
+                BorderFactory.createCompoundBorder(
+                    BorderFactory.createLineBorder(Color.LIGHT_GRAY),
+                    BorderFactory.createEmptyBorder(10, 10, 10, 10))
+            ));
+            setBackground(Color.WHITE);
+            
+            // Left panel for movie poster
+            JPanel posterPanel = new JPanel(new BorderLayout());
+            posterPanel.setPreferredSize(new Dimension(POSTER_WIDTH + 2, POSTER_HEIGHT + 2));
+            posterPanel.setBackground(new Color(240, 240, 240));
+            posterPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
+            
+            // Movie title is the placeholder until the poster has loaded
+            posterLabel.setHorizontalAlignment(SwingConstants.CENTER);
+            posterPanel.add(posterLabel, BorderLayout.CENTER);
+            add(posterPanel, BorderLayout.WEST);
+            
+            // Center panel for movie details
+            JPanel detailsPanel = new JPanel();
+            detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
+            detailsPanel.setBackground(Color.WHITE);
+            
+            titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
+            detailsPanel.add(titleLabel);
+            detailsPanel.add(genreLabel);
+            detailsPanel.add(durationLabel);
+            detailsPanel.add(directorLabel);
+            detailsPanel.add(cinemaLabel);
+            detailsPanel.add(ratingLabel);
+            
+            // Show available schedules
+            JPanel schedulesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            schedulesPanel.setBackground(Color.WHITE);
+            schedulesPanel.add(new JLabel("Schedules: "));
+            schedulesPanel.add(scheduleComboBox);
+            schedulesPanel.add(noSchedulesLabel);
+            detailsPanel.add(schedulesPanel);
+            
+            // Synopsis with scroll pane
+            detailsPanel.add(new JLabel("Synopsis:"));
+            synopsisArea.setLineWrap(true);
+            synopsisArea.setWrapStyleWord(true);
+            synopsisArea.setEditable(false);
+            synopsisArea.setBackground(Color.WHITE);
+            synopsisArea.setRows(3);
+            
+            JScrollPane synopsisScroll = new JScrollPane(synopsisArea);
+            synopsisScroll.setPreferredSize(new Dimension(400, 60));
+            detailsPanel.add(synopsisScroll);
+            
+            add(detailsPanel, BorderLayout.CENTER);
+            
+            // Right panel for booking button
+            JPanel actionPanel = new JPanel(new BorderLayout());
+            actionPanel.setBackground(Color.WHITE);
+            
+            bookButton.setBackground(new Color(40, 167, 69));
+            bookButton.setForeground(Color.WHITE);
+            bookButton.setPreferredSize(new Dimension(100, 30));
+            actionPanel.add(bookButton, BorderLayout.NORTH);
+            
+            add(actionPanel, BorderLayout.EAST);
+        }
         
-        // Add event listener for booking
-        bookButton.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (schedules.isEmpty()) {
-                    JOptionPane.showMessageDialog(MovieListingPanel.this,
-                        "No schedules available for this movie",
-                        "Booking Error", JOptionPane.ERROR_MESSAGE);
-                    return;
-                }
-                
-                // Get selected schedule
-                JComboBox scheduleComboBox = (JComboBox) schedulesPanel.getComponent(1);
-                int selectedIndex = scheduleComboBox.getSelectedIndex();
-                
-                if (selectedIndex >= 0) {
-                    LocalDateTime selectedSchedule = schedules.get(selectedIndex);
-                    parentFrame.startBookingProcess(movie, selectedSchedule);
-                }
+        /**
+         * Fill the card with a movie
+         * @param movie The movie
+         * @param allSchedules true to list every schedule, false to show only the first
+         *                     (enough for painting a card that cannot be interacted with)
+         */
+        void setMovie(Movie movie, boolean allSchedules) {
+            CardText text = getCardText(movie);
+            this.movie = movie;
+            this.schedules = text.schedules;
+            
+            showPoster(movie);
+            titleLabel.setText(movie.getTitle());
+            genreLabel.setText(text.genre);
+            durationLabel.setText(text.duration);
+            directorLabel.setText(text.director);
+            cinemaLabel.setText(text.cinema);
+            ratingLabel.setText(text.rating);
+            
+            scheduleModel.removeAllElements();
+            for (String label : text.scheduleLabels) {
+                scheduleModel.addElement(label);
+                if (!allSchedules) break;
             }
-        });
+            scheduleComboBox.setVisible(!schedules.isEmpty());
+            noSchedulesLabel.setVisible(schedules.isEmpty());
+            
+            synopsisArea.setText(movie.getSynopsis());
+            synopsisArea.setCaretPosition(0);
+        }
+        
+        /**
+         * Show the movie's poster if it is cached, otherwise show the title and have the
+         * poster loaded in the background. The table is repainted once it arrives.
+         */
+        private void showPoster(Movie movie) {
+            BufferedImage poster = images.getCached(movie.getPosterImage(), POSTER_WIDTH, POSTER_HEIGHT);
+            if (poster != null) {
+                posterIcon.image = poster;
+                posterLabel.setIcon(posterIcon);
+                posterLabel.setText(null);
+                return;
+            }
+            
+            posterLabel.setIcon(null);
+            posterLabel.setText(movie.getTitle());
+            images.request(movie.getPosterImage(), POSTER_WIDTH, POSTER_HEIGHT, image -> {
+                if (this.movie == movie) showPoster(movie);
+                movieTable.repaint();
+            });
+        }
+        
+        void book() {
+            if (schedules.isEmpty()) {
+                JOptionPane.showMessageDialog(MovieListingPanel.this,
+                    "No schedules available for this movie",
+                    "Booking Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            // Get selected schedule
+            int selectedIndex = scheduleComboBox.getSelectedIndex();
+            if (selectedIndex >= 0) {
+                parentFrame.startBookingProcess(movie, schedules.get(selectedIndex));
+            }
+        }
+    }
+    
+    /**
+     * Icon for a card's poster, reused as the card is refilled rather than created for every row
+     */
+    private static class PosterIcon implements Icon {
+        private BufferedImage image;
+        
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            g.drawImage(image, x, y, null);
+        }
+        
+        @Override
+        public int getIconWidth() {
+            return image.getWidth();
+        }
         
-        return card;
+        @Override
+        public int getIconHeight() {
+            return image.getHeight();
+        }
+    }
+    
+    /**
+     * Paints each visible row with one shared card
+     */
+    private class MovieCardRenderer implements javax.swing.table.TableCellRenderer {
+        private final MovieCard card = new MovieCard();
+        
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            card.setMovie((Movie) value, false);
+            return card;
+        }
+    }
+    
+    /**
+     * Live card for the row under the mouse, so its schedules and button can be used
+     */
+    private class MovieCardEditor extends AbstractCellEditor implements javax.swing.table.TableCellEditor {
+        private final MovieCard card = new MovieCard();
+        
+        MovieCardEditor() {
+            card.bookButton.addActionListener(new ActionListener() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    card.book();
+                }
+            });
+        }
+        
+        @Override
+        public Component getTableCellEditorComponent(JTable table, Object value, boolean isSelected,
+                                                     int row, int column) {
+            card.setMovie((Movie) value, true);
+            return card;
+        }
+        
+        @Override
+        public Object getCellEditorValue() {
+            return card.movie;
+        }
     }
 }
@@ -1,6 +1,8 @@
 package view;
 
-import controller.BookingController;
+import controller.AsyncControllers;
+import controller.PaymentGateway;
+import controller.PaymentProcessor;
 import model.Booking;
 import model.PaymentMethod;
 import model.Seat;
@@ -12,6 +14,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Panel for payment processing
@@ -27,14 +31,19 @@ public class PaymentPanel extends JPanel {
     private JTextField accountNumberField;
     private JPanel cardDetailsPanel;
     private JPanel eWalletDetailsPanel;
+    private JPanel progressPanel;
+    private JProgressBar progressBar;
+    private JLabel progressLabel;
     
-    private BookingController bookingController;
+    private AsyncControllers asyncControllers;
     private Booking currentBooking;
     private PaymentMethod selectedPaymentMethod;
     
-    public PaymentPanel(BookingController bookingController, Booking currentBooking) {
-        this.bookingController = bookingController;
-        this.currentBooking = currentBooking;
+    /**
+     * Create the panel; call setBooking before showing it
+     */
+    public PaymentPanel(AsyncControllers asyncControllers) {
+        this.asyncControllers = asyncControllers;
         
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -43,6 +52,26 @@ public class PaymentPanel extends JPanel {
         initComponents();
     }
     
+    /**
+     * Take payment for another booking, clearing the payment details entered so far
+     * @param booking The booking
+     */
+    public void setBooking(Booking booking) {
+        this.currentBooking = booking;
+        
+        selectedPaymentMethod = null;
+        paymentMethodGroup.clearSelection();
+        cardNumberField.setText("");
+        expiryField.setText("");
+        cvvField.setText("");
+        accountNameField.setText("");
+        accountNumberField.setText("");
+        progressPanel.setVisible(false);
+        
+        updatePaymentDetailsPanel();
+        updateOrderSummary();
+    }
+    
     private void initComponents() {
         // Title
         JLabel titleLabel = new JLabel("Payment Information");
@@ -145,12 +174,19 @@ public class PaymentPanel extends JPanel {
         orderSummaryPanel.setLayout(new BorderLayout());
         orderSummaryPanel.setBorder(BorderFactory.createTitledBorder("Order Summary"));
         
-        // Create the order summary content
-        updateOrderSummary();
-        
         splitPane.setRightComponent(new JScrollPane(orderSummaryPanel));
         
         add(splitPane, BorderLayout.CENTER);
+        
+        // Progress shown while the payment is authorized, without blocking the window
+        progressPanel = new JPanel(new BorderLayout(10, 0));
+        progressLabel = new JLabel("Authorizing payment...");
+        progressBar = new JProgressBar();
+        progressBar.setIndeterminate(true);
+        progressPanel.add(progressLabel, BorderLayout.WEST);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.setVisible(false);
+        add(progressPanel, BorderLayout.SOUTH);
     }
     
     private void updatePaymentDetailsPanel() {
@@ -174,7 +210,10 @@ public class PaymentPanel extends JPanel {
         repaint();
     }
     
-    private void updateOrderSummary() {
+    /**
+     * Show the booking's current seats, snacks and total
+     */
+    public void updateOrderSummary() {
         // Clear current content
         orderSummaryPanel.removeAll();
         
@@ -341,32 +380,52 @@ public class PaymentPanel extends JPanel {
         return true;
     }
     
-    public boolean processPayment() {
-        // In a real app, this would connect to a payment gateway
-        // For this simulation, we'll just show a success message
-        
-        // Set the payment method on the booking
-        currentBooking.processPayment(selectedPaymentMethod.getName());
+    /**
+     * Authorize the payment in the background. The booking is marked paid once the
+     * payment is approved; failures are reported to the user here.
+     * @param onDone Called on the Event Dispatch Thread with whether the payment was approved
+     */
+    public void processPayment(Consumer<Boolean> onDone) {
+        PaymentMethod method = selectedPaymentMethod;
+        
+        progressLabel.setText("Authorizing payment...");
+        progressPanel.setVisible(true);
+        revalidate();
         
-        // Simulate payment processing
-        try {
-            // Show processing message
-            JOptionPane.showMessageDialog(this,
-                "Processing payment...",
-                "Please Wait", JOptionPane.INFORMATION_MESSAGE);
-            
-            // Simulate delay
-            Thread.sleep(1500);
+        asyncControllers.authorizePayment(currentBooking, method, new PaymentProcessor.ProgressListener() {
+            @Override
+            public void attemptStarted(int attempt, int maxAttempts) {
+                if (attempt > 1) {
+                    progressLabel.setText("Retrying payment (attempt " + attempt + " of " + maxAttempts + ")...");
+                }
+            }
+        }).whenComplete((authorization, error) -> {
+            progressPanel.setVisible(false);
+            revalidate();
             
-            // Show success message
-            JOptionPane.showMessageDialog(this,
-                "Payment successful!",
-                "Payment Confirmed", JOptionPane.INFORMATION_MESSAGE);
+            if (error == null) {
+                currentBooking.processPayment(method.getName());
+                onDone.accept(true);
+                return;
+            }
             
-            return true;
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-            return false;
-        }
+            String message;
+            if (error instanceof PaymentGateway.DeclinedException) {
+                message = "Your payment was declined: " + error.getMessage() + "\n" +
+                    "Please use a different payment method.";
+            } else if (error instanceof PaymentProcessor.CircuitOpenException) {
+                message = "Payments are temporarily unavailable. Please try again in a minute.";
+            } else if (error instanceof TimeoutException) {
+                // An unanswered request may still have been charged; retrying reuses the
+                // booking's idempotency key, so it cannot charge twice
+                message = "The payment service did not respond, so the status of your payment is unknown.\n" +
+                    "Trying again is safe: you will not be charged twice for this booking.";
+            } else {
+                message = "The payment could not be processed. You have not been charged.\n" +
+                    "Please try again.";
+            }
+            JOptionPane.showMessageDialog(this, message, "Payment Error", JOptionPane.ERROR_MESSAGE);
+            onDone.accept(false);
+        });
     }
 }
@@ -0,0 +1,104 @@
+package view;
+
+import model.Cinema;
+import model.Seat;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * Panel that paints a cinema's seat layout colored by how often each seat was sold
+ */
+public class SeatHeatmapPanel extends JPanel {
+    private static final int CELL_SIZE = 36;
+    private static final int CELL_GAP = 4;
+    private static final Color COLD_COLOR = new Color(240, 240, 240);
+    private static final Color HOT_COLOR = new Color(220, 53, 69);
+    
+    private String[] seatNumbers = new String[0];
+    private int[] counts = new int[0];
+    private int maxCount;
+    private int columns = Cinema.SEATS_PER_ROW;
+    
+    public SeatHeatmapPanel() {
+        setBackground(Color.WHITE);
+        setToolTipText(""); // Enable per-seat tooltips
+    }
+    
+    /**
+     * Show a new heatmap
+     * @param cinema The cinema the counts belong to
+     * @param counts Sale count per seat, indexed like the cinema's seat layout
+     */
+    public void setHeatmap(Cinema cinema, int[] counts) {
+        List<Seat> seats = cinema.getSeats();
+        this.seatNumbers = new String[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            seatNumbers[i] = seats.get(i).getSeatNumber();
+        }
+        
+        this.counts = counts;
+        this.maxCount = 0;
+        for (int count : counts) {
+            maxCount = Math.max(maxCount, count);
+        }
+        
+        revalidate();
+        repaint();
+    }
+    
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = (counts.length + columns - 1) / columns;
+        return new Dimension(CELL_GAP + columns * (CELL_SIZE + CELL_GAP),
+                             CELL_GAP + rows * (CELL_SIZE + CELL_GAP));
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g.create();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        
+        FontMetrics fm = g2d.getFontMetrics();
+        for (int i = 0; i < counts.length; i++) {
+            int x = CELL_GAP + (i % columns) * (CELL_SIZE + CELL_GAP);
+            int y = CELL_GAP + (i / columns) * (CELL_SIZE + CELL_GAP);
+            
+            g2d.setColor(heatColor(counts[i]));
+            g2d.fillRoundRect(x, y, CELL_SIZE, CELL_SIZE, 6, 6);
+            
+            g2d.setColor(Color.DARK_GRAY);
+            String label = seatNumbers[i];
+            g2d.drawString(label, x + (CELL_SIZE - fm.stringWidth(label)) / 2,
+                           y + (CELL_SIZE - fm.getHeight()) / 2 + fm.getAscent());
+        }
+        
+        g2d.dispose();
+    }
+    
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int column = (event.getX() - CELL_GAP) / (CELL_SIZE + CELL_GAP);
+        int row = (event.getY() - CELL_GAP) / (CELL_SIZE + CELL_GAP);
+        int index = row * columns + column;
+        
+        if (event.getX() < CELL_GAP || event.getY() < CELL_GAP || column >= columns || index >= counts.length) {
+            return null;
+        }
+        return seatNumbers[index] + ": sold " + counts[index] + " time(s)";
+    }
+    
+    // Blend from cold to hot by the seat's share of the busiest seat's count
+    private Color heatColor(int count) {
+        if (maxCount == 0) return COLD_COLOR;
+        
+        float ratio = (float) count / maxCount;
+        int red = Math.round(COLD_COLOR.getRed() + (HOT_COLOR.getRed() - COLD_COLOR.getRed()) * ratio);
+        int green = Math.round(COLD_COLOR.getGreen() + (HOT_COLOR.getGreen() - COLD_COLOR.getGreen()) * ratio);
+        int blue = Math.round(COLD_COLOR.getBlue() + (HOT_COLOR.getBlue() - COLD_COLOR.getBlue()) * ratio);
+        return new Color(red, green, blue);
+    }
+}
@@ -0,0 +1,338 @@
+package view;
+
+import model.Seat;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Component that paints a whole seat map itself instead of using a button per seat.
+ * Seats in their unselected state are drawn once into a cached image; selections and
+ * the keyboard focus are painted on top and only their cells are repainted when they
+ * change. Seats are found from mouse coordinates by arithmetic on the grid.
+ */
+public class SeatMapComponent extends JComponent {
+    private static final int CELL_SIZE = 40;
+    private static final int CELL_GAP = 5;
+    private static final int PADDING = 20;
+    private static final int ARC = 8;
+    
+    private static final Color STANDARD_COLOR = new Color(220, 220, 220);
+    private static final Color DELUXE_COLOR = new Color(255, 193, 7);
+    private static final Color SELECTED_COLOR = new Color(40, 167, 69);
+    private static final Color OCCUPIED_COLOR = Color.LIGHT_GRAY;
+    private static final Color OCCUPIED_TEXT_COLOR = new Color(150, 150, 150);
+    private static final Color FOCUS_COLOR = new Color(0, 123, 255);
+    
+    /**
+     * Notified when the user clicks or presses space on an available seat
+     */
+    public interface SeatMapListener {
+        void seatToggled(Seat seat, int index);
+    }
+    
+    private Seat[] seats = new Seat[0];
+    private BitSet occupied = new BitSet();
+    private BitSet selected = new BitSet();
+    private int columns = 1;
+    private int rows;
+    private int focusIndex = -1;
+    private SeatMapListener listener;
+    
+    // Seat styles, each with a pre-rendered tile
+    private static final int STANDARD = 0;
+    private static final int DELUXE = 1;
+    private static final int OCCUPIED = 2;
+    private static final int SELECTED = 3;
+    private static final Color[] FILL_COLORS = {STANDARD_COLOR, DELUXE_COLOR, OCCUPIED_COLOR, SELECTED_COLOR};
+    private static final Color[] TEXT_COLORS = {Color.BLACK, Color.BLACK, OCCUPIED_TEXT_COLOR, Color.WHITE};
+    
+    // Antialiased shapes are slow to fill, so each style's rounded seat is drawn once and
+    // copied, and unselected seats are copied once more into a background image
+    private BufferedImage[] tiles;
+    private BufferedImage background;
+    private double backgroundScale;
+    
+    public SeatMapComponent() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setFocusable(true);
+        setToolTipText(""); // Enable per-seat tooltips
+        
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                int index = seatAt(e.getX(), e.getY());
+                if (index >= 0) {
+                    moveFocus(index);
+                    toggle(index);
+                }
+            }
+        });
+        
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                if (focusIndex < 0 && seats.length > 0) focusIndex = 0;
+                repaintSeat(focusIndex);
+            }
+            
+            @Override
+            public void focusLost(FocusEvent e) {
+                repaintSeat(focusIndex);
+            }
+        });
+        
+        bindKey(KeyEvent.VK_LEFT, "seatLeft", 0, -1);
+        bindKey(KeyEvent.VK_RIGHT, "seatRight", 0, 1);
+        bindKey(KeyEvent.VK_UP, "seatUp", -1, 0);
+        bindKey(KeyEvent.VK_DOWN, "seatDown", 1, 0);
+        
+        Action toggleAction = new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (focusIndex >= 0) toggle(focusIndex);
+            }
+        };
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "toggleSeat");
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "toggleSeat");
+        getActionMap().put("toggleSeat", toggleAction);
+    }
+    
+    /**
+     * Show a seat layout
+     * @param seats The seats in layout order, row by row
+     * @param columns The number of seats per row
+     */
+    public void setSeats(List<Seat> seats, int columns) {
+        this.seats = seats.toArray(new Seat[0]);
+        this.columns = Math.max(1, columns);
+        this.rows = (this.seats.length + this.columns - 1) / this.columns;
+        this.occupied = new BitSet(this.seats.length);
+        this.selected = new BitSet(this.seats.length);
+        this.focusIndex = -1;
+        
+        for (int i = 0; i < this.seats.length; i++) {
+            if (this.seats[i].isOccupied()) occupied.set(i);
+        }
+        
+        background = null;
+        revalidate();
+        repaint();
+    }
+    
+    public void setSeatMapListener(SeatMapListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Mark a seat selected or not, repainting only that seat
+     * @param index The seat index
+     * @param isSelected Whether the seat is selected
+     */
+    public void setSelected(int index, boolean isSelected) {
+        if (selected.get(index) == isSelected) return;
+        selected.set(index, isSelected);
+        repaintSeat(index);
+    }
+    
+    public boolean isSelected(int index) {
+        return selected.get(index);
+    }
+    
+    /**
+     * Find the seat under a point in O(1)
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The seat index, or -1 for a gap, the margin or past the last seat
+     */
+    public int seatAt(int x, int y) {
+        int gridX = x - PADDING;
+        int gridY = y - PADDING;
+        if (gridX < 0 || gridY < 0) return -1;
+        
+        int pitch = CELL_SIZE + CELL_GAP;
+        int column = gridX / pitch;
+        int row = gridY / pitch;
+        if (column >= columns || gridX % pitch >= CELL_SIZE || gridY % pitch >= CELL_SIZE) return -1;
+        
+        int index = row * columns + column;
+        return index < seats.length ? index : -1;
+    }
+    
+    /**
+     * Get the area a seat is painted in
+     * @param index The seat index
+     * @return The seat's bounds
+     */
+    public Rectangle getSeatBounds(int index) {
+        int pitch = CELL_SIZE + CELL_GAP;
+        return new Rectangle(PADDING + (index % columns) * pitch, PADDING + (index / columns) * pitch,
+                             CELL_SIZE, CELL_SIZE);
+    }
+    
+    @Override
+    public Dimension getPreferredSize() {
+        int pitch = CELL_SIZE + CELL_GAP;
+        return new Dimension(2 * PADDING + columns * pitch - CELL_GAP,
+                             2 * PADDING + Math.max(rows, 1) * pitch - CELL_GAP);
+    }
+    
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        int index = seatAt(e.getX(), e.getY());
+        if (index < 0) return null;
+        
+        Seat seat = seats[index];
+        return seat.getSeatNumber() + " - " + seat.getType().getLabel() +
+               (occupied.get(index) ? " (Occupied)" : String.format(" - ₱%.2f", seat.getPrice()));
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g.create();
+        double scale = g2d.getTransform().getScaleX();
+        if (background == null || backgroundScale != scale) {
+            tiles = renderTiles(scale);
+            background = renderBackground(scale);
+            backgroundScale = scale;
+        }
+        
+        // Only the repainted region is copied from the cached image
+        Dimension size = getPreferredSize();
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, getWidth(), getHeight());
+        g2d.drawImage(background, 0, 0, size.width, size.height, null);
+        
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(getSeatFont());
+        Rectangle clip = g2d.getClipBounds();
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            if (clip == null || clip.intersects(getSeatBounds(i))) {
+                paintSeat(g2d, i, SELECTED);
+            }
+        }
+        
+        if (isFocusOwner() && focusIndex >= 0) {
+            Rectangle bounds = getSeatBounds(focusIndex);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(FOCUS_COLOR);
+            g2d.setStroke(new BasicStroke(2f));
+            g2d.drawRoundRect(bounds.x - 2, bounds.y - 2, bounds.width + 3, bounds.height + 3, ARC, ARC);
+        }
+        
+        g2d.dispose();
+    }
+    
+    private BufferedImage[] renderTiles(double scale) {
+        int pixels = (int) Math.ceil(CELL_SIZE * scale);
+        BufferedImage[] rendered = new BufferedImage[FILL_COLORS.length];
+        
+        for (int style = 0; style < rendered.length; style++) {
+            rendered[style] = new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = rendered[style].createGraphics();
+            g2d.scale(scale, scale);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(FILL_COLORS[style]);
+            g2d.fillRoundRect(0, 0, CELL_SIZE, CELL_SIZE, ARC, ARC);
+            g2d.setColor(Color.GRAY);
+            g2d.drawRoundRect(0, 0, CELL_SIZE - 1, CELL_SIZE - 1, ARC, ARC);
+            g2d.dispose();
+        }
+        return rendered;
+    }
+    
+    private BufferedImage renderBackground(double scale) {
+        Dimension size = getPreferredSize();
+        BufferedImage image = new BufferedImage((int) Math.ceil(size.width * scale),
+                                                (int) Math.ceil(size.height * scale), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g2d.scale(scale, scale);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(getSeatFont());
+        
+        for (int i = 0; i < seats.length; i++) {
+            if (occupied.get(i)) {
+                paintSeat(g2d, i, OCCUPIED);
+            } else {
+                paintSeat(g2d, i, seats[i].getType() == Seat.SeatType.DELUXE ? DELUXE : STANDARD);
+            }
+        }
+        
+        g2d.dispose();
+        return image;
+    }
+    
+    private void paintSeat(Graphics2D g2d, int index, int style) {
+        Rectangle bounds = getSeatBounds(index);
+        g2d.drawImage(tiles[style], bounds.x, bounds.y, bounds.width, bounds.height, null);
+        
+        FontMetrics fm = g2d.getFontMetrics();
+        String label = seats[index].getSeatNumber();
+        g2d.setColor(TEXT_COLORS[style]);
+        g2d.drawString(label, bounds.x + (bounds.width - fm.stringWidth(label)) / 2,
+                       bounds.y + (bounds.height - fm.getHeight()) / 2 + fm.getAscent());
+    }
+    
+    private Font getSeatFont() {
+        return getFont() != null ? getFont() : new Font("Dialog", Font.PLAIN, 12);
+    }
+    
+    private void toggle(int index) {
+        if (occupied.get(index) || listener == null) return;
+        listener.seatToggled(seats[index], index);
+    }
+    
+    private void moveFocus(int index) {
+        int previous = focusIndex;
+        focusIndex = index;
+        repaintSeat(previous);
+        repaintSeat(index);
+        
+        Rectangle bounds = getSeatBounds(index);
+        bounds.grow(CELL_GAP, CELL_GAP);
+        scrollRectToVisible(bounds);
+    }
+    
+    private void repaintSeat(int index) {
+        if (index < 0 || index >= seats.length) return;
+        
+        // Include the focus ring drawn just outside the seat
+        Rectangle bounds = getSeatBounds(index);
+        bounds.grow(3, 3);
+        repaint(bounds);
+    }
+    
+    private void bindKey(int keyCode, String name, int rowStep, int columnStep) {
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(keyCode, 0), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (seats.length == 0) return;
+                if (focusIndex < 0) {
+                    moveFocus(0);
+                    return;
+                }
+                
+                int row = focusIndex / columns + rowStep;
+                int column = focusIndex % columns + columnStep;
+                int index = row * columns + column;
+                if (row >= 0 && row < rows && column >= 0 && column < columns && index < seats.length) {
+                    moveFocus(index);
+                }
+            }
+        });
+    }
+}
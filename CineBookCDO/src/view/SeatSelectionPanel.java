@@ -1,46 +1,55 @@
 package view;
 
-import controller.BookingController;
+import controller.AsyncControllers;
 import model.Booking;
+import model.Cinema;
 import model.Seat;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Panel for selecting seats for a movie
  */
 public class SeatSelectionPanel extends JPanel {
-    private JPanel seatGrid;
+    private static final int MAX_SEATS = 6;
+    
+    private SeatMapComponent seatMap;
     private JPanel legendPanel;
     private JPanel selectionSummaryPanel;
     private JLabel selectedSeatsLabel;
     private JLabel totalPriceLabel;
     
-    private BookingController bookingController;
+    private AsyncControllers asyncControllers;
     private Booking currentBooking;
     
-    // Map to keep track of seat buttons
-    private Map<String, JToggleButton> seatButtons = new HashMap<>();
-    
     // List to keep track of selected seats
     private List<Seat> selectedSeats = new ArrayList<>();
     
-    public SeatSelectionPanel(BookingController bookingController, Booking currentBooking) {
-        this.bookingController = bookingController;
-        this.currentBooking = currentBooking;
+    /**
+     * Create the panel; call setBooking before showing it
+     */
+    public SeatSelectionPanel(AsyncControllers asyncControllers) {
+        this.asyncControllers = asyncControllers;
         
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
         // Initialize UI components
         initComponents();
+    }
+    
+    /**
+     * Select seats for another booking, clearing the current selection
+     * @param booking The booking
+     */
+    public void setBooking(Booking booking) {
+        this.currentBooking = booking;
+        selectedSeats.clear();
+        seatMap.setSeats(Collections.emptyList(), Cinema.SEATS_PER_ROW);
         
         // Load available seats
         loadSeats();
@@ -48,7 +57,7 @@ public class SeatSelectionPanel extends JPanel {
     
     private void initComponents() {
         // Title
-        JLabel titleLabel = new JLabel("Select Your Seats (Maximum 6)");
+        JLabel titleLabel = new JLabel("Select Your Seats (Maximum " + MAX_SEATS + ")");
         titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
         titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
         add(titleLabel, BorderLayout.NORTH);
@@ -123,10 +132,16 @@ public class SeatSelectionPanel extends JPanel {
         screenPanel.add(screenLabel, BorderLayout.CENTER);
         centerPanel.add(screenPanel, BorderLayout.NORTH);
         
-        // Seat grid
-        seatGrid = new JPanel(new GridLayout(10, 10, 5, 5));
-        seatGrid.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        centerPanel.add(seatGrid, BorderLayout.CENTER);
+        // Seat map, scrollable for large halls
+        seatMap = new SeatMapComponent();
+        seatMap.setSeatMapListener(this::toggleSeat);
+        JPanel seatMapHolder = new JPanel(new FlowLayout(FlowLayout.CENTER, 0, 0));
+        seatMapHolder.setBackground(Color.WHITE);
+        seatMapHolder.add(seatMap);
+        JScrollPane seatScrollPane = new JScrollPane(seatMapHolder);
+        seatScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        seatScrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        centerPanel.add(seatScrollPane, BorderLayout.CENTER);
         
         add(centerPanel, BorderLayout.CENTER);
         
@@ -147,104 +162,53 @@ public class SeatSelectionPanel extends JPanel {
     }
     
     private void loadSeats() {
-        // Get all seats for the selected movie and schedule
-        List<Seat> availableSeats = bookingController.getAvailableSeats(
-            currentBooking.getMovie(), currentBooking.getSchedule());
-        
-        // Create row labels (A-J)
-        char[] rows = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J'};
-        
-        // Create columns (1-10)
-        int columns = 10;
-        
-        // Add row labels and seat buttons
-        for (char row : rows) {
-            for (int col = 1; col <= columns; col++) {
-                String seatNumber = row + String.valueOf(col);
-                
-                JToggleButton seatButton = new JToggleButton(seatNumber);
-                seatButton.setPreferredSize(new Dimension(40, 40));
-                seatButton.setMargin(new Insets(0, 0, 0, 0));
-                seatButton.setFocusPainted(false);
+        selectedSeatsLabel.setText("Loading seats...");
+        totalPriceLabel.setText("Total Price: ₱0.00");
+        
+        // Get all seats for the selected movie and schedule, in layout order
+        Booking booking = currentBooking;
+        asyncControllers.getAvailableSeats(booking.getMovie(), booking.getSchedule())
+            .whenComplete((availableSeats, error) -> {
+                // The panel has moved on to another booking
+                if (booking != currentBooking) return;
                 
-                // Find this seat in the available seats list
-                Seat seat = findSeatByNumber(availableSeats, seatNumber);
-                
-                if (seat != null) {
-                    // Store the seat with the button
-                    seatButton.putClientProperty("seat", seat);
-                    
-                    // Determine if seat is already occupied
-                    if (seat.isOccupied()) {
-                        seatButton.setEnabled(false);
-                        seatButton.setBackground(Color.LIGHT_GRAY);
-                    } else {
-                        // Set background color based on seat type
-                        if (seat.getType() == Seat.SeatType.STANDARD) {
-                            seatButton.setBackground(new Color(220, 220, 220));
-                        } else { // DELUXE
-                            seatButton.setBackground(new Color(255, 193, 7));
-                        }
-                        
-                        // Add action listener for seat selection
-                        seatButton.addActionListener(new ActionListener() {
-                            @Override
-                            public void actionPerformed(ActionEvent e) {
-                                JToggleButton btn = (JToggleButton) e.getSource();
-                                Seat selectedSeat = (Seat) btn.getClientProperty("seat");
-                                
-                                if (btn.isSelected()) {
-                                    // Check if already at maximum seats (6)
-                                    if (selectedSeats.size() >= 6) {
-                                        btn.setSelected(false);
-                                        JOptionPane.showMessageDialog(SeatSelectionPanel.this,
-                                            "You can only select up to 6 seats per booking",
-                                            "Maximum Seats Reached", JOptionPane.WARNING_MESSAGE);
-                                        return;
-                                    }
-                                    
-                                    // Add seat to selection
-                                    selectedSeats.add(selectedSeat);
-                                    btn.setBackground(new Color(40, 167, 69)); // Green for selected
-                                } else {
-                                    // Remove seat from selection
-                                    selectedSeats.remove(selectedSeat);
-                                    
-                                    // Reset color based on seat type
-                                    if (selectedSeat.getType() == Seat.SeatType.STANDARD) {
-                                        btn.setBackground(new Color(220, 220, 220));
-                                    } else { // DELUXE
-                                        btn.setBackground(new Color(255, 193, 7));
-                                    }
-                                }
-                                
-                                // Update the booking with selected seats
-                                updateBookingSeats();
-                                
-                                // Update summary labels
-                                updateSummary();
-                            }
-                        });
-                    }
-                } else {
-                    // This should not happen if seats are properly initialized
-                    seatButton.setEnabled(false);
-                    seatButton.setBackground(Color.LIGHT_GRAY);
+                if (error != null) {
+                    selectedSeatsLabel.setText("Could not load seats: " + error.getMessage());
+                    return;
                 }
                 
-                seatGrid.add(seatButton);
-                seatButtons.put(seatNumber, seatButton);
-            }
-        }
+                seatMap.setSeats(availableSeats, Cinema.SEATS_PER_ROW);
+                updateSummary();
+            });
     }
     
-    private Seat findSeatByNumber(List<Seat> seats, String seatNumber) {
-        for (Seat seat : seats) {
-            if (seat.getSeatNumber().equals(seatNumber)) {
-                return seat;
+    private void toggleSeat(Seat seat, int index) {
+        // The seats of a paid booking are locked
+        if (currentBooking.isPaid()) return;
+        
+        if (!seatMap.isSelected(index)) {
+            // Check if already at maximum seats
+            if (selectedSeats.size() >= MAX_SEATS) {
+                JOptionPane.showMessageDialog(SeatSelectionPanel.this,
+                    "You can only select up to " + MAX_SEATS + " seats per booking",
+                    "Maximum Seats Reached", JOptionPane.WARNING_MESSAGE);
+                return;
             }
+            
+            // Add seat to selection
+            selectedSeats.add(seat);
+            seatMap.setSelected(index, true);
+        } else {
+            // Remove seat from selection
+            selectedSeats.remove(seat);
+            seatMap.setSelected(index, false);
         }
-        return null;
+        
+        // Update the booking with selected seats
+        updateBookingSeats();
+        
+        // Update summary labels
+        updateSummary();
     }
     
     private void updateBookingSeats() {
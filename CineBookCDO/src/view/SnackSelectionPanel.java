@@ -3,6 +3,7 @@ package view;
 import controller.BookingController;
 import model.Booking;
 import model.Snack;
+import utils.ImageService;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -15,6 +16,8 @@ import java.util.List;
  * Panel for selecting snacks and concessions
  */
 public class SnackSelectionPanel extends JPanel {
+    private static final int SNACK_IMAGE_SIZE = 80;
+    
     private JPanel snackListPanel;
     private JScrollPane scrollPane;
     private JPanel cartPanel;
@@ -23,9 +26,11 @@ public class SnackSelectionPanel extends JPanel {
     private BookingController bookingController;
     private Booking currentBooking;
     
-    public SnackSelectionPanel(BookingController bookingController, Booking currentBooking) {
+    /**
+     * Create the panel; call setBooking before showing it
+     */
+    public SnackSelectionPanel(BookingController bookingController) {
         this.bookingController = bookingController;
-        this.currentBooking = currentBooking;
         
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -35,6 +40,14 @@ public class SnackSelectionPanel extends JPanel {
         
         // Load available snacks
         loadSnacks();
+    }
+    
+    /**
+     * Add snacks to another booking. The snack list is kept; the cart shows the new booking's snacks.
+     * @param booking The booking
+     */
+    public void setBooking(Booking booking) {
+        this.currentBooking = booking;
         
         // Update cart display
         updateCart();
@@ -156,15 +169,19 @@ public class SnackSelectionPanel extends JPanel {
         card.setBackground(Color.WHITE);
         
         // Left panel for snack icon/image
-        JPanel iconPanel = new JPanel();
-        iconPanel.setPreferredSize(new Dimension(80, 80));
+        JPanel iconPanel = new JPanel(new BorderLayout());
+        iconPanel.setPreferredSize(new Dimension(SNACK_IMAGE_SIZE, SNACK_IMAGE_SIZE));
         iconPanel.setBackground(new Color(240, 240, 240));
         
-        // Use first letter of snack name as placeholder
+        // First letter of snack name is the placeholder until the image has loaded
         JLabel iconLabel = new JLabel(snack.getName().substring(0, 1));
         iconLabel.setFont(new Font("Arial", Font.BOLD, 24));
         iconLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        iconPanel.add(iconLabel);
+        iconPanel.add(iconLabel, BorderLayout.CENTER);
+        ImageService.getShared().request(snack.getImageFile(), SNACK_IMAGE_SIZE, SNACK_IMAGE_SIZE, image -> {
+            iconLabel.setText(null);
+            iconLabel.setIcon(new ImageIcon(image));
+        });
         
         card.add(iconPanel, BorderLayout.WEST);
         
@@ -204,6 +221,9 @@ public class SnackSelectionPanel extends JPanel {
         addButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                // Snacks cannot be added once the booking is paid
+                if (currentBooking.isPaid()) return;
+                
                 // Add snack to booking
                 currentBooking.addSnack(snack);
                 
@@ -274,6 +294,8 @@ public class SnackSelectionPanel extends JPanel {
         removeButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                if (currentBooking.isPaid()) return;
+                
                 // Remove snack from booking
                 currentBooking.removeSnack(snack);
                 
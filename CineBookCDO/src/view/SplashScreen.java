@@ -1,20 +1,24 @@
 package view;
 
 import utils.DataInitializer;
+import utils.ImageService;
+import utils.StartupGraph;
 import utils.UIHelper;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 
 /**
  * SplashScreen displays a loading screen on application startup
  */
 public class SplashScreen extends JPanel {
+    // Startup task added by the splash screen
+    private static final String TASK_SCREENS = "screens";
+    
     private JProgressBar progressBar;
     private JLabel statusLabel;
     private MainFrame parentFrame;
+    private boolean startupFailed;
     
     public SplashScreen(MainFrame parentFrame) {
         this.parentFrame = parentFrame;
@@ -125,52 +129,72 @@ public class SplashScreen extends JPanel {
     }
     
     /**
-     * Start the loading process in a background thread
+     * Start loading the data and preparing the screens in parallel. The progress bar
+     * follows the tasks as they finish, and the login screen opens as soon as user
+     * accounts are loaded; the rest keeps loading behind it.
      */
     private void startLoading() {
-        // Create a timer to simulate loading process
-        Timer timer = new Timer(50, new ActionListener() {
-            private int progress = 0;
-            private String[] loadingMessages = {
-                "Initializing application...",
-                "Loading cinema data...",
-                "Loading movie information...",
-                "Setting up seating arrangements...",
-                "Preparing user interface...",
-                "Almost ready..."
-            };
+        StartupGraph startup = DataInitializer.getStartup();
+        startup.addTask(TASK_SCREENS, "Preparing user interface...", SplashScreen::prewarmScreens);
+        
+        DataInitializer.startInitialization(new StartupGraph.ProgressListener() {
+            @Override
+            public void taskStarted(String name, String description) {
+                SwingUtilities.invokeLater(() -> statusLabel.setText(description));
+            }
             
             @Override
-            public void actionPerformed(ActionEvent e) {
-                progress += 2;
-                
-                if (progress <= 100) {
-                    progressBar.setValue(progress);
-                    
-                    // Update loading message at certain intervals
-                    int messageIndex = progress / 20; // Change message every 20%
-                    if (messageIndex < loadingMessages.length) {
-                        statusLabel.setText(loadingMessages[messageIndex]);
-                    }
-                    
-                    // When progress is 30%, actually initialize the data
-                    if (progress == 30) {
-                        // Initialize data in a separate thread to avoid UI freezing
-                        new Thread(() -> {
-                            DataInitializer.initializeData();
-                        }).start();
-                    }
-                } else {
-                    // Stop the timer
-                    ((Timer)e.getSource()).stop();
-                    
-                    // Initialize the main application
-                    parentFrame.initializeApplication();
-                }
+            public void taskFinished(String name, int finishedTasks, int totalTasks) {
+                SwingUtilities.invokeLater(() -> {
+                    progressBar.setValue(finishedTasks * 100 / totalTasks);
+                    progressBar.setString(finishedTasks + " of " + totalTasks + " ready");
+                });
             }
         });
         
-        // Start the timer
-        timer.start();
+        startup.whenDone(DataInitializer.TASK_USERS).whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                showStartupError(error);
+                return;
+            }
+            parentFrame.initializeApplication();
+        }));
+        
+        startup.whenAllDone().whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                showStartupError(error);
+                return;
+            }
+            statusLabel.setText("Ready");
+            parentFrame.startupCompleted(startup.getTaskDurationsMillis());
+        }));
+    }
+    
+    // Load and initialize the main screens' classes so the first navigation does not
+    // pay for it on the Event Dispatch Thread. No components are created here.
+    private static void prewarmScreens() {
+        Class<?>[] screens = {
+            LoginPanel.class, MovieListingPanel.class, BookingPanel.class, SeatSelectionPanel.class,
+            SeatMapComponent.class, SnackSelectionPanel.class, PaymentPanel.class, TicketSummaryPanel.class,
+            BookingHistoryPanel.class, AdminPanel.class, BookingTableModel.class
+        };
+        for (Class<?> screen : screens) {
+            try {
+                Class.forName(screen.getName(), true, screen.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                // Loaded on first use instead
+            }
+        }
+        ImageService.getShared();
+    }
+    
+    private void showStartupError(Throwable error) {
+        // Reported once, even if several tasks failed
+        if (startupFailed) return;
+        startupFailed = true;
+        
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        statusLabel.setText("Could not start CineBook CDO");
+        parentFrame.startupFailed(cause.getMessage());
     }
 }
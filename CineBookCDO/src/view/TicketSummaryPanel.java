@@ -17,9 +17,10 @@ public class TicketSummaryPanel extends JPanel {
     private JPanel receiptPanel;
     private Booking currentBooking;
     
-    public TicketSummaryPanel(Booking currentBooking) {
-        this.currentBooking = currentBooking;
-        
+    /**
+     * Create the panel; call setBooking before showing it
+     */
+    public TicketSummaryPanel() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
@@ -27,6 +28,15 @@ public class TicketSummaryPanel extends JPanel {
         initComponents();
     }
     
+    /**
+     * Show another booking; the ticket appears once updateTicketInfo is called after payment
+     * @param booking The booking
+     */
+    public void setBooking(Booking booking) {
+        this.currentBooking = booking;
+        showPlaceholders();
+    }
+    
     private void initComponents() {
         // Title
         JLabel titleLabel = new JLabel("Booking Confirmation");
@@ -45,11 +55,6 @@ public class TicketSummaryPanel extends JPanel {
             BorderFactory.createEmptyBorder(10, 10, 10, 10)
         ));
         
-        // Placeholder for ticket content
-        JLabel ticketPlaceholder = new JLabel("Ticket information will appear here after payment");
-        ticketPlaceholder.setHorizontalAlignment(SwingConstants.CENTER);
-        ticketPanel.add(ticketPlaceholder, BorderLayout.CENTER);
-        
         splitPane.setLeftComponent(new JScrollPane(ticketPanel));
         
         // Receipt panel (right side)
@@ -59,10 +64,8 @@ public class TicketSummaryPanel extends JPanel {
             BorderFactory.createEmptyBorder(10, 10, 10, 10)
         ));
         
-        // Placeholder for receipt content
-        JLabel receiptPlaceholder = new JLabel("Receipt details will appear here after payment");
-        receiptPlaceholder.setHorizontalAlignment(SwingConstants.CENTER);
-        receiptPanel.add(receiptPlaceholder, BorderLayout.CENTER);
+        // Placeholders until the booking is paid
+        showPlaceholders();
         
         splitPane.setRightComponent(new JScrollPane(receiptPanel));
         
@@ -81,6 +84,24 @@ public class TicketSummaryPanel extends JPanel {
         add(infoPanel, BorderLayout.SOUTH);
     }
     
+    private void showPlaceholders() {
+        ticketPanel.removeAll();
+        receiptPanel.removeAll();
+        
+        // Placeholder for ticket content
+        JLabel ticketPlaceholder = new JLabel("Ticket information will appear here after payment");
+        ticketPlaceholder.setHorizontalAlignment(SwingConstants.CENTER);
+        ticketPanel.add(ticketPlaceholder, BorderLayout.CENTER);
+        
+        // Placeholder for receipt content
+        JLabel receiptPlaceholder = new JLabel("Receipt details will appear here after payment");
+        receiptPlaceholder.setHorizontalAlignment(SwingConstants.CENTER);
+        receiptPanel.add(receiptPlaceholder, BorderLayout.CENTER);
+        
+        revalidate();
+        repaint();
+    }
+    
     public void updateTicketInfo() {
         // Clear placeholder content
         ticketPanel.removeAll();